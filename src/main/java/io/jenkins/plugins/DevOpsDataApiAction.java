@@ -4,6 +4,7 @@ import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -340,17 +341,13 @@ public class DevOpsDataApiAction {
                     ArrayNode stagesArray = mapper.createArrayNode();
                     
                     try {
-                        // Direct access to the pipeline graph map for perfect consistency with notifications
-                        Field mapField = DevOpsPipelineGraph.class.getDeclaredField("map");
-                        mapField.setAccessible(true);
-                        @SuppressWarnings("unchecked")
-                        Map<String, DevOpsPipelineNode> stageMap = (Map<String, DevOpsPipelineNode>) mapField.get(pipelineGraph);
+                        // Snapshot of the pipeline graph nodes, the nodes notifications are built from
+                        List<DevOpsPipelineNode> stageNodes = pipelineGraph.getNodes();
                         
                         // Convert each stage node to a proper JSON structure
-                        if (stageMap != null && !stageMap.isEmpty()) {
-                            for (Map.Entry<String, DevOpsPipelineNode> entry : stageMap.entrySet()) {
+                        if (!stageNodes.isEmpty()) {
+                            for (DevOpsPipelineNode stageNode : stageNodes) {
                                 try {
-                                    DevOpsPipelineNode stageNode = entry.getValue();
                                     if (stageNode != null) {
                                         // Create a new ObjectNode and manually copy all fields to avoid serializing flowNode
                                         ObjectNode stageObject = mapper.createObjectNode();
@@ -448,9 +445,6 @@ public class DevOpsDataApiAction {
                         // This reduces response size and avoids duplicate data
                         
                     // This section only throws specific exceptions that are caught here
-                    } catch (NoSuchFieldException | IllegalAccessException e) {
-                        GenericUtils.printDebug(DevOpsDataApiAction.class.getName(), methodName,
-                                "Error accessing field via reflection: " + e.getMessage(), Level.WARNING);
                     } catch (NullPointerException | ClassCastException e) {
                         GenericUtils.printDebug(DevOpsDataApiAction.class.getName(), methodName,
                                 "Error processing pipeline graph data: " + e.getMessage(), Level.WARNING);
@@ -12,8 +12,17 @@ import hudson.model.RootAction;
 import hudson.util.Secret;
 import io.jenkins.plugins.config.DevOpsConfiguration;
 import io.jenkins.plugins.config.DevOpsConfigurationEntry;
+import io.jenkins.plugins.model.DevOpsCallbackRegistry;
 import io.jenkins.plugins.model.DevOpsConfigurationEntity;
+import io.jenkins.plugins.model.DevOpsEventOutbox;
+import io.jenkins.plugins.model.DevOpsInstanceBulkhead;
+import io.jenkins.plugins.model.DevOpsNotificationBatcher;
+import io.jenkins.plugins.model.DevOpsPipelineInfoCache;
+import io.jenkins.plugins.utils.CommUtils;
+import io.jenkins.plugins.utils.DevOpsCircuitBreakers;
 import io.jenkins.plugins.utils.DevOpsConstants;
+import io.jenkins.plugins.utils.DevOpsPoller;
+import io.jenkins.plugins.utils.DevOpsRateLimiter;
 import io.jenkins.plugins.utils.GenericUtils;
 import jenkins.model.Jenkins;
 import net.sf.json.JSONArray;
@@ -227,6 +236,120 @@ public class DevOpsEndpointsAction implements RootAction {
 		return new JsonHttpResponse(response, 200);
 	}
 
+	/**
+	 * @return {"pools":[{"instance":"https://host:443","inFlight":0,"requests":12,...}]}
+	 */
+	@GET
+	@WebMethod(name = "http-pools")
+	public JsonHttpResponse getHttpPoolMetrics() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		response.put("pools", CommUtils.getTransport().getPoolMetrics());
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"instances":[{"instance":"https://host","dispatcher":{"queueDepth":0,"delivered":42,...},...}],"batcher":{...}}
+	 */
+	@GET
+	@WebMethod(name = "notification-dispatcher")
+	public JsonHttpResponse getNotificationDispatcherMetrics() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		// notifications are queued on the dispatcher of their instance
+		response.put("instances", DevOpsInstanceBulkhead.getHealth());
+		response.put("batcher", DevOpsNotificationBatcher.get().getMetrics());
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"instances":[{"instance":"https://host","status":"UP","calls":42,"failures":0,"rejected":0,"timedOut":0,...}]}
+	 */
+	@GET
+	@WebMethod(name = "instances")
+	public JsonHttpResponse getInstanceHealth() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		response.put("instances", DevOpsInstanceBulkhead.getHealth());
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"outbox":{"pending":3,"events":[{"id":"...","url":"...","attempts":2,...}],...}}
+	 */
+	@GET
+	@WebMethod(name = "outbox")
+	public JsonHttpResponse getOutboxStatus() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+		if (outbox != null)
+			response.put("outbox", outbox.getStatus());
+		else
+			response.put("message", "Outbox is disabled");
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"pipelineInfoCache":{"size":12,"hits":340,"loads":12,"writes":3,"unchangedWrites":57,...}}
+	 */
+	@GET
+	@WebMethod(name = "pipeline-info-cache")
+	public JsonHttpResponse getPipelineInfoCacheStatus() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		response.put("pipelineInfoCache", DevOpsPipelineInfoCache.get().getStatus());
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"callbackRegistry":{"entries":3,"ttlHours":168,"regions":[{"name":"webhooks","size":1,"maxEntries":10000,"expired":0,"overflowed":0,"released":4},...]}}
+	 */
+	@GET
+	@WebMethod(name = "callback-registry")
+	public JsonHttpResponse getCallbackRegistryStatus() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		response.put("callbackRegistry", DevOpsCallbackRegistry.get().getStatus());
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"pollers":{"config.upload":{"polls":12,"completed":11,"exhausted":1,"cancelled":0,"failed":0,"attempts":96,"averageMillis":5230,"maxMillis":61200},...}}
+	 */
+	@GET
+	@WebMethod(name = "pollers")
+	public JsonHttpResponse getPollerMetrics() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		response.put("pollers", DevOpsPoller.getMetrics());
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"circuitBreakers":[{"instance":"https://dev.service-now.com:443","toolId":"4a2c...","state":"OPEN","failures":5,"remainingDelayMs":12000,"rejected":37,"opened":1,"probes":0},...]}
+	 */
+	@GET
+	@WebMethod(name = "circuit-breakers")
+	public JsonHttpResponse getCircuitBreakers() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		response.put("circuitBreakers", DevOpsCircuitBreakers.getStatus());
+		return new JsonHttpResponse(response, 200);
+	}
+
+	/**
+	 * @return {"rateLimits":[{"instance":"https://dev.service-now.com:443","tokens":42,"burst":50,"controlReserve":10,"lanes":{"control":{"granted":120,"throttled":2,"rejected":0,"averageWaitMillis":35},"telemetry":{...}}},...]}
+	 */
+	@GET
+	@WebMethod(name = "rate-limits")
+	public JsonHttpResponse getRateLimits() {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		JSONObject response = new JSONObject();
+		response.put("rateLimits", DevOpsRateLimiter.getStatus());
+		return new JsonHttpResponse(response, 200);
+	}
+
 	private DevOpsConfigurationEntry findMatchingConfiguration(DevOpsConfigurationEntity body, List<DevOpsConfigurationEntry> existingEntries) {
 		if (existingEntries == null) {
 			return null;
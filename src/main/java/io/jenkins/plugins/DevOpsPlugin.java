@@ -2,6 +2,8 @@ package io.jenkins.plugins;
 
 import hudson.Extension;
 import hudson.Plugin;
+import io.jenkins.plugins.model.DevOpsEventOutbox;
+import io.jenkins.plugins.model.DevOpsNotificationModel;
 
 @Extension
 public class DevOpsPlugin extends Plugin {
@@ -12,5 +14,9 @@ public class DevOpsPlugin extends Plugin {
     public void postInitialize() throws Exception {
         super.postInitialize();
         DevOpsRootAction.deletePipelineInfoFiles();
+        //replay events that could not be delivered before the restart
+        DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+        if (outbox != null)
+            outbox.start(new DevOpsNotificationModel()::redeliver);
     }
 }
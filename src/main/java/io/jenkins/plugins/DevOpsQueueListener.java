@@ -5,6 +5,7 @@ import java.util.logging.Level;
 import hudson.Extension;
 import hudson.model.Queue;
 import hudson.model.queue.QueueListener;
+import io.jenkins.plugins.model.DevOpsFreestyleGate;
 import io.jenkins.plugins.utils.GenericUtils;
 
 @Extension
@@ -32,5 +33,9 @@ public class DevOpsQueueListener extends QueueListener {
 	@Override
 	public void onLeft(Queue.LeftItem li) {
 		GenericUtils.printDebug(DevOpsQueueListener.class.getName(), "onLeft", new String[]{"itemId"}, new String[]{String.valueOf(li.getId())}, Level.FINE);
+		DevOpsFreestyleGate.get().forget(li.getId());
+		// a cancelled item never gets a run, nothing else would release its callback registrations
+		if (li.isCancelled())
+			DevOpsRootAction.evictQueueItem(li);
 	}
 }
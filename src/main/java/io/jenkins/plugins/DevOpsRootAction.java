@@ -5,10 +5,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.CharBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 import java.util.logging.Level;
 
 import javax.servlet.FilterChain;
@@ -20,19 +17,18 @@ import org.apache.commons.text.StringEscapeUtils;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 
-import com.google.gson.FieldNamingPolicy;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import hudson.Extension;
 import hudson.FilePath;
+import hudson.model.Job;
+import hudson.model.Queue;
 import hudson.model.RootAction;
+import hudson.model.Run;
 import hudson.security.csrf.CrumbExclusion;
 import io.jenkins.plugins.config.DevOpsConfigurationEntry;
+import io.jenkins.plugins.model.DevOpsCallbackRegistry;
 import io.jenkins.plugins.model.DevOpsModel;
-import io.jenkins.plugins.model.DevOpsRunStatusJobModel;
-import io.jenkins.plugins.model.DevOpsRunStatusModel;
+import io.jenkins.plugins.model.DevOpsPipelineInfoCache;
 import io.jenkins.plugins.pipeline.steps.executions.DevOpsPipelineChangeStepExecution;
-import io.jenkins.plugins.utils.CommUtils;
 import io.jenkins.plugins.utils.DevOpsConstants;
 import io.jenkins.plugins.utils.GenericUtils;
 import net.sf.json.JSONObject;
@@ -41,15 +37,16 @@ import net.sf.json.JSONObject;
 @Extension
 public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 
-	private static final HashMap<String, String> webhooks = new HashMap<>(); // token->jobId (Dispatcher)
-	private static final HashMap<String, String> jobs = new HashMap<>();     // jobId->token (Dispatcher)
-	private static final HashMap<String, String> callbackContent = new HashMap<>();// jobId->callbackResponse (Dispatcher/FreestyleStep)
-	private static final HashMap<String, String> callbackToken = new HashMap<>(); // jobId->token (FreestyleStep)
-	private static final HashMap<String, DevOpsPipelineChangeStepExecution> pipelineWebhooks = new HashMap<>(); // token->asyncStepExecution (PipelineChangeStep)
-	private static final HashMap<String, String> changeRequestContent = new HashMap<>(); // jobId->callbackResponse (Dispatcher/FreestyleStep)
+	private static final DevOpsCallbackRegistry registry = DevOpsCallbackRegistry.get();
+	private static final DevOpsCallbackRegistry.Region<String> webhooks = registry.pendingRegion("webhooks"); // token->jobId (Dispatcher)
+	private static final DevOpsCallbackRegistry.Region<String> jobs = registry.pendingRegion("jobs");     // jobId->token (Dispatcher)
+	private static final DevOpsCallbackRegistry.Region<String> callbackContent = registry.region("callbackContent");// jobId->callbackResponse (Dispatcher/FreestyleStep)
+	private static final DevOpsCallbackRegistry.Region<String> callbackToken = registry.region("callbackToken"); // jobId->token (FreestyleStep)
+	private static final DevOpsCallbackRegistry.Region<DevOpsPipelineChangeStepExecution> pipelineWebhooks = registry.pendingRegion("pipelineWebhooks"); // token->asyncStepExecution (PipelineChangeStep)
+	private static final DevOpsCallbackRegistry.Region<String> changeRequestContent = registry.region("changeRequestContent"); // jobId->callbackResponse (Dispatcher/FreestyleStep)
 
-	private static final HashMap<String, Boolean> trackedJobs = new HashMap<>(); // runId->True/False
-	private static final HashMap<String, DevOpsModel.DevOpsPipelineInfo> snPipelineInfo = new HashMap<>(); // runId
+	private static final DevOpsCallbackRegistry.Region<Boolean> trackedJobs = registry.pendingRegion("trackedJobs"); // runId->True/False
+	private static final DevOpsCallbackRegistry.Region<DevOpsModel.DevOpsPipelineInfo> snPipelineInfo = registry.pendingRegion("snPipelineInfo"); // runId
 	// ->JSONObject
 
 	@Override
@@ -69,31 +66,18 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 
 	private boolean _handleFreestyleCallback(String token, StringBuffer content) {
 		// cross validation to make sure the token received matches the one we had mapped to this jobId
-		String jobId;
-		synchronized (webhooks) {
-			jobId = webhooks.remove(token);
-		}
-		String originalToken;
-		synchronized (jobs) {
-			originalToken = jobs.remove(jobId);
-		}
-		if (jobId != null && originalToken.equals(token)) {
-			synchronized (callbackContent) {
-				callbackContent.put(jobId, content.toString().trim());
-			}
-			synchronized (callbackToken) {
-				callbackToken.put(jobId, token);
-			}
+		String jobId = webhooks.remove(token);
+		String originalToken = jobs.remove(jobId);
+		if (jobId != null && token.equals(originalToken)) {
+			callbackContent.put(jobId, content.toString().trim());
+			callbackToken.put(jobId, token);
 			return true;
 		}
 		return false;
 	}
 
 	private boolean _handlePipelineCallback(String token, StringBuffer content) {
-		DevOpsPipelineChangeStepExecution exec;
-		synchronized (pipelineWebhooks) {
-			exec = pipelineWebhooks.remove(token);
-		}
+		DevOpsPipelineChangeStepExecution exec = pipelineWebhooks.remove(token);
 		if (exec != null) {
 			exec.onTriggered(token, content.toString().trim());
 			return true;
@@ -103,74 +87,20 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 
 	private boolean _displayFreestyleChangeRequestInfo(String token, StringBuffer content) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_displayFreestyleChangeRequestInfo", new String[]{"token"}, new String[]{token}, Level.INFO);
-		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_displayFreestyleChangeRequestInfo", new String[]{"content"}, new String[]{content.toString()}, Level.INFO);
-		String jobId;
-		synchronized (webhooks) {
-			jobId = webhooks.get(token);
-		}
-		String originalToken;
-		synchronized (jobs) {
-			originalToken = jobs.get(jobId);
-		}
-		if (jobId != null && originalToken.equals(token)) {
-			synchronized (changeRequestContent) {
-				changeRequestContent.put(jobId, content.toString().trim());
-			}
+		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_displayFreestyleChangeRequestInfo", new String[]{"content"}, Level.INFO, () -> new String[]{content.toString()});
+		String jobId = webhooks.get(token);
+		String originalToken = jobs.get(jobId);
+		if (jobId != null && token.equals(originalToken)) {
+			changeRequestContent.put(jobId, content.toString().trim());
 			return true;
 		}
 		return false;
 	}
 
-	private JSONObject _sendDummyNotification(String reqestedToolId, DevOpsConfigurationEntry devopsConfig) {
-		try {
-			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_sendDummyNotification", new String[]{"reqestedToolId"}, new String[]{reqestedToolId}, Level.FINE);
-			JSONObject params = new JSONObject();
-			params.put(DevOpsConstants.TOOL_TYPE_ATTR.toString(), DevOpsConstants.TOOL_TYPE.toString());
-			String toolId = devopsConfig.getToolId();
-			params.put(DevOpsConstants.TOOL_ID_ATTR.toString(), toolId);
-			String user = DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId());
-			String pwd = DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId());
-
-			DevOpsRunStatusModel model = new DevOpsRunStatusModel();
-			DevOpsRunStatusJobModel jobModel = new DevOpsRunStatusJobModel();
-
-			UUID uuid = UUID.randomUUID();
-			jobModel.setName(uuid.toString() + "_dummyWebhookPipeline");
-			model.setJobModel(jobModel);
-			model.setNumber(0);
-			model.setUrl(uuid.toString());
-			model.setPronoun(DevOpsConstants.JENKINS_DUMMY_EVENT_PRONOUN.toString());
-
-			Gson gson = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.IDENTITY).setPrettyPrinting().create();
-			String data = gson.toJson(model);
-			JSONObject jsonResult = null;
-
-
-			if (!GenericUtils.isEmptyOrDefault(devopsConfig.getSecretCredentialId())) {
-				Map<String, String> tokenDetails = new HashMap<String, String>();
-				tokenDetails.put(DevOpsConstants.TOKEN_VALUE.toString(),
-						DevOpsConfigurationEntry.getTokenText(devopsConfig.getSecretCredentialId()));
-				jsonResult = CommUtils.callV2Support("POST", devopsConfig.getNotificationUrl(), params, data, user, pwd,
-						null, null, tokenDetails);
-			} else {
-				jsonResult = CommUtils.call("POST", devopsConfig.getNotificationUrl(), params, data, user, pwd, null, null);
-			}
-			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_sendDummyNotification", new String[]{"reqestedToolId", "jsonResult"}, new String[]{reqestedToolId, jsonResult.toString()}, Level.FINE);
-			return jsonResult;
-		} catch (Exception e) {
-			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_sendDummyNotification", "Sending dummy notification failed for toolId: " + reqestedToolId + " Exception:" + e.getMessage(), Level.SEVERE);
-			e.printStackTrace();
-			return null;
-		}
-	}
-
 	private boolean _displayPipelineChangeRequestInfo(String token, StringBuffer content) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_displayPipelineChangeRequestInfo", new String[]{"token"}, new String[]{token}, Level.INFO);
-		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_displayPipelineChangeRequestInfo", new String[]{"content"}, new String[]{content.toString()}, Level.INFO);
-		DevOpsPipelineChangeStepExecution exec;
-		synchronized (pipelineWebhooks) {
-			exec = pipelineWebhooks.get(token);
-		}
+		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "_displayPipelineChangeRequestInfo", new String[]{"content"}, Level.INFO, () -> new String[]{content.toString()});
+		DevOpsPipelineChangeStepExecution exec = pipelineWebhooks.get(token);
 		if (exec != null) {
 			exec.displayPipelineChangeRequestInfo(token, content.toString().trim());
 			return true;
@@ -224,17 +154,17 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 	public boolean updateResponseInFile(String jobName, JSONObject apiResponse, String rootDirFilePath, String toolId, String instanceUrl) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "updateResponseInFile", new String[]{"jobName"}, new String[]{jobName}, Level.FINE);
 		try {
-			FilePath pipelineInfoFile = new FilePath(new File(rootDirFilePath));
-			if (pipelineInfoFile.exists()) {
-				String fileContents = pipelineInfoFile.readToString();
-				JSONObject pipelineInfo = JSONObject.fromObject(fileContents);
+			JSONObject cachedPipelineInfo = DevOpsPipelineInfoCache.get().read(rootDirFilePath);
+			if (cachedPipelineInfo != null) {
+				// the cached content is shared, update a copy
+				JSONObject pipelineInfo = JSONObject.fromObject(cachedPipelineInfo.toString());
 				if (pipelineInfo != null) {
 					String configKey = GenericUtils.getConfigEntryTrackKey(instanceUrl, toolId);
 					JSONObject trackObj = GenericUtils.getTrackInfoForConfigKey(pipelineInfo, configKey);
 					if (trackObj != null) {
 						JSONObject updatedTrackObj = getUpdatedResponse(apiResponse, trackObj);
 						pipelineInfo.put(configKey, updatedTrackObj);
-						pipelineInfoFile.write(pipelineInfo.toString(), "UTF-8");
+						DevOpsPipelineInfoCache.get().write(rootDirFilePath, pipelineInfo);
 						String logMessage = "jobName : " + jobName + " pipelineInfoFile: " + rootDirFilePath + " is updated with content: " + pipelineInfo.toString();
 						GenericUtils.printDebug(DevOpsRootAction.class.getName(), "updateResponseInFile", logMessage, Level.FINE);
 						return true;
@@ -256,7 +186,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 	 *edits the request data to match the format of file data
 	 */
 	public JSONObject getUpdatedResponse(JSONObject apiResponse, JSONObject fileData) {
-		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getUpdatedResponse", new String[]{"apiResponse", "fileData"}, new String[]{apiResponse.toString(), fileData.toString()}, Level.FINE);
+		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getUpdatedResponse", new String[]{"apiResponse", "fileData"}, Level.FINE, () -> new String[]{apiResponse.toString(), fileData.toString()});
 		JSONObject pipelineInfo = fileData.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
 		if (pipelineInfo != null) {
 			if (apiResponse.containsKey(DevOpsConstants.TRACKING_RESPONSE_ATTR.toString())) {
@@ -267,7 +197,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 			}
 		}
 		fileData.put(DevOpsConstants.COMMON_RESPONSE_RESULT.toString(), pipelineInfo);
-		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getUpdatedResponse", new String[]{"apiResponse", "fileData"}, new String[]{apiResponse.toString(), fileData.toString()}, Level.FINE);
+		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getUpdatedResponse", new String[]{"apiResponse", "fileData"}, Level.FINE, () -> new String[]{apiResponse.toString(), fileData.toString()});
 		return fileData;
 	}
 
@@ -275,7 +205,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 		StringBuffer content = new StringBuffer();
 		try {
 			String requestType = "Call back api";
-			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", new String[]{"request"}, new String[]{GenericUtils.getRequestInfo(request, null)}, Level.FINE);
+			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", new String[]{"request"}, Level.FINE, () -> new String[]{GenericUtils.getRequestInfo(request, null)});
 			// read request content
 			String token = request.getOriginalRestOfPath().substring(1).trim(); //Strip leading slash
 
@@ -300,7 +230,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 					boolean result = _displayFreestyleChangeRequestInfo(token, content);
 					if (result) {
 						response.setStatus(200);
-						GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", requestType + " successfully completed for request: " + GenericUtils.getRequestInfo(request, content.toString()) + ", response: " + GenericUtils.getResponseInfo(response), Level.FINE);
+						printRequestDebug(requestType + " successfully completed for request: ", request, response, content);
 						return;
 					}
 					response.setStatus(400);
@@ -318,7 +248,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 					boolean result = _displayPipelineChangeRequestInfo(token, content);
 					if (result) {
 						response.setStatus(200);
-						GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", requestType + " successfully completed for request: " + GenericUtils.getRequestInfo(request, content.toString()) + ", response: " + GenericUtils.getResponseInfo(response), Level.FINE);
+						printRequestDebug(requestType + " successfully completed for request: ", request, response, content);
 						return;
 					}
 					response.setStatus(400);
@@ -357,7 +287,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 					GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", requestType + " Failed, reason: Could not find an active DevOps configuration for toolId " + toolIdValue + " and instanceUrl " + instanceUrl + " for request: " + GenericUtils.getRequestInfo(request, content.toString()) + ", response: " + GenericUtils.getResponseInfo(response), Level.SEVERE);
 					return;
 				}
-				JSONObject jsonResult = _sendDummyNotification(toolIdValue, devopsConfig);
+				JSONObject jsonResult = new DevOpsModel().sendDummyNotification(devopsConfig);
 				if (null == jsonResult) {
 					response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
 					response.setContentType("text/plain");
@@ -376,12 +306,12 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 					} catch (IOException e) {
 						e.printStackTrace();
 					}
-					GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", requestType + " completed successfully, request: " + GenericUtils.getRequestInfo(request, content.toString()) + ", response: " + GenericUtils.getResponseInfo(response), Level.FINE);
+					printRequestDebug(requestType + " completed successfully, request: ", request, response, content);
 					return;
 				}
 			}
 
-			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", new String[]{"message"}, new String[]{"Callback handler called with token: " + token + " / content: " + content.toString()}, Level.INFO);
+			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", new String[]{"message"}, Level.INFO, () -> new String[]{"Callback handler called with token: " + token + " / content: " + content.toString()});
 
 			boolean result = false;
 			requestType = "call back";
@@ -402,7 +332,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 			if (result) {
 				response.setHeader("Result", "Jenkins webhook triggered successfully");
 				response.setStatus(200);
-				GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", requestType + " completed successfully, request: " + GenericUtils.getRequestInfo(request, content.toString()) + ", response: " + GenericUtils.getResponseInfo(response), Level.FINE);
+				printRequestDebug(requestType + " completed successfully, request: ", request, response, content);
 				return;
 			} else {
 				response.setStatus(410); // 410 Gone
@@ -415,14 +345,14 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 		}
 	}
 
+	private static void printRequestDebug(String message, StaplerRequest request, StaplerResponse response, StringBuffer content) {
+		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "doDynamic", Level.FINE, () -> message + GenericUtils.getRequestInfo(request, content.toString()) + ", response: " + GenericUtils.getResponseInfo(response));
+	}
+
 	public static JSONObject getTrackInfoForConfigKey(String jobName, String path, String key) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getTrackInfoForConfigKey", new String[]{"jobName", "path"}, new String[]{jobName, path}, Level.INFO);
 		try {
-			FilePath pipelineInfoFile = new FilePath(new File(path));
-			if (!pipelineInfoFile.exists())
-				return null;
-			String fileContents = pipelineInfoFile.readToString();
-			JSONObject pipelineInfo = JSONObject.fromObject(fileContents);
+			JSONObject pipelineInfo = DevOpsPipelineInfoCache.get().read(path);
 			if (pipelineInfo != null) {
 				return GenericUtils.getTrackInfoForConfigKey(pipelineInfo, key);
 			}
@@ -436,12 +366,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 	public static JSONObject getTrackingObjectFromFile(String path) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getTrackingObjectFromFile", new String[]{"path"}, new String[]{path}, Level.INFO);
 		try {
-			FilePath pipelineInfoFile = new FilePath(new File(path));
-			if (!pipelineInfoFile.exists())
-				return null;
-			String fileContents = pipelineInfoFile.readToString();
-			JSONObject pipelineInfo = JSONObject.fromObject(fileContents);
-			return pipelineInfo;
+			return DevOpsPipelineInfoCache.get().read(path);
 		} catch (Exception e) {
 			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getTrackingObjectFromFile", "reading pipelineInfoFile file: " + path + " failed" + "\n Exception: " + GenericUtils.getStackTraceAsString(e), Level.SEVERE);
 			return null;
@@ -451,8 +376,8 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 	public static Boolean updateInfoInFile(String jobName, /*JSONObject infoAPIResponse*/ JSONObject configsTrackInfo, String path) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "updateInfoInFile", new String[]{"jobName", "path"}, new String[]{jobName, path}, Level.INFO);
 		try {
-			FilePath pipelineInfoFile = new FilePath(new File(path));
-			pipelineInfoFile.write(configsTrackInfo.toString(), "UTF-8");
+			// only written when the content changed
+			DevOpsPipelineInfoCache.get().write(path, configsTrackInfo);
 			return true;
 		} catch (Exception e) {
 			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "updateInfoInFile", "update pipelineInfoFile file: " + path + " failed" + "\n Exception: " + GenericUtils.getStackTraceAsString(e), Level.SEVERE);
@@ -497,14 +422,13 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 			List<FilePath> contents = new ArrayList<FilePath>(jenkinsRootDir.list());
 			for (FilePath jobPath : contents) {
 				pipelineInfoFile = jobPath + DevOpsConstants.PATH_SEPARATOR.toString() + DevOpsConstants.SERVICENOW_PIPELINE_INFO_FILE_NAME.toString();
-				FilePath pipelineInfoPath = new FilePath(new File(pipelineInfoFile));
-				if (pipelineInfoPath.exists()) {
-					String fileContents = pipelineInfoPath.readToString();
-					JSONObject pipelineInfo = JSONObject.fromObject(fileContents);
-					if (pipelineInfo != null) {
-						String configKey = GenericUtils.getConfigEntryTrackKey(instanceUrl, toolId);
-						if (pipelineInfo.containsKey(configKey))
-							pipelineInfoPath.write(pipelineInfo.discard(configKey).toString(), "UTF-8");
+				JSONObject pipelineInfo = DevOpsPipelineInfoCache.get().read(pipelineInfoFile);
+				if (pipelineInfo != null) {
+					String configKey = GenericUtils.getConfigEntryTrackKey(instanceUrl, toolId);
+					if (pipelineInfo.containsKey(configKey)) {
+						// the cached content is shared, update a copy
+						JSONObject updatedPipelineInfo = JSONObject.fromObject(pipelineInfo.toString());
+						DevOpsPipelineInfoCache.get().write(pipelineInfoFile, updatedPipelineInfo.discard(configKey));
 					}
 				} else {
 					folderPipelineInfoFile = jobPath + DevOpsConstants.JOBS_PATH.toString();
@@ -524,6 +448,7 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 	public static Boolean deletePipelineInfoFiles() {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "deletePipelineInfoFiles", new String[]{}, new String[]{}, Level.INFO);
 		try {
+			DevOpsPipelineInfoCache.get().clear();
 			DevOpsModel devopsModel = new DevOpsModel();
 			String jenkinsDirFilePath = devopsModel.getJenkinsRootDirPath() + DevOpsConstants.JOBS_PATH.toString();
 			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "deletePipelineInfoFiles", new String[]{"jenkinsDirFilePath"}, new String[]{jenkinsDirFilePath}, Level.INFO);
@@ -567,164 +492,142 @@ public class DevOpsRootAction extends CrumbExclusion implements RootAction {
 	}
 
 	public static Boolean getTrackedJob(String key) {
-		Boolean tracking;
-		synchronized (trackedJobs) {
-			tracking = trackedJobs.get(key);
-		}
-		return tracking;
+		return trackedJobs.get(key);
 	}
 
 	public static void setTrackedJob(String key) {
-		Boolean tracking = Boolean.valueOf(true);
-		synchronized (trackedJobs) {
-			trackedJobs.put(key, tracking);
-		}
+		trackedJobs.put(key, Boolean.valueOf(true));
 	}
 
 	public static Boolean removeTrackedJob(String key) {
-		Boolean tracking = false;
-		synchronized (trackedJobs) {
-			if (trackedJobs.containsKey(key)) {
-				tracking = trackedJobs.remove(key);
-			}
-		}
-		return tracking;
+		Boolean tracking = trackedJobs.remove(key);
+		return tracking != null ? tracking : false;
 	}
 
 	public static void setSnPipelineInfo(String key, DevOpsModel.DevOpsPipelineInfo pipelineInfo) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "setSnPipelineInfo", new String[]{"key"}, new String[]{key}, Level.FINE);
-		synchronized (snPipelineInfo) {
-			snPipelineInfo.put(key, pipelineInfo);
-		}
+		snPipelineInfo.put(key, pipelineInfo);
 	}
 
 	public static DevOpsModel.DevOpsPipelineInfo getSnPipelineInfo(String key) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "getSnPipelineInfo", new String[]{"key"}, new String[]{key}, Level.FINE);
-		DevOpsModel.DevOpsPipelineInfo pipelineInfo;
-		synchronized (snPipelineInfo) {
-			pipelineInfo = snPipelineInfo.get(key);
-		}
-		return pipelineInfo;
+		return snPipelineInfo.get(key);
 	}
 
 	public static void removeSnPipelineInfo(String key) {
-		synchronized (snPipelineInfo) {
-			if (snPipelineInfo.containsKey(key)) {
-				snPipelineInfo.remove(key);
-			}
-		}
+		snPipelineInfo.remove(key);
 	}
 
 	public static String getChangeRequestContent(String jobId) {
-		String content;
-		synchronized (changeRequestContent) {
-			content = changeRequestContent.get(jobId);
-		}
-		return content;
+		return changeRequestContent.get(jobId);
 	}
 
 	public static String removeChangeRequestContent(String jobId) {
-		String content;
-		synchronized (changeRequestContent) {
-			content = changeRequestContent.remove(jobId);
-		}
-		return content;
+		return changeRequestContent.remove(jobId);
 	}
 
 	// called from dispatcher
 	public static String getCallbackContent(String jobId) {
-		String content;
-		synchronized (callbackContent) {
-			content = callbackContent.get(jobId);
-		}
-		return content;
+		return callbackContent.get(jobId);
 	}
 
 	public static String removeCallbackContent(String jobId) {
-		String content;
-		synchronized (callbackContent) {
-			content = callbackContent.remove(jobId);
-		}
-		return content;
+		return callbackContent.remove(jobId);
 	}
 
 	// called from dispatcher
 	public static void setCallbackContent(String jobId, String content) {
 		if (jobId != null && content != null) {
-			synchronized (callbackContent) {
-				callbackContent.put(jobId, content.trim());
-			}
+			callbackContent.put(jobId, content.trim());
 		}
 	}
 
 	public static String removeCallbackToken(String jobId) {
-		String token;
-		synchronized (callbackToken) {
-			token = callbackToken.remove(jobId);
-		}
-		return token;
+		return callbackToken.remove(jobId);
 	}
 
 	public static String getToken(String jobId) {
-		String token;
-		synchronized (jobs) {
-			token = jobs.get(jobId);
-		}
-		return token;
+		return jobs.get(jobId);
 	}
 
 	public static String getJobId(String token) {
-		String jobId;
-		synchronized (webhooks) {
-			jobId = webhooks.get(token);
-		}
-		return jobId;
+		return webhooks.get(token);
 	}
 
 	// called from task dispatcher
 	public static void registerWebhook(String token, String jobId) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "registerWebhook", new String[]{"message"}, new String[]{"Registering freestyle webhook with token: " + token}, Level.INFO);
-		synchronized (webhooks) {
-			webhooks.put(token, jobId);
-		}
+		// owned by the job id, so it is dropped with the other entries of the run
+		webhooks.put(token, jobId, jobId);
 	}
 
 	// called from task dispatcher
 	public static void registerJob(String jobId, String token) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "registerJob", new String[]{"message"}, new String[]{"Registering freestyle job with id: " + jobId}, Level.INFO);
-		synchronized (jobs) {
-			jobs.put(jobId, token);
-		}
+		// owned by the job id as well, so it is dropped with the webhook
+		jobs.put(jobId, token, jobId);
 	}
 
 	// not used
 	public static void deregisterWebhook(String token) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "deregisterWebhook", new String[]{"message"}, new String[]{"Deregistering freestyle webhook with token: " + token}, Level.INFO);
-		synchronized (webhooks) {
-			webhooks.remove(token);
-		}
+		webhooks.remove(token);
 	}
 
 	// not used
 	public static void deregisterJob(String jobId) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "deregisterJob", new String[]{"message"}, new String[]{"Deregistering freestyle job with id: " + jobId}, Level.INFO);
-		synchronized (jobs) {
-			jobs.remove(jobId);
-		}
+		jobs.remove(jobId);
 	}
 
 	public static void registerPipelineWebhook(DevOpsPipelineChangeStepExecution exec) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "registerPipelineWebhook", new String[]{"message"}, new String[]{"Registering pipeline webhook with token: " + exec.getToken()}, Level.INFO);
-		synchronized (pipelineWebhooks) {
-			pipelineWebhooks.put(exec.getToken(), exec);
+		String owner = null;
+		try {
+			Run<?, ?> run = exec.getContext().get(Run.class);
+			owner = run != null ? run.getExternalizableId() : null;
+		} catch (IOException | InterruptedException e) {
+			// the webhook is still released by its time to live
+			GenericUtils.printDebug(DevOpsRootAction.class.getName(), "registerPipelineWebhook", new String[]{"message"}, new String[]{"Run of the step not available: " + e.getMessage()}, Level.FINE);
 		}
+		pipelineWebhooks.put(exec.getToken(), exec, owner);
 	}
 
 	public static void deregisterPipelineWebhook(DevOpsPipelineChangeStepExecution exec) {
 		GenericUtils.printDebug(DevOpsRootAction.class.getName(), "deregisterPipelineWebhook", new String[]{"message"}, new String[]{"Deregistering pipeline webhook with token: " + exec.getToken()}, Level.INFO);
-		synchronized (pipelineWebhooks) {
-			pipelineWebhooks.remove(exec.getToken());
-		}
+		pipelineWebhooks.remove(exec.getToken());
+	}
+
+	/**
+	 * Drops what is left of a run in the callback registry (tracking state, webhooks, unconsumed callbacks).
+	 * Called once the run is finalized or deleted, nothing reads these entries afterwards.
+	 */
+	public static void evictRun(Run<?, ?> run) {
+		if (run == null)
+			return;
+		String key = run.getParent().getFullName() + DevOpsConstants.TRACKING_KEY_SEPARATOR.toString() + run.getId();
+		trackedJobs.remove(key);
+		snPipelineInfo.remove(key);
+		// freestyle entries are keyed by queue id and job url, see DevOpsModel.getJobId
+		evictJobId(run.getQueueId() + "/" + run.getParent().getUrl());
+		registry.evictOwner(run.getExternalizableId());
+	}
+
+	/**
+	 * Drops the freestyle entries of a queue item that left the queue without a run, such as a cancelled item.
+	 * Its run would otherwise be the one to release them.
+	 */
+	public static void evictQueueItem(Queue.Item item) {
+		if (item != null && item.task instanceof Job)
+			evictJobId(item.getId() + "/" + ((Job<?, ?>) item.task).getUrl());
+	}
+
+	private static void evictJobId(String jobId) {
+		jobs.remove(jobId);
+		callbackContent.remove(jobId);
+		callbackToken.remove(jobId);
+		changeRequestContent.remove(jobId);
+		registry.evictOwner(jobId);
 	}
 
 	// Intercepts the incoming HTTP requests, looking for the /sn-devops/ URL identifier. If one is found,
@@ -341,6 +341,18 @@ public class DevOpsRunListener extends RunListener<Run<?, ?>> {
 		}
 	}
 
+	@Override
+	public void onFinalized(Run<?, ?> run) {
+		super.onFinalized(run);
+		DevOpsRootAction.evictRun(run);
+	}
+
+	@Override
+	public void onDeleted(Run<?, ?> run) {
+		super.onDeleted(run);
+		DevOpsRootAction.evictRun(run);
+	}
+
 	@Override
 	public Environment setUpEnvironment(AbstractBuild build, Launcher launcher,
 	                                    BuildListener listener)
@@ -517,8 +529,8 @@ public class DevOpsRunListener extends RunListener<Run<?, ?>> {
 			DevOpsModel.DevOpsPipelineInfo pipelineInfo = model.checkIsTracking(run.getParent(),
 					run.getId(), vars.get("BRANCH_NAME"));
 			if (pipelineInfo != null) {
-				printDebug("onStarted", new String[]{"pipelineInfo"}, new String[]{pipelineInfo.toString()},
-						Level.FINE);
+				GenericUtils.printDebug(DevOpsRunListener.class.getName(), "onStarted", new String[]{"pipelineInfo"}, Level.FINE,
+						() -> new String[]{pipelineInfo.toString()});
 				model.addToPipelineInfoCache(run.getParent().getFullName(), run.getId(), pipelineInfo);
 				if (pipelineInfo.hasTrackedConfig()) {
 					model.addToTrackingCache(run.getParent().getFullName(), run.getId());
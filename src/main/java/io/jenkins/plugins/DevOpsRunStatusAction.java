@@ -1,16 +1,17 @@
 package io.jenkins.plugins;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
@@ -25,8 +26,6 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.tools.ant.DirectoryScanner;
-import org.apache.tools.ant.types.FileSet;
 import org.jenkinsci.plugins.workflow.actions.ErrorAction;
 import org.jenkinsci.plugins.workflow.actions.LabelAction;
 import org.jenkinsci.plugins.workflow.actions.LogAction;
@@ -41,7 +40,6 @@ import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
 import hudson.EnvVars;
 import hudson.FilePath;
-import hudson.Util;
 import hudson.console.AnnotatedLargeText;
 import hudson.model.AbstractBuild;
 import hudson.model.Action;
@@ -74,8 +72,10 @@ import io.jenkins.plugins.model.DevOpsRunStatusTestModel;
 import io.jenkins.plugins.model.DevOpsRunStatusTestSuiteModel;
 import io.jenkins.plugins.model.DevOpsSecurityResultModel;
 import io.jenkins.plugins.model.DevOpsSonarQubeModel;
+import io.jenkins.plugins.model.DevOpsTestResultIndex;
 import io.jenkins.plugins.model.DevOpsTestSummary;
 import io.jenkins.plugins.utils.DevOpsConstants;
+import io.jenkins.plugins.utils.DevOpsTestReportCollector;
 import io.jenkins.plugins.utils.GenericUtils;
 import jenkins.model.Jenkins;
 import net.sf.json.JSONObject;
@@ -85,6 +85,8 @@ public class DevOpsRunStatusAction extends InvisibleAction {
 	private DevOpsRunStatusModel model;
 	private Set<String> seenIds = new HashSet<String>();
 	private DevOpsPipelineGraph pipelineGraph = new DevOpsPipelineGraph();
+	// not persisted with the run, rebuilt from the test result after a restart
+	private transient DevOpsTestResultIndex testResultIndex;
 	private static final int LOG_SIZE_LIMIT = 1024 * 500;
 	public Map<String, String> changeRequestInfo = new HashMap<String, String>();
 
@@ -450,8 +452,7 @@ public class DevOpsRunStatusAction extends InvisibleAction {
 			)) {
 				try {
 					List<String> rlogList = new ArrayList<>();
-					String logText = extractLog(run.getLogText());
-					rlogList.add(getLastChunk(logText, LOG_SIZE_LIMIT));
+					rlogList.add(extractLog(run.getLogText(), LOG_SIZE_LIMIT));
 					status.setLog(rlogList);
 				} catch (UnsupportedEncodingException ignore) {
 					LOGGER.log(Level.WARNING,
@@ -463,90 +464,147 @@ public class DevOpsRunStatusAction extends InvisibleAction {
 	}
 
 	public int addTestSummariesForTestTypeMappings(JSONObject testInfo, boolean isStageStart, Run<?, ?> run, EnvVars vars) {
-		int testsAdded = 0;
-		if (!isStageStart && testInfo != null && this.model != null && run != null) {
-			Job<?, ?> job = run.getParent();
-			DevOpsRunStatusJobModel jobModel = this.model.getJobModel();
-			DevOpsRunStatusStageModel stageModel = this.model.getStageModel();
-			DevOpsRunStatusSCMModel scmModel = this.model.getSCMModel();
-			StringBuilder testResultFiles = new StringBuilder();
-			if (jobModel != null && stageModel != null && scmModel != null) {
-				if (testInfo.containsKey("tool")) {
-					testResultFiles.append(testInfo.getString("tool"));
-				}
-				if (testInfo.containsKey("pipeline")) {
-					testResultFiles.append(",");
-					testResultFiles.append(testInfo.getString("pipeline"));
-				}
-				if (testInfo.containsKey("stages")) {
-					JSONObject stageObj = testInfo.getJSONObject("stages");
-					String stagename = null;
-					if (this.model.getPronoun().equalsIgnoreCase(DevOpsConstants.FREESTYLE_PRONOUN.toString()) ||
-							this.model.getPronoun().equalsIgnoreCase(DevOpsConstants.FREESTYLE_MAVEN_PRONOUN.toString())) {
-						stagename = jobModel.getName();
-					} else {
-						stagename = stageModel.getName();
-					}
+		return addTestSummaries(getTestSummariesForTestTypeMappings(Collections.singletonList(testInfo), isStageStart,
+				run, vars).get(0));
+	}
 
-					if (stageObj.containsKey(stagename)) {
-						testResultFiles.append(",");
-						testResultFiles
-								.append(stageObj.getString(stagename));
-					}
-				}
+	/**
+	 * Adds test summaries to the notification payload, see {@link #removeTestSummariesForTestTypeMappings(int)}.
+	 * @return the number of summaries added
+	 */
+	public int addTestSummaries(List<DevOpsTestSummary> testSummaries) {
+		for (DevOpsTestSummary testSummary : testSummaries)
+			this.model.addToTestSummaries(testSummary);
+		return testSummaries.size();
+	}
 
-				LOGGER.log(Level.INFO,
-						"DevOpsRunStatusAction.addTestSummariesForTestTypeMappings: test Result Files -" + testResultFiles.toString());
+	/**
+	 * Builds the test summaries of the test type mappings of several configurations. The workspace is scanned once
+	 * for all of them, and a report mapped by several configurations is read and summarized once: the same
+	 * {@link DevOpsTestSummary} instance is returned for each of them.
+	 *
+	 * @param testInfos Test type mappings, one per configuration, may contain nulls
+	 * @return the summaries of each configuration, in the order of the test infos
+	 */
+	public List<List<DevOpsTestSummary>> getTestSummariesForTestTypeMappings(List<JSONObject> testInfos,
+			boolean isStageStart, Run<?, ?> run, EnvVars vars) {
+		List<List<DevOpsTestSummary>> testSummaries = new ArrayList<>(testInfos.size());
+		for (int i = 0; i < testInfos.size(); i++)
+			testSummaries.add(new ArrayList<>());
+		if (isStageStart || this.model == null || run == null)
+			return testSummaries;
+		Job<?, ?> job = run.getParent();
+		DevOpsRunStatusJobModel jobModel = this.model.getJobModel();
+		DevOpsRunStatusStageModel stageModel = this.model.getStageModel();
+		DevOpsRunStatusSCMModel scmModel = this.model.getSCMModel();
+		if (jobModel == null || stageModel == null || scmModel == null)
+			return testSummaries;
+
+		List<String> testResultFiles = new ArrayList<>(testInfos.size());
+		boolean anyTestResultFiles = false;
+		for (JSONObject testInfo : testInfos) {
+			String files = getTestResultFiles(testInfo, jobModel, stageModel);
+			testResultFiles.add(files);
+			anyTestResultFiles |= files.length() > 0;
+			LOGGER.log(Level.INFO,
+					"DevOpsRunStatusAction.getTestSummariesForTestTypeMappings: test Result Files -" + files);
+		}
+		if (!anyTestResultFiles)
+			return testSummaries;
 
-				String pipelineNameForPayload = jobModel.getName();
-				if (GenericUtils.isMultiBranch(job)) {
-					pipelineNameForPayload = vars.get("JOB_NAME");
-				}
+		String pipelineNameForPayload = jobModel.getName();
+		if (GenericUtils.isMultiBranch(job)) {
+			pipelineNameForPayload = vars.get("JOB_NAME");
+		}
 
-				DevOpsPipelineNode nodeById =
-						this.pipelineGraph.getNodeById(stageModel.getId());
+		DevOpsPipelineNode nodeById =
+				this.pipelineGraph.getNodeById(stageModel.getId());
 
-				FilePath workspace = null;
-				WorkspaceAction action = null;
-				if (nodeById != null)
-					action = nodeById.getWsAction();
+		FilePath workspace = null;
+		WorkspaceAction action = null;
+		if (nodeById != null)
+			action = nodeById.getWsAction();
 
-				if (action != null) {
-					workspace = action.getWorkspace();
-				} else if (run instanceof FreeStyleBuild) {
-					workspace = ((FreeStyleBuild) run).getWorkspace();
-				}
-				if (workspace != null && testResultFiles.toString().length() > 0) {
-					long startTime = 0L;
-					if (nodeById != null)
-						startTime = nodeById.getStartTime();
-					else
-						startTime = run.getTimestamp().getTimeInMillis();
-
-					List<FilePath> testFileList = new ArrayList<>();
-					getTestFiles(workspace, testResultFiles.toString(), testFileList, startTime);
-
-					for (FilePath testFile : testFileList) {
-						DevOpsTestSummary testSummary = createTestSummaryFromFile(testFile,
-								stageModel.getName(),
-								pipelineNameForPayload, this.model.getNumber(), startTime, this.model.getPronoun(), this.model.isMultiBranch(), scmModel.getBranch());
-
-						if (testSummary != null) {
-							this.model.addToTestSummaries(testSummary);
-							testsAdded++;
-						}
-					}
+		if (action != null) {
+			workspace = action.getWorkspace();
+		} else if (run instanceof FreeStyleBuild) {
+			workspace = ((FreeStyleBuild) run).getWorkspace();
+		}
+		if (workspace == null)
+			return testSummaries;
+
+		long startTime = 0L;
+		if (nodeById != null)
+			startTime = nodeById.getStartTime();
+		else
+			startTime = run.getTimestamp().getTimeInMillis();
+
+		DevOpsTestReportCollector.Bundle bundle = getTestReports(workspace, testResultFiles, startTime);
+		List<DevOpsTestReportCollector.Report> testReports = Collections.emptyList();
+		try {
+			if (bundle != null)
+				testReports = bundle.getReports();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "DevOpsRunStatusAction.getTestSummariesForTestTypeMappings: Error reading test " +
+					"reports - " + e.getMessage());
+		}
+
+		// each report is summarized once, the first time a configuration maps it
+		DevOpsTestSummary[] reportSummaries = new DevOpsTestSummary[testReports.size()];
+		boolean[] summarized = new boolean[testReports.size()];
+		for (int i = 0; i < testInfos.size(); i++) {
+			if (testReports.isEmpty())
+				break;
+			for (int index : bundle.getGroup(i)) {
+				if (!summarized[index]) {
+					summarized[index] = true;
+					reportSummaries[index] = createTestSummaryFromFile(testReports.get(index),
+							stageModel.getName(),
+							pipelineNameForPayload, this.model.getNumber(), startTime, this.model.getPronoun(), this.model.isMultiBranch(), scmModel.getBranch());
 				}
+				if (reportSummaries[index] != null)
+					testSummaries.get(i).add(reportSummaries[index]);
+			}
+		}
+		return testSummaries;
+	}
+
+	private String getTestResultFiles(JSONObject testInfo, DevOpsRunStatusJobModel jobModel,
+	                                  DevOpsRunStatusStageModel stageModel) {
+		StringBuilder testResultFiles = new StringBuilder();
+		if (testInfo == null)
+			return "";
+		if (testInfo.containsKey("tool")) {
+			testResultFiles.append(testInfo.getString("tool"));
+		}
+		if (testInfo.containsKey("pipeline")) {
+			testResultFiles.append(",");
+			testResultFiles.append(testInfo.getString("pipeline"));
+		}
+		if (testInfo.containsKey("stages")) {
+			JSONObject stageObj = testInfo.getJSONObject("stages");
+			String stagename = null;
+			if (this.model.getPronoun().equalsIgnoreCase(DevOpsConstants.FREESTYLE_PRONOUN.toString()) ||
+					this.model.getPronoun().equalsIgnoreCase(DevOpsConstants.FREESTYLE_MAVEN_PRONOUN.toString())) {
+				stagename = jobModel.getName();
+			} else {
+				stagename = stageModel.getName();
+			}
+
+			if (stageObj.containsKey(stagename)) {
+				testResultFiles.append(",");
+				testResultFiles
+						.append(stageObj.getString(stagename));
 			}
 		}
-		return testsAdded;
+		return testResultFiles.toString();
 	}
 
 	public void removeTestSummariesForTestTypeMappings(int testsAdded) {
 		this.model.removeFromTestSummaries(testsAdded);
 	}
 
-	private DevOpsTestSummary createTestSummaryFromFile(FilePath testFile, String stageName, String pipelineName,
+	private DevOpsTestSummary createTestSummaryFromFile(DevOpsTestReportCollector.Report testFile, String stageName, String pipelineName,
 	                                                    int buildNumber, long stageStarttime, String pronoun, String isMultiBranch, String branchName) {
 		try {
 			if (testFile == null)
@@ -554,7 +612,7 @@ public class DevOpsRunStatusAction extends InvisibleAction {
 
 			LOGGER.log(Level.INFO, "DevOpsRunStatusAction.createTestSummaryFromFile(): Creating test summary from " +
 					"file -" + testFile.getName());
-			String fileString = testFile.readToString();
+			String fileString = testFile.getContent();
 
 			String projectName = null;
 			if (pronoun.equalsIgnoreCase(DevOpsConstants.FREESTYLE_PRONOUN.toString()) ||
@@ -571,7 +629,7 @@ public class DevOpsRunStatusAction extends InvisibleAction {
 							.inProject(projectName)
 							.buildNumber(buildNumber)
 							.start(stageStarttime)
-							.finish(testFile.lastModified())
+							.finish(testFile.getLastModified())
 							.branchName(branchName)
 							.multiBranch(isMultiBranch)
 							.fileContent(fileString)
@@ -586,27 +644,22 @@ public class DevOpsRunStatusAction extends InvisibleAction {
 	}
 
 
-	private void getTestFiles(FilePath ws, String testResults, List<FilePath> fileList,
-	                          long stageStartTime) {
+	// reports of all the configurations are found and read on the node holding the workspace, in a single call
+	private DevOpsTestReportCollector.Bundle getTestReports(FilePath ws, List<String> testResults,
+	                                                        long stageStartTime) {
 		try {
-			LOGGER.log(Level.INFO, "DevOpsRunStatusAction.getTestFiles: testResults-" + testResults);
-
-			FileSet fs = Util.createFileSet(new File(ws.getRemote()), testResults);
-			DirectoryScanner ds = fs.getDirectoryScanner();
-			String[] files = ds.getIncludedFiles();
-			LOGGER.log(Level.INFO, "DevOpsRunStatusAction.getTestFiles: files-" + files.length);
-			for (String relPath : files) {
-				FilePath reportFile = new FilePath(ws, relPath);
-				if (reportFile.lastModified() > stageStartTime) {
-					fileList.add(reportFile);
-				}
-			}
-			LOGGER.log(Level.INFO, "DevOpsRunStatusAction.getTestFiles: fileList-" + fileList.size());
-
-
+			DevOpsTestReportCollector.Bundle bundle = ws.act(new DevOpsTestReportCollector(testResults, stageStartTime));
+			LOGGER.log(Level.INFO, "DevOpsRunStatusAction.getTestReports: files-" + bundle.getScanned());
+			LOGGER.log(Level.INFO, "DevOpsRunStatusAction.getTestReports: fileList-" + bundle.size() +
+					", compressedSize-" + bundle.getCompressedSize());
+			return bundle;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.log(Level.WARNING, "DevOpsRunStatusAction.getTestReports: interrupted");
 		} catch (Exception e) {
-			e.printStackTrace();
+			LOGGER.log(Level.WARNING, "DevOpsRunStatusAction.getTestReports: Error reading test reports - " + e.getMessage(), e);
 		}
+		return null;
 	}
 
 	private static boolean stringContainsItemFromList(String inputStr, String[] items) {
@@ -696,12 +749,13 @@ http://localhost:8090/jenkins/job/felipe-pipeline/6/execution/node/6/wfapi/descr
 							nodeStack.addFirst(fnode);
 						}
 
-						Deque<String> logStack = new LinkedList<>();
-						getLogForStage(nodeStack, startNode, logStack, new int[]{0},
-								LOG_SIZE_LIMIT - logPreambleLen);
-						logStack.addFirst(logPreamble);
+						StageLogTail logTail = new StageLogTail(LOG_SIZE_LIMIT - logPreambleLen);
+						getLogForStage(nodeStack, startNode, logTail);
 
-						List logList = new ArrayList<String>(logStack);
+						List<String> logList = new ArrayList<>();
+						logList.add(logPreamble);
+						if (logTail.size() > 0)
+							logList.add(logTail.toUtf8String());
 						stageModel.setLog(logList);
 
 					} catch (UnsupportedEncodingException ignore) {
@@ -750,14 +804,13 @@ http://localhost:8090/jenkins/job/felipe-pipeline/6/execution/node/6/wfapi/descr
 
 
 	private void getLogForStage(Deque<FlowNode> nodeStack, StepStartNode startNode,
-	                            Deque<String> logQueue,
-	                            int[] currSize, int sizeLimit) throws UnsupportedEncodingException {
+	                            StageLogTail logTail) throws UnsupportedEncodingException {
 
-		while (!nodeStack.isEmpty() && currSize[0] < sizeLimit) {
+		while (!nodeStack.isEmpty() && !logTail.isFull()) {
 
 			FlowNode stageNode = nodeStack.removeFirst();
 
-			extractAndAddLog(stageNode, logQueue, currSize, sizeLimit);
+			extractAndAddLog(stageNode, logTail);
 
 			List<FlowNode> stageNodeParents = stageNode.getParents();
 			if (!CollectionUtils.isEmpty(stageNodeParents)) {
@@ -799,13 +852,13 @@ http://localhost:8090/jenkins/job/felipe-pipeline/6/execution/node/6/wfapi/descr
 				// depth-first to go through all child nodes and add to lof
 				while (parentNode != null && !parentNode.equals(startNode) &&
 						!CollectionUtils.isEmpty(parentNode.getParents()) &&
-						currSize[0] < sizeLimit) {
-					extractAndAddLog(parentNode, logQueue, currSize, sizeLimit);
+						!logTail.isFull()) {
+					extractAndAddLog(parentNode, logTail);
 					parentNode = parentNode.getParents().get(0);
 				}
 
 				// add remaining chidren of stageNode to stack
-				if (stageNodeParents.size() > 1 && currSize[0] < sizeLimit) {
+				if (stageNodeParents.size() > 1 && !logTail.isFull()) {
 
 					for (int i = 1; i < stageNodeParents.size(); i++) {
 						nodeStack.push(stageNodeParents.get(i));
@@ -815,76 +868,178 @@ http://localhost:8090/jenkins/job/felipe-pipeline/6/execution/node/6/wfapi/descr
 		}
 	}
 
-	private void extractAndAddLog(FlowNode fn, Deque<String> logQueue, int[] currSize,
-	                              int sizeLimit) throws UnsupportedEncodingException {
+	private void extractAndAddLog(FlowNode fn, StageLogTail logTail) throws UnsupportedEncodingException {
 
-		if (fn == null || currSize[0] >= sizeLimit)
+		if (fn == null || logTail.isFull())
 			return;
 
 		if (fn instanceof StepStartNode && ((StepStartNode) fn).getStepName().equals("Stage")) {
 			String stageName = getNodeName(fn);
 			if (!"Stage : Start".equals(stageName)) {
-				addLogEntry("\n[[" + getNodeName(fn) + "]]\n", logQueue, currSize, sizeLimit);
+				logTail.prepend(("\n[[" + getNodeName(fn) + "]]\n").getBytes(StandardCharsets.UTF_8), 0);
 			}
 		}
 
 		LogAction logAction = fn.getAction(LogAction.class);
 		if (logAction != null) {
 			AnnotatedLargeText<? extends FlowNode> logText = logAction.getLogText();
-			String logStr = extractLog(logText);
-			addLogEntry(logStr, logQueue, currSize, sizeLimit);
+			// only read what is left of the budget, older output of the node is never loaded
+			byte[] bytes = extractLogTail(logText, logTail.remaining());
+			// the tail of a node's log may start in the middle of a multi-byte character
+			logTail.prepend(bytes, skipContinuationBytes(bytes, 0, bytes.length));
 		}
 	}
 
+	/**
+	 * Reads the last maxBytes of a log. Reading starts at length() - maxBytes, so the size of the whole log
+	 * does not matter, and output appended while reading only replaces the oldest bytes of the buffer.
+	 */
+	private String extractLog(AnnotatedLargeText largeText, int maxBytes) throws UnsupportedEncodingException {
 
-	private void addLogEntry(String logStr, Deque<String> logQueue, int[] currSize, int sizeLimit)
-			throws
-			UnsupportedEncodingException {
-		int logLineLen = logStr.getBytes(StandardCharsets.UTF_8).length;
-		if (currSize[0] + logLineLen > sizeLimit) {
-			logStr = getLastChunk(logStr, sizeLimit - currSize[0]);
-			logLineLen = logStr.getBytes(StandardCharsets.UTF_8).length;
-		}
-
-		if (logLineLen > 0)
-			logQueue.addFirst(logStr);
+		byte[] bytes = extractLogTail(largeText, maxBytes);
+		// the tail may start in the middle of a multi-byte character
+		int from = skipContinuationBytes(bytes, 0, bytes.length);
+		String logEntry = new String(bytes, from, bytes.length - from, StandardCharsets.UTF_8);
+		LOGGER.log(Level.FINE, " logEntry length :" + logEntry.length());
 
-		currSize[0] = currSize[0] + logLineLen;
+		return logEntry;
 	}
 
-	private String extractLog(AnnotatedLargeText largeText) throws UnsupportedEncodingException {
+	// raw last bytes of a log, the buffer is sized to the log when it is shorter than the budget
+	private byte[] extractLogTail(AnnotatedLargeText largeText, int maxBytes) {
 
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		long length = largeText.length();
+		if (maxBytes <= 0 || length <= 0)
+			return new byte[0];
+		TailOutputStream tail = new TailOutputStream((int) Math.min(maxBytes, length));
 		try {
-			largeText.writeLogTo(0, baos);
+			largeText.writeLogTo(Math.max(0, length - maxBytes), tail);
 		} catch (FileNotFoundException x) {
 			LOGGER.log(Level.INFO, " log file not created yet");
-			return ""; // log file not yet created, OK
+			return new byte[0]; // log file not yet created, OK
 		} catch (IOException e) {
 			LOGGER.log(Level.INFO, " error reading the log");
+			return new byte[0];
+		}
+		return tail.toByteArray();
+	}
+
+
+	public static String getLastChunk(String original, int chunkSize)
+			throws UnsupportedEncodingException {
+		if (chunkSize <= 0)
 			return "";
+		// cheap check first, a UTF-8 char never takes more than 3 bytes per UTF-16 unit
+		if ((long) original.length() * 3 <= chunkSize)
+			return original;
+		byte[] bytes = original.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length <= chunkSize)
+			return original;
+		int from = skipContinuationBytes(bytes, bytes.length - chunkSize, bytes.length);
+		return new String(bytes, from, bytes.length - from, StandardCharsets.UTF_8);
+	}
+
+	// moves a cut position forward to the start of the next UTF-8 character
+	private static int skipContinuationBytes(byte[] bytes, int from, int end) {
+		while (from < end && (bytes[from] & 0xC0) == 0x80)
+			from++;
+		return from;
+	}
+
+	/**
+	 * Fixed size output stream keeping only the last bytes written to it.
+	 */
+	private static final class TailOutputStream extends OutputStream {
+		private final byte[] buffer;
+		private int start;
+		private int count;
+
+		TailOutputStream(int capacity) {
+			this.buffer = new byte[capacity];
 		}
 
-		String logEntry = new String(baos.toByteArray(), StandardCharsets.UTF_8);
-		LOGGER.log(Level.INFO, " logEntry :" + logEntry);
+		@Override
+		public void write(int b) {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
 
-		return logEntry;
+		@Override
+		public void write(byte[] b, int off, int len) {
+			if (len >= buffer.length) {
+				System.arraycopy(b, off + len - buffer.length, buffer, 0, buffer.length);
+				start = 0;
+				count = buffer.length;
+				return;
+			}
+			for (int i = 0; i < len; ) {
+				int pos = (start + count) % buffer.length;
+				int chunk = Math.min(len - i, buffer.length - pos);
+				System.arraycopy(b, off + i, buffer, pos, chunk);
+				i += chunk;
+				count += chunk;
+				if (count > buffer.length) {
+					start = (start + count - buffer.length) % buffer.length;
+					count = buffer.length;
+				}
+			}
+		}
+
+		byte[] toByteArray() {
+			if (start == 0 && count == buffer.length)
+				return buffer;
+			byte[] bytes = new byte[count];
+			int first = Math.min(count, buffer.length - start);
+			System.arraycopy(buffer, start, bytes, 0, first);
+			System.arraycopy(buffer, 0, bytes, first, count - first);
+			return bytes;
+		}
 	}
 
+	/**
+	 * Last bytes of the logs of a stage, up to a byte budget. Logs are added newest first, each one in front of the
+	 * previous ones, and decoded once when the stage log is complete.
+	 */
+	private static final class StageLogTail {
+		private final Deque<byte[]> chunks = new ArrayDeque<>();
+		private final int limit;
+		private int size;
 
-	public static String getLastChunk(String original, int chunkSize)
-			throws UnsupportedEncodingException {
-		final int end = original.length();
-		int from = 0, to = end;
-
-		from = end - chunkSize < 0 ? 0 : end - chunkSize;
-		String chunk = original.substring(from, to); // get chunk
-		while (chunk.getBytes(StandardCharsets.UTF_8).length >
-				chunkSize) { // adjust chunk to proper byte size if necessary
-			chunk = original.substring(from++, to);
+		StageLogTail(int limit) {
+			this.limit = Math.max(0, limit);
+		}
+
+		int remaining() {
+			return limit - size;
+		}
+
+		boolean isFull() {
+			return size >= limit;
 		}
 
-		return chunk;
+		int size() {
+			return size;
+		}
+
+		// adds bytes[from..] in front, keeping only their end when they do not fit in the budget anymore
+		void prepend(byte[] bytes, int from) {
+			int length = Math.min(bytes.length - from, remaining());
+			if (length <= 0)
+				return;
+			chunks.addFirst(length == bytes.length ? bytes : Arrays.copyOfRange(bytes, bytes.length - length, bytes.length));
+			size += length;
+		}
+
+		String toUtf8String() {
+			byte[] bytes = new byte[size];
+			int offset = 0;
+			for (byte[] chunk : chunks) {
+				System.arraycopy(chunk, 0, bytes, offset, chunk.length);
+				offset += chunk.length;
+			}
+			// the oldest chunk may have been cut to the budget in the middle of a multi-byte character
+			int from = skipContinuationBytes(bytes, 0, size);
+			return new String(bytes, from, size - from, StandardCharsets.UTF_8);
+		}
 	}
 
 	public DevOpsRunStatusSCMModel createRunStatusSCM(final Run<?, ?> run, EnvVars vars) {
@@ -1194,6 +1349,12 @@ http://localhost:8090/jenkins/job/felipe-pipeline/6/execution/node/6/wfapi/descr
 		}
 	}
 
+	private synchronized DevOpsTestResultIndex getTestResultIndex() {
+		if (testResultIndex == null)
+			testResultIndex = new DevOpsTestResultIndex();
+		return testResultIndex;
+	}
+
 	public DevOpsRunStatusTestModel createRunStatusTest(final Run<?, ?> run, String pronoun,
 	                                                    String stageId, String stageName) {
 		DevOpsRunStatusTestModel status = new DevOpsRunStatusTestModel();
@@ -1217,7 +1378,9 @@ http://localhost:8090/jenkins/job/felipe-pipeline/6/execution/node/6/wfapi/descr
 							int regression = 0;
 							int fixed = 0;
 
-							Collection<SuiteResult> suiteResults = testResult.getSuites();
+							// only the suites enclosed by this stage, names are still checked below
+							Collection<SuiteResult> suiteResults =
+									getTestResultIndex().getSuites(run, testResult, stageId.trim());
 							for (SuiteResult suiteResult : suiteResults) {
 								if (suiteResult != null) {
 									List<String> blockIds = suiteResult.getEnclosingBlocks();
@@ -1295,12 +1458,12 @@ http://localhost:8090/jenkins/job/felipe-pipeline/6/execution/node/6/wfapi/descr
 												status.setSuites(suites);
 											}
 										} else {
-											printDebug("createRunStatusTest",
-													new String[]{"blockIds"},
-													new String[]{blockIds.toString()}, Level.FINE);
-											printDebug("createRunStatusTest",
-													new String[]{"blockNames"},
-													new String[]{blockNames.toString()}, Level.FINE);
+											GenericUtils.printDebug(DevOpsRunStatusAction.class.getName(), "createRunStatusTest",
+													new String[]{"blockIds"}, Level.FINE,
+													() -> new String[]{blockIds.toString()});
+											GenericUtils.printDebug(DevOpsRunStatusAction.class.getName(), "createRunStatusTest",
+													new String[]{"blockNames"}, Level.FINE,
+													() -> new String[]{blockNames.toString()});
 										}
 									}
 								}
@@ -50,6 +50,12 @@ public class DevOpsConfigurationEntry extends AbstractDescribableImpl<DevOpsConf
 	private boolean trackCheck;
 	private boolean trackPullRequestPipelinesCheck;
 	private String secretCredentialId;
+	private boolean compressRequests;
+	// null for entries saved before the threshold existed, XStream does not run field initializers
+	private Integer compressionThreshold;
+
+	// payloads below this size (bytes) gain little from compression
+	public static final int DEFAULT_COMPRESSION_THRESHOLD = 16 * 1024;
 
 	@DataBoundConstructor
 	public DevOpsConfigurationEntry(String name, boolean active, boolean defaultConnection, String instanceUrl, String toolId, String snArtifactToolId, String apiVersion, String credentialsId, boolean trackCheck, boolean trackPullRequestPipelinesCheck, String secretCredentialId) {
@@ -162,6 +168,29 @@ public class DevOpsConfigurationEntry extends AbstractDescribableImpl<DevOpsConf
 		this.secretCredentialId = secretCredentialId;
 	}
 
+	public boolean getCompressRequests() {
+		return compressRequests;
+	}
+
+	@DataBoundSetter public void setCompressRequests(boolean compressRequests) {
+		this.compressRequests = compressRequests;
+	}
+
+	public int getCompressionThreshold() {
+		return compressionThreshold != null ? compressionThreshold : DEFAULT_COMPRESSION_THRESHOLD;
+	}
+
+	@DataBoundSetter public void setCompressionThreshold(int compressionThreshold) {
+		this.compressionThreshold = Math.max(0, compressionThreshold);
+	}
+
+	/**
+	 * @return minimum size (bytes) of the payloads sent gzip compressed to the instance, -1 when compression is off
+	 */
+	public long getRequestCompressionThreshold() {
+		return compressRequests ? getCompressionThreshold() : -1;
+	}
+
 	public static String getUser(String credentialsId) {
 		if (GenericUtils.isEmpty(credentialsId))
 			return null;
@@ -183,35 +212,20 @@ public class DevOpsConfigurationEntry extends AbstractDescribableImpl<DevOpsConf
 	}
 
 	public static StandardUsernamePasswordCredentials getCredentials(String credentialsId) {
-		DomainRequirement dr = null;
-		ItemGroup itemGroup = null;
-		Authentication authentication = null;
-		List<StandardUsernamePasswordCredentials> lc = CredentialsProvider
-				.lookupCredentials(StandardUsernamePasswordCredentials.class, itemGroup, authentication, dr);
-
-		for (int i = 0; i < lc.size(); i++) {
-			StandardUsernamePasswordCredentials sc = lc.get(i);
-			if (sc.getId().equals(credentialsId)) {
-				return sc;
-			}
-		}
-		return null;
+		return DevOpsCredentialsCache.get().getUsernamePassword(credentialsId);
 	}
 
 	public static String getTokenText(String credentialsId) {
-		DomainRequirement dr = null;
-		ItemGroup itemGroup = null;
-		Authentication authentication = null;
-		List<StringCredentials> lc = CredentialsProvider.lookupCredentials(StringCredentials.class, itemGroup,
-				authentication, dr);
-
-		for (int i = 0; i < lc.size(); i++) {
-			StringCredentials sc = lc.get(i);
-			if (sc.getId().equals(credentialsId)) {
-				return sc.getSecret().getPlainText();
-			}
-		}
-		return null;
+		return DevOpsCredentialsCache.get().getToken(credentialsId);
+	}
+
+	/**
+	 * @return the Authorization header of this configuration, token based when a secret credential is set
+	 */
+	public String getAuthorizationHeader() {
+		if (!GenericUtils.isEmptyOrDefault(getSecretCredentialId()))
+			return DevOpsCredentialsCache.get().getTokenAuthorization(getSecretCredentialId(), getToolId());
+		return DevOpsCredentialsCache.get().getBasicAuthorization(getCredentialsId());
 	}
 
 	public static boolean callConnectionApi(String apiVersion, JSONObject params, String userId, String password,
@@ -299,6 +313,14 @@ public class DevOpsConfigurationEntry extends AbstractDescribableImpl<DevOpsConf
 				: null;
 	}
 
+	public String getBulkNotificationUrl() {
+
+		return GenericUtils.isNotEmpty(getInstanceUrl())
+				? String.format("%s/api/sn_devops/%s/devops/tool/bulk", getTrimmedUrl(getInstanceUrl()),
+				getApiVersion())
+				: null;
+	}
+
 	// artifact registration url
 	public String getArtifactRegistrationUrl() {
 		return GenericUtils.isNotEmpty(getInstanceUrl())
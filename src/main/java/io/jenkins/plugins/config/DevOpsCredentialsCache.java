@@ -0,0 +1,150 @@
+package io.jenkins.plugins.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.xml.bind.DatatypeConverter;
+
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
+import com.cloudbees.plugins.credentials.domains.DomainRequirement;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.ItemGroup;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import hudson.util.Secret;
+import org.acegisecurity.Authentication;
+import org.jenkinsci.plugins.plaincredentials.StringCredentials;
+
+/**
+ * Resolved credentials of the DevOps configurations, keyed by credential id.
+ *
+ * Every call to ServiceNow needs the user, password or token of its configuration, and resolving one walks every
+ * credential of the store. The credentials found, and the Authorization headers built from them, are kept here
+ * until the system credentials store is saved (a credential is added, updated or removed). Secrets are only held
+ * in their {@link Secret} form, never as plain strings, and a credential that is not found is looked up again on
+ * the next call. Credentials from other providers do not report changes, so entries also expire after
+ * {@code io.jenkins.plugins.config.DevOpsCredentialsCache.ttl} milliseconds (5 minutes by default).
+ */
+public final class DevOpsCredentialsCache {
+
+	private static final DevOpsCredentialsCache INSTANCE = new DevOpsCredentialsCache(
+			Long.getLong(DevOpsCredentialsCache.class.getName() + ".ttl", TimeUnit.MINUTES.toMillis(5)));
+
+	private final long ttlMillis;
+	private final Map<String, Cached> entries = new ConcurrentHashMap<>();
+
+	DevOpsCredentialsCache(long ttlMillis) {
+		this.ttlMillis = ttlMillis;
+	}
+
+	public static DevOpsCredentialsCache get() {
+		return INSTANCE;
+	}
+
+	public StandardUsernamePasswordCredentials getUsernamePassword(String credentialsId) {
+		return (StandardUsernamePasswordCredentials) resolve("usernamePassword:" + credentialsId,
+				() -> find(StandardUsernamePasswordCredentials.class, credentialsId));
+	}
+
+	public String getToken(String credentialsId) {
+		StringCredentials sc = (StringCredentials) resolve("token:" + credentialsId,
+				() -> find(StringCredentials.class, credentialsId));
+		return sc != null ? sc.getSecret().getPlainText() : null;
+	}
+
+	/**
+	 * @return the Basic Authorization header for the user and password of the credential
+	 */
+	public String getBasicAuthorization(String credentialsId) {
+		Secret header = (Secret) resolve("basic:" + credentialsId, () -> {
+			StandardUsernamePasswordCredentials sc = getUsernamePassword(credentialsId);
+			if (sc == null)
+				return null;
+			String pwd = sc.getPassword() != null ? sc.getPassword().getPlainText() : null;
+			return Secret.fromString(basicAuthorization(sc.getUsername(), pwd));
+		});
+		return header != null ? header.getPlainText() : basicAuthorization(null, null);
+	}
+
+	/**
+	 * @return the sn_devops.DevOpsToken Authorization header for the token of the credential and the tool
+	 */
+	public String getTokenAuthorization(String credentialsId, String toolId) {
+		Secret header = (Secret) resolve("tokenHeader:" + toolId + ":" + credentialsId, () -> {
+			String token = getToken(credentialsId);
+			return token != null ? Secret.fromString(tokenAuthorization(toolId, token)) : null;
+		});
+		return header != null ? header.getPlainText() : tokenAuthorization(toolId, null);
+	}
+
+	private static String basicAuthorization(String user, String pwd) {
+		byte[] message = (user + ":" + pwd).getBytes(StandardCharsets.UTF_8);
+		return "Basic " + DatatypeConverter.printBase64Binary(message);
+	}
+
+	private static String tokenAuthorization(String toolId, String token) {
+		return "sn_devops.DevOpsToken" + " " + toolId + ":" + token;
+	}
+
+	// misses are not cached, a credential created after a failed lookup is found on the next call
+	private Object resolve(String key, Supplier<Object> resolver) {
+		long now = System.currentTimeMillis();
+		Cached cached = entries.get(key);
+		if (cached != null && cached.expires >= now)
+			return cached.value;
+		Object value = resolver.get();
+		if (value != null)
+			entries.put(key, new Cached(value, now + ttlMillis));
+		else
+			entries.remove(key);
+		return value;
+	}
+
+	private static <C extends StandardCredentials> C find(Class<C> type, String credentialsId) {
+		if (credentialsId == null)
+			return null;
+		DomainRequirement dr = null;
+		ItemGroup itemGroup = null;
+		Authentication authentication = null;
+		List<C> lc = CredentialsProvider.lookupCredentials(type, itemGroup, authentication, dr);
+		for (C credentials : lc) {
+			if (credentials.getId().equals(credentialsId))
+				return credentials;
+		}
+		return null;
+	}
+
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	private static final class Cached {
+		private final Object value;
+		private final long expires;
+
+		Cached(Object value, long expires) {
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * The credentials plugin saves the system store whenever one of its credentials changes.
+	 */
+	@Extension
+	public static final class StoreListener extends SaveableListener {
+		@Override
+		public void onChange(Saveable o, XmlFile file) {
+			if (o instanceof SystemCredentialsProvider)
+				get().invalidateAll();
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package io.jenkins.plugins.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import hudson.Extension;
+import hudson.model.PeriodicWork;
+import io.jenkins.plugins.utils.GenericUtils;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * In-memory state shared between the callback endpoint, the queue dispatcher and the run listeners (webhook
+ * tokens, callback results, tracked runs).
+ *
+ * The state is split in named {@link Region}s backed by concurrent maps, so a callback no longer takes one lock
+ * per map. Every entry is dropped when the run that owns it is finalized or deleted.
+ *
+ * Cache regions ({@link #region(String)}) hold the callbacks that were already received: those that are never
+ * consumed, because a run was aborted, deleted or crashed before reading them, are also dropped after a time to live
+ * and when the region grows past its size cap. The time to live (in hours, 7 days by default) and the size cap can be
+ * set with the system properties {@code io.jenkins.plugins.model.DevOpsCallbackRegistry.ttlHours} and
+ * {@code io.jenkins.plugins.model.DevOpsCallbackRegistry.maxEntries}.
+ *
+ * Pending regions ({@link #pendingRegion(String)}) hold the state of running builds, such as the registration of a
+ * change approval that may wait for weeks: they have no cap, so a wait is never dropped to make room for another one,
+ * and only a long backstop time to live (in hours, 90 days by default, set with
+ * {@code io.jenkins.plugins.model.DevOpsCallbackRegistry.pendingTtlHours}) for the entries of builds that never
+ * finalized, such as a queue item whose run could not start.
+ */
+public final class DevOpsCallbackRegistry {
+
+	private static final String PROPERTY_PREFIX = DevOpsCallbackRegistry.class.getName();
+	private static final long DEFAULT_TTL_HOURS = 7 * 24;
+	private static final long DEFAULT_PENDING_TTL_HOURS = 90 * 24;
+	private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+	private static final DevOpsCallbackRegistry INSTANCE = new DevOpsCallbackRegistry(
+			TimeUnit.HOURS.toMillis(Long.getLong(PROPERTY_PREFIX + ".ttlHours", DEFAULT_TTL_HOURS)),
+			TimeUnit.HOURS.toMillis(Long.getLong(PROPERTY_PREFIX + ".pendingTtlHours", DEFAULT_PENDING_TTL_HOURS)),
+			Integer.getInteger(PROPERTY_PREFIX + ".maxEntries", DEFAULT_MAX_ENTRIES));
+
+	private final long ttlMillis;
+	private final long pendingTtlMillis;
+	private final int maxEntries;
+	private final List<Region<?>> regions = new CopyOnWriteArrayList<>();
+
+	DevOpsCallbackRegistry(long ttlMillis, int maxEntries) {
+		this(ttlMillis, TimeUnit.HOURS.toMillis(DEFAULT_PENDING_TTL_HOURS), maxEntries);
+	}
+
+	DevOpsCallbackRegistry(long ttlMillis, long pendingTtlMillis, int maxEntries) {
+		this.ttlMillis = ttlMillis;
+		this.pendingTtlMillis = pendingTtlMillis;
+		this.maxEntries = Math.max(1, maxEntries);
+	}
+
+	public static DevOpsCallbackRegistry get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return a region whose entries expire and are evicted past the size cap
+	 */
+	public <V> Region<V> region(String name) {
+		return add(new Region<>(name, ttlMillis, maxEntries));
+	}
+
+	/**
+	 * @return a region whose entries are dropped when removed or when their run is finalized or deleted, and
+	 * otherwise only after the backstop time to live
+	 */
+	public <V> Region<V> pendingRegion(String name) {
+		return add(new Region<>(name, pendingTtlMillis, 0));
+	}
+
+	private <V> Region<V> add(Region<V> region) {
+		regions.add(region);
+		return region;
+	}
+
+	/**
+	 * Drops the entries owned by a run, called once the run is finalized or deleted.
+	 *
+	 * @param owner Externalizable id of the run, or job id of a freestyle run
+	 */
+	public void evictOwner(String owner) {
+		if (owner == null)
+			return;
+		for (Region<?> region : regions)
+			region.removeOwner(owner);
+	}
+
+	public void evictExpired() {
+		for (Region<?> region : regions)
+			region.evictExpired();
+	}
+
+	/**
+	 * @return size, cap and eviction counters of every region
+	 */
+	public JSONObject getStatus() {
+		JSONObject status = new JSONObject();
+		JSONArray regionStatus = new JSONArray();
+		int total = 0;
+		for (Region<?> region : regions) {
+			regionStatus.add(region.getStatus());
+			total += region.size();
+		}
+		status.put("entries", total);
+		status.put("ttlHours", TimeUnit.MILLISECONDS.toHours(ttlMillis));
+		status.put("pendingTtlHours", TimeUnit.MILLISECONDS.toHours(pendingTtlMillis));
+		status.put("regions", regionStatus);
+		return status;
+	}
+
+	/**
+	 * Concurrent map with a time to live and an optional size cap. Null keys are ignored, null values are allowed.
+	 */
+	public static final class Region<V> {
+		private final String name;
+		private final boolean capped; // false for pending regions
+		private final long ttlMillis;
+		private final int maxEntries;
+		private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+		private final AtomicLong expired = new AtomicLong();
+		private final AtomicLong overflowed = new AtomicLong();
+		private final AtomicLong released = new AtomicLong();
+
+		Region(String name, long ttlMillis, int maxEntries) {
+			this.name = name;
+			this.capped = maxEntries > 0;
+			this.ttlMillis = ttlMillis;
+			this.maxEntries = maxEntries;
+		}
+
+		public void put(String key, V value) {
+			put(key, value, null);
+		}
+
+		/**
+		 * @param owner Externalizable id (or freestyle job id) of the run the entry belongs to, or null
+		 */
+		public void put(String key, V value, String owner) {
+			if (key == null)
+				return;
+			entries.put(key, new Entry<>(value, owner, System.currentTimeMillis() + ttlMillis));
+			if (capped && entries.size() > maxEntries)
+				trim();
+		}
+
+		public V get(String key) {
+			if (key == null)
+				return null;
+			Entry<V> entry = entries.get(key);
+			if (entry == null)
+				return null;
+			if (entry.isExpired(System.currentTimeMillis())) {
+				if (entries.remove(key, entry))
+					expired.incrementAndGet();
+				return null;
+			}
+			return entry.value;
+		}
+
+		public boolean containsKey(String key) {
+			if (key == null)
+				return false;
+			Entry<V> entry = entries.get(key);
+			return entry != null && !entry.isExpired(System.currentTimeMillis());
+		}
+
+		public V remove(String key) {
+			if (key == null)
+				return null;
+			Entry<V> entry = entries.remove(key);
+			return entry == null || entry.isExpired(System.currentTimeMillis()) ? null : entry.value;
+		}
+
+		public int size() {
+			return entries.size();
+		}
+
+		void removeOwner(String owner) {
+			entries.entrySet().removeIf(e -> {
+				boolean owned = owner.equals(e.getValue().owner);
+				if (owned)
+					released.incrementAndGet();
+				return owned;
+			});
+		}
+
+		void evictExpired() {
+			long now = System.currentTimeMillis();
+			entries.entrySet().removeIf(e -> {
+				boolean isExpired = e.getValue().isExpired(now);
+				if (isExpired)
+					expired.incrementAndGet();
+				return isExpired;
+			});
+		}
+
+		// called when the cap is exceeded: expired entries go first, then the oldest ones
+		private synchronized void trim() {
+			evictExpired();
+			int excess = entries.size() - maxEntries;
+			if (excess <= 0)
+				return;
+			List<Map.Entry<String, Entry<V>>> oldest = new ArrayList<>(entries.entrySet());
+			oldest.sort((a, b) -> Long.compare(a.getValue().expires, b.getValue().expires));
+			for (int i = 0; i < excess && i < oldest.size(); i++) {
+				if (entries.remove(oldest.get(i).getKey(), oldest.get(i).getValue()))
+					overflowed.incrementAndGet();
+			}
+			printDebug("trim", new String[]{"region", "evicted"},
+					new String[]{name, String.valueOf(excess)}, Level.WARNING);
+		}
+
+		JSONObject getStatus() {
+			JSONObject status = new JSONObject();
+			status.put("name", name);
+			status.put("size", entries.size());
+			status.put("capped", capped);
+			if (capped)
+				status.put("maxEntries", maxEntries);
+			status.put("expired", expired.get());
+			status.put("overflowed", overflowed.get());
+			status.put("released", released.get());
+			return status;
+		}
+	}
+
+	private static final class Entry<V> {
+		private final V value;
+		private final String owner;
+		private final long expires;
+
+		Entry(V value, String owner, long expires) {
+			this.value = value;
+			this.owner = owner;
+			this.expires = expires;
+		}
+
+		boolean isExpired(long now) {
+			return expires < now;
+		}
+	}
+
+	/**
+	 * Expired entries are otherwise only dropped when they are looked up or when their region is full.
+	 */
+	@Extension
+	public static final class Sweeper extends PeriodicWork {
+		@Override
+		public long getRecurrencePeriod() {
+			return HOUR;
+		}
+
+		@Override
+		protected void doRun() {
+			get().evictExpired();
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsCallbackRegistry.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -21,11 +21,23 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import static io.jenkins.plugins.DevOpsRunListener.DevOpsStageListener.getCurrentStageId;
 
 public class DevOpsChangePollingModel {
+    private static final int DEFAULT_POLLING_THREADS = 2;
+    // waiting change steps by run and stage, all polled from one shared scheduler
+    private static final Map<String, ChangePoll> ACTIVE_POLLS = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService scheduler;
+
     public DevOpsPipelineNode getStageNodeById(Run<?, ?> run, String stageId) {
         DevOpsModel model = new DevOpsModel();
         return model.getStageNodeById(run, stageId);
@@ -42,8 +54,8 @@ public class DevOpsChangePollingModel {
         if (null != currentNode)
             currentNode.setChangeStartTime(startTime);
     }
-    public void launchChangePollingThread(TaskListener listener, Run<?, ?> run, Job<?, ?> controlledJob,
-                                          DevOpsPipelineChangeStepExecution stepExecution) {
+    public void launchChangePolling(TaskListener listener, Run<?, ?> run, Job<?, ?> controlledJob,
+                                    DevOpsPipelineChangeStepExecution stepExecution) {
 
         DevOpsPipelineGraph graph = run.getAction(DevOpsRunStatusAction.class).getPipelineGraph();
         String stageId = getCurrentStageId(stepExecution.getContext(), graph);
@@ -60,100 +72,201 @@ public class DevOpsChangePollingModel {
         if(pollingIntervalFinal <=0 && changeFailureTimeoutFinal <= 0 && changeStepTimeoutFinal <= 0)
             return;
 
-        final long stageStartTime = startTime;
-        Runnable pollingThread = () ->
-        {
-            Thread.currentThread().setName("DevopsChangePollingThread");
-            final String CHG_STEP = "changeStep"; // Priority: 1
-            final String CHG_CREATION = "changeCreation"; // Priority: 2
-            final String POLLING = "polling"; // Priority: 3
-            class Interval {
-                long intervalTime;
-                String type;
-                int priority;
-                public Interval(long intervalTime, int priority, String type){
-                    this.intervalTime = intervalTime;
-                    this.type = type;
-                    this.priority = priority;
-                }
+        // one poll per change: a poll launched again for the same stage (e.g. from onResume) replaces the old one
+        String key = run.getExternalizableId() + ":" + stageId;
+        ChangePoll poll = new ChangePoll(key, this, listener, run, controlledJob, stepExecution, startTime,
+                pollingIntervalFinal, changeFailureTimeoutFinal, changeStepTimeoutFinal);
+        stepExecution.setChangePoll(poll);
+        ChangePoll previous = ACTIVE_POLLS.put(key, poll);
+        if (previous != null)
+            previous.cancel();
+        poll.scheduleNext();
+    }
+
+    public static int getActivePollCount() {
+        return ACTIVE_POLLS.size();
+    }
+
+    private static synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                    Integer.getInteger(DevOpsChangePollingModel.class.getName() + ".threads", DEFAULT_POLLING_THREADS), r -> {
+                        Thread thread = new Thread(r, "ServiceNow DevOps change polling " + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.setRemoveOnCancelPolicy(true);
+            scheduler = executor;
+        }
+        return scheduler;
+    }
+
+    private static final String CHG_STEP = "changeStep"; // Priority: 1
+    private static final String CHG_CREATION = "changeCreation"; // Priority: 2
+    private static final String POLLING = "polling"; // Priority: 3
+
+    private static final class Interval {
+        final long intervalTime;
+        final String type;
+        final int priority;
+        Interval(long intervalTime, int priority, String type){
+            this.intervalTime = intervalTime;
+            this.type = type;
+            this.priority = priority;
+        }
+    }
+
+    private static final Comparator<Interval> INTERVAL_COMPARATOR = (Interval interval1, Interval interval2) -> {
+        if (interval1.intervalTime > interval2.intervalTime)
+            return 1;
+        else if (interval1.intervalTime == interval2.intervalTime){
+            if(interval1.priority > interval2.priority)
+                return 1;
+            else if (interval1.priority == interval2.priority)
+                return 0;
+            else
+                return -1;
+        }
+        else return -1;
+    };
+
+    /**
+     * Change polling of one waiting change step. Instead of sleeping on its own thread, each wait is a task on the
+     * shared scheduler: the task handles the interval that elapsed (polling, change creation or change step
+     * timeout) and schedules the next one.
+     */
+    public static final class ChangePoll implements Runnable {
+        private final String key;
+        private final DevOpsChangePollingModel model;
+        private final TaskListener listener;
+        private final Run<?, ?> run;
+        private final Job<?, ?> controlledJob;
+        private final DevOpsPipelineChangeStepExecution stepExecution;
+        private final long stageStartTime;
+        private final long pollingIntervalFinal;
+        private final long changeFailureTimeoutFinal;
+        private final long changeStepTimeoutFinal;
+
+        private long nextPollingTime;
+        private boolean isChangeCreationChecked = false;
+        private DevOpsChangeRequestDetails previousChangeDetails = new DevOpsChangeRequestDetails();
+        private Interval nextInterval;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+
+        ChangePoll(String key, DevOpsChangePollingModel model, TaskListener listener, Run<?, ?> run,
+                   Job<?, ?> controlledJob, DevOpsPipelineChangeStepExecution stepExecution, long stageStartTime,
+                   long pollingIntervalFinal, long changeFailureTimeoutFinal, long changeStepTimeoutFinal) {
+            this.key = key;
+            this.model = model;
+            this.listener = listener;
+            this.run = run;
+            this.controlledJob = controlledJob;
+            this.stepExecution = stepExecution;
+            this.stageStartTime = stageStartTime;
+            this.pollingIntervalFinal = pollingIntervalFinal;
+            this.changeFailureTimeoutFinal = changeFailureTimeoutFinal;
+            this.changeStepTimeoutFinal = changeStepTimeoutFinal;
+            this.nextPollingTime = pollingIntervalFinal;
+        }
+
+        private synchronized void scheduleNext() {
+            if (cancelled)
+                return;
+            PriorityQueue<Interval> sleepIntervals = new PriorityQueue<>(3, INTERVAL_COMPARATOR);
+            long nextPollingTimeTemp = -1;
+            if(pollingIntervalFinal >= 0)
+                sleepIntervals.add(new Interval(nextPollingTime, 3, POLLING));
+
+            long duration = System.currentTimeMillis() - stageStartTime;
+            if(!isChangeCreationChecked && changeFailureTimeoutFinal > 0)
+                if(changeFailureTimeoutFinal <= duration) {
+                    sleepIntervals.add(new Interval(0, 2, CHG_CREATION));
+                }else if(changeFailureTimeoutFinal <= duration + nextPollingTime){
+                    sleepIntervals.add(new Interval(changeFailureTimeoutFinal - duration, 2, CHG_CREATION));
+                    nextPollingTimeTemp = nextPollingTime - (changeFailureTimeoutFinal - duration);
+                }else
+                    sleepIntervals.add(new Interval(changeFailureTimeoutFinal - duration, 2, CHG_CREATION));
+
+            if(changeStepTimeoutFinal > 0)
+                if(changeStepTimeoutFinal <= duration) {
+                    sleepIntervals.add(new Interval(0, 1, CHG_STEP));
+                }else if(changeStepTimeoutFinal <= duration + nextPollingTime){
+                    sleepIntervals.add(new Interval(changeStepTimeoutFinal - duration, 1, CHG_STEP));
+                    if(nextPollingTimeTemp == -1 || changeFailureTimeoutFinal > changeStepTimeoutFinal)
+                        nextPollingTimeTemp = nextPollingTime - (changeStepTimeoutFinal - duration);
+                }else
+                    sleepIntervals.add(new Interval(changeStepTimeoutFinal - duration, 1, CHG_STEP));
+
+            if(nextPollingTimeTemp != -1) nextPollingTime = nextPollingTimeTemp;
+            if(sleepIntervals.isEmpty()) {
+                finish();
+                return;
             }
-            Comparator<Interval> comparator = (Interval interval1, Interval interval2) -> {
-                if (interval1.intervalTime > interval2.intervalTime)
-                    return 1;
-                else if (interval1.intervalTime == interval2.intervalTime){
-                    if(interval1.priority > interval2.priority)
-                        return 1;
-                    else if (interval1.priority == interval2.priority)
-                        return 0;
-                    else
-                        return -1;
-                }
-                else return -1;
-            };
+            nextInterval = sleepIntervals.poll();
             try {
-                long sleepTime = 0;
-                long nextPollingTime = pollingIntervalFinal;
-                boolean isChangeCreationChecked = false;
-                DevOpsChangeRequestDetails previousChangeDetails = new DevOpsChangeRequestDetails();
-                PriorityQueue<Interval> sleepIntervals = new PriorityQueue<>(3, comparator);
-                while(!Thread.currentThread().isInterrupted()) {
-                    long nextPollingTimeTemp = -1;
-                    if(pollingIntervalFinal >= 0)
-                        sleepIntervals.add(new Interval(nextPollingTime, 3, POLLING));
-
-                    long duration = System.currentTimeMillis() - stageStartTime;
-                    if(!isChangeCreationChecked && changeFailureTimeoutFinal > 0)
-                        if(changeFailureTimeoutFinal <= duration) {
-                            sleepIntervals.add(new Interval(0, 2, CHG_CREATION));
-                        }else if(changeFailureTimeoutFinal <= duration + nextPollingTime){
-                            sleepIntervals.add(new Interval(changeFailureTimeoutFinal - duration, 2, CHG_CREATION));
-                            nextPollingTimeTemp = nextPollingTime - (changeFailureTimeoutFinal - duration);
-                        }else
-                            sleepIntervals.add(new Interval(changeFailureTimeoutFinal - duration, 2, CHG_CREATION));
-
-                    if(changeStepTimeoutFinal > 0)
-                        if(changeStepTimeoutFinal <= duration) {
-                            sleepIntervals.add(new Interval(0, 1, CHG_STEP));
-                        }else if(changeStepTimeoutFinal <= duration + nextPollingTime){
-                            sleepIntervals.add(new Interval(changeStepTimeoutFinal - duration, 1, CHG_STEP));
-                            if(nextPollingTimeTemp == -1 || changeFailureTimeoutFinal > changeStepTimeoutFinal)
-                                nextPollingTimeTemp = nextPollingTime - (changeStepTimeoutFinal - duration);
-                        }else
-                            sleepIntervals.add(new Interval(changeStepTimeoutFinal - duration, 1, CHG_STEP));
-
-                    if(nextPollingTimeTemp != -1) nextPollingTime = nextPollingTimeTemp;
-                    if(sleepIntervals.isEmpty()) break;
-                    Interval nextInterval = sleepIntervals.poll();
-                    sleepTime  = nextInterval.intervalTime;
-                    if (sleepTime > 0) Thread.sleep(sleepTime);
-
-                    JSONObject response = this.getChangeStatusInfo(run, controlledJob, stepExecution);
+                future = getScheduler().schedule(this, Math.max(0, nextInterval.intervalTime), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                printDebug("scheduleNext", new String[]{"exception"}, new String[]{e.getMessage()}, Level.WARNING);
+                finish();
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (cancelled)
+                    return;
+                try {
+                    JSONObject response = model.getChangeStatusInfo(run, controlledJob, stepExecution);
                     boolean changeFound = Boolean.parseBoolean(GenericUtils.parseResponseResult(response, DevOpsConstants.CHANGE_FOUND.toString()));
                     switch (nextInterval.type){
                         case CHG_CREATION:
                             isChangeCreationChecked = true;
-                            if(!changeFound) this.checkAndLogChangeCreationFailure(stepExecution, listener);
+                            if(!changeFound) model.checkAndLogChangeCreationFailure(stepExecution, listener);
                             break;
                         case CHG_STEP:
-                            this.checkAndLogChangeStepTimeout(stepExecution, listener);
+                            model.checkAndLogChangeStepTimeout(stepExecution, listener);
                             break;
                         default:
-                            previousChangeDetails = this.logPollingMessages(listener, response, previousChangeDetails);
+                            previousChangeDetails = model.logPollingMessages(listener, response, previousChangeDetails);
                             nextPollingTime = pollingIntervalFinal;
                     }
-                    sleepIntervals.clear();
+                } catch (InterruptedException e) {
+                    printDebug("run", new String[]{"message"},
+                            new String[]{"[ServiceNow DevOps] Polling is stopped"}, Level.INFO);
+                    finish();
+                    return;
+                } catch (Exception e) {
+                    printDebug("run", new String[]{"exception"},
+                            new String[]{e.getMessage()}, Level.WARNING);
+                    finish();
+                    return;
                 }
-            } catch (InterruptedException e) {
-                printDebug("launchChangePollingThread", new String[]{"message"},
-                        new String[]{"[ServiceNow DevOps] Polling is stopped"}, Level.INFO);
-            } catch (Exception e) {
-                printDebug("launchChangePollingThread", new String[]{"exception"},
-                        new String[]{e.getMessage()}, Level.WARNING);
             }
-        };
-        Thread pollingThreadImpl = new Thread(pollingThread);
-        stepExecution.setPollingThread(pollingThreadImpl);
-        pollingThreadImpl.start();
+            scheduleNext();
+        }
+
+        /**
+         * Stops the polling, a poll that is running completes but is not scheduled again.
+         */
+        public void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null)
+                scheduled.cancel(false);
+            ACTIVE_POLLS.remove(key, this);
+        }
+
+        private void finish() {
+            cancelled = true;
+            ACTIVE_POLLS.remove(key, this);
+        }
+
+        private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+            GenericUtils.printDebug(DevOpsChangePollingModel.class.getName(), methodName, variables, values, logLevel);
+        }
     }
 
     public void checkAndLogChangeStepTimeout(DevOpsPipelineChangeStepExecution stepExecution, TaskListener listener) throws IOException, InterruptedException {
@@ -178,7 +291,7 @@ public class DevOpsChangePollingModel {
             stepExecution.getContext().onSuccess("[ServiceNow DevOps] Resuming the pipeline");
             listener.getLogger().println("[ServiceNow DevOps] Resuming the pipeline");
         }
-        stepExecution.stopPollingThread();
+        stepExecution.stopPolling();
     }
     public DevOpsChangeRequestDetails logPollingMessages (TaskListener listener, JSONObject response, DevOpsChangeRequestDetails previousChangeDetails){
         boolean changeFound = Boolean.parseBoolean(GenericUtils.parseResponseResult(response, DevOpsConstants.CHANGE_FOUND.toString()));
@@ -0,0 +1,634 @@
+package io.jenkins.plugins.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.jenkins.plugins.utils.GenericUtils;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Durable write-ahead outbox for events sent to ServiceNow.
+ *
+ * Every event is appended to a log under {@code JENKINS_HOME/servicenow-devops/outbox} before it is delivered,
+ * and acknowledged once the instance has answered. Events that could not be delivered because the instance was
+ * unreachable stay pending and are retried periodically, including after a controller restart. Events of the same
+ * run are replayed one at a time in the order they were appended, and the replay of a run stops at its first event
+ * that fails again, so a stage can never be reported as ended before it was reported as started. While a run has
+ * events left to the outbox, its new events are handed to the outbox as well (see {@link #isBacklogged(String)})
+ * instead of being sent ahead of them.
+ *
+ * The log is split into append-only segments ({@code segment-N.log}), each line being either an event or an ack
+ * record. A segment is rotated once it reaches the configured size and deleted once it and every older segment
+ * have no pending event left, so an ack can never outlive the event it refers to. Writes are flushed to disk in
+ * batches by a background task instead of on every append.
+ *
+ * Backpressure: once the number or total size of pending events reaches its limit, new events are not recorded
+ * (they are still delivered on a best effort basis) until the backlog drains.
+ *
+ * Tunable through system properties prefixed with {@code io.jenkins.plugins.model.DevOpsEventOutbox}:
+ * {@code .enabled}, {@code .maxPendingEvents}, {@code .maxPendingMegabytes}, {@code .segmentMegabytes},
+ * {@code .syncIntervalMillis}, {@code .retryIntervalSeconds} and {@code .maxAgeHours}.
+ */
+public final class DevOpsEventOutbox {
+
+	/**
+	 * Delivers a recorded event again.
+	 */
+	public interface Sender {
+		/**
+		 * @return true when the event is done with (delivered or rejected by the instance), false when it should
+		 * be retried later
+		 */
+		boolean send(String instanceUrl, String toolId, String url, JSONObject params, String data);
+	}
+
+	private static final String PROPERTY_PREFIX = DevOpsEventOutbox.class.getName();
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String TYPE_EVENT = "event";
+	private static final String TYPE_ACK = "ack";
+	private static final long MAX_RETRY_BACKOFF_MILLIS = TimeUnit.HOURS.toMillis(1);
+	private static final int STATUS_EVENT_LIMIT = 100;
+
+	private static volatile DevOpsEventOutbox instance;
+
+	private final File dir;
+	private final int maxPendingEvents;
+	private final long maxPendingBytes;
+	private final long segmentSize;
+	private final long retryIntervalMillis;
+	private final long maxAgeMillis;
+
+	private final Object lock = new Object();
+	private final Map<String, PendingEvent> pending = new LinkedHashMap<>();
+	// number of pending events left to the outbox per ordering key
+	private final Map<String, Integer> backlog = new HashMap<>();
+	private final TreeMap<Long, AtomicInteger> segmentPending = new TreeMap<>();
+	private long pendingBytes;
+	private long activeSegment;
+	private FileChannel activeChannel;
+	private long activeSize;
+	private volatile boolean dirty;
+
+	private final AtomicLong appended = new AtomicLong();
+	private final AtomicLong acknowledged = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong expired = new AtomicLong();
+	private final AtomicLong retried = new AtomicLong();
+
+	private final ScheduledExecutorService scheduler;
+	private volatile Sender sender;
+	private volatile boolean retryScheduled;
+
+	DevOpsEventOutbox(File dir, int maxPendingEvents, long maxPendingBytes, long segmentSize,
+	                  long syncIntervalMillis, long retryIntervalMillis, long maxAgeMillis) throws IOException {
+		this.dir = dir;
+		this.maxPendingEvents = maxPendingEvents;
+		this.maxPendingBytes = maxPendingBytes;
+		this.segmentSize = segmentSize;
+		this.retryIntervalMillis = retryIntervalMillis;
+		this.maxAgeMillis = maxAgeMillis;
+
+		if (!dir.isDirectory() && !dir.mkdirs())
+			throw new IOException("Unable to create outbox directory " + dir);
+		recover();
+		openSegment(activeSegment);
+
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, r -> {
+			Thread thread = new Thread(r, "ServiceNow DevOps event outbox");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		this.scheduler = executor;
+		scheduler.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return the controller wide outbox, or null when it is disabled or JENKINS_HOME is not available
+	 */
+	public static DevOpsEventOutbox get() {
+		if (instance == null && Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + ".enabled", "true"))) {
+			synchronized (DevOpsEventOutbox.class) {
+				Jenkins jenkins = Jenkins.getInstanceOrNull();
+				if (instance == null && jenkins != null) {
+					try {
+						instance = new DevOpsEventOutbox(new File(jenkins.getRootDir(), "servicenow-devops" + File.separator + "outbox"),
+								Integer.getInteger(PROPERTY_PREFIX + ".maxPendingEvents", 10000),
+								Long.getLong(PROPERTY_PREFIX + ".maxPendingMegabytes", 512L) * 1024 * 1024,
+								Long.getLong(PROPERTY_PREFIX + ".segmentMegabytes", 16L) * 1024 * 1024,
+								Long.getLong(PROPERTY_PREFIX + ".syncIntervalMillis", 200L),
+								TimeUnit.SECONDS.toMillis(Long.getLong(PROPERTY_PREFIX + ".retryIntervalSeconds", 30L)),
+								TimeUnit.HOURS.toMillis(Long.getLong(PROPERTY_PREFIX + ".maxAgeHours", 24L)));
+					} catch (IOException e) {
+						printDebug("get", new String[]{"exception"}, new String[]{e.getMessage()}, Level.SEVERE);
+					}
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Starts replaying pending events, including the ones recorded before the last restart.
+	 *
+	 * @param sender Delivers the recorded events
+	 */
+	public void start(Sender sender) {
+		this.sender = sender;
+		synchronized (lock) {
+			if (retryScheduled)
+				return;
+			retryScheduled = true;
+		}
+		scheduler.scheduleWithFixedDelay(this::retryPending, retryIntervalMillis, retryIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Records an event before it is delivered, replayed independently of any other event.
+	 *
+	 * @return the id to acknowledge or release the event with, null when the outbox is full or could not write
+	 */
+	public String append(String instanceUrl, String toolId, String url, JSONObject params, String data) {
+		return append(null, instanceUrl, toolId, url, params, data);
+	}
+
+	/**
+	 * Records an event before it is delivered.
+	 *
+	 * @param orderingKey Key identifying the run the event belongs to, events with the same key are replayed in the
+	 *                    order they were appended
+	 * @return the id to acknowledge or release the event with, null when the outbox is full or could not write
+	 */
+	public String append(String orderingKey, String instanceUrl, String toolId, String url, JSONObject params, String data) {
+		String id = UUID.randomUUID().toString();
+		// Gson keeps the payload as a plain string, net.sf.json would parse JSON looking values
+		JsonObject record = new JsonObject();
+		record.addProperty("type", TYPE_EVENT);
+		record.addProperty("id", id);
+		record.addProperty("created", System.currentTimeMillis());
+		record.addProperty("orderingKey", orderingKey);
+		record.addProperty("instanceUrl", instanceUrl);
+		record.addProperty("toolId", toolId);
+		record.addProperty("url", url);
+		record.addProperty("params", params != null ? params.toString() : null);
+		record.addProperty("data", data);
+		byte[] line = (record.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+
+		synchronized (lock) {
+			if (pending.size() >= maxPendingEvents || pendingBytes + line.length > maxPendingBytes) {
+				rejected.incrementAndGet();
+				printDebug("append", new String[]{"message", "pending"},
+						new String[]{"Outbox is full, event is not recorded", String.valueOf(pending.size())}, Level.WARNING);
+				return null;
+			}
+			try {
+				long offset = write(line);
+				PendingEvent event = new PendingEvent(id, activeSegment, offset, line.length, System.currentTimeMillis(),
+						orderingKey, instanceUrl, toolId, url);
+				// owned by the notification dispatcher until it is acknowledged or released
+				event.inFlight = true;
+				pending.put(id, event);
+				segmentPending.get(activeSegment).incrementAndGet();
+				pendingBytes += line.length;
+				appended.incrementAndGet();
+				rotateIfNeeded();
+				return id;
+			} catch (IOException e) {
+				printDebug("append", new String[]{"exception"}, new String[]{e.getMessage()}, Level.SEVERE);
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Marks an event as delivered; it will not be replayed anymore.
+	 */
+	public void ack(String id) {
+		if (id == null)
+			return;
+		synchronized (lock) {
+			PendingEvent event = pending.remove(id);
+			if (event == null)
+				return;
+			JsonObject record = new JsonObject();
+			record.addProperty("type", TYPE_ACK);
+			record.addProperty("id", id);
+			try {
+				write((record.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				// worst case the event is delivered twice after a restart
+				printDebug("ack", new String[]{"exception"}, new String[]{e.getMessage()}, Level.WARNING);
+			}
+			pendingBytes -= event.length;
+			if (event.released)
+				backlog.computeIfPresent(event.getOrderingKey(), (key, count) -> count > 1 ? count - 1 : null);
+			acknowledged.incrementAndGet();
+			AtomicInteger count = segmentPending.get(event.segment);
+			if (count != null)
+				count.decrementAndGet();
+			rotateIfNeeded();
+			deleteDrainedSegments();
+		}
+	}
+
+	/**
+	 * Hands an event back after a failed delivery attempt; it is retried later.
+	 */
+	public void release(String id) {
+		if (id == null)
+			return;
+		synchronized (lock) {
+			PendingEvent event = pending.get(id);
+			if (event != null) {
+				event.attempts++;
+				event.inFlight = false;
+				event.nextAttempt = System.currentTimeMillis()
+						+ Math.min(retryIntervalMillis << Math.min(event.attempts, 16), MAX_RETRY_BACKOFF_MILLIS);
+				leaveToOutbox(event);
+			}
+		}
+	}
+
+	/**
+	 * Hands an event over to the outbox without trying to deliver it, because earlier events of its run are still
+	 * waiting in the outbox; it is replayed after them.
+	 */
+	public void defer(String id) {
+		if (id == null)
+			return;
+		synchronized (lock) {
+			PendingEvent event = pending.get(id);
+			if (event != null) {
+				event.inFlight = false;
+				leaveToOutbox(event);
+			}
+		}
+	}
+
+	/**
+	 * @return true when events of the same run as the given one were left to the outbox and are still pending,
+	 * sending it directly could then overtake them
+	 */
+	public boolean isBacklogged(String id) {
+		if (id == null)
+			return false;
+		synchronized (lock) {
+			PendingEvent event = pending.get(id);
+			return event != null && !event.released && backlog.containsKey(event.getOrderingKey());
+		}
+	}
+
+	private void leaveToOutbox(PendingEvent event) {
+		if (event.released)
+			return;
+		event.released = true;
+		backlog.merge(event.getOrderingKey(), 1, Integer::sum);
+	}
+
+	/**
+	 * Hands back an event that was taken for replay but not sent, without counting an attempt.
+	 */
+	private void skip(String id) {
+		synchronized (lock) {
+			PendingEvent event = pending.get(id);
+			if (event != null)
+				event.inFlight = false;
+		}
+	}
+
+	private void retryPending() {
+		Sender currentSender = sender;
+		if (currentSender == null)
+			return;
+		long now = System.currentTimeMillis();
+		// pending events are kept in append order, an event only becomes due once the earlier ones of its key are
+		Map<String, List<PendingEvent>> due = new LinkedHashMap<>();
+		Set<String> blocked = new HashSet<>();
+		List<String> tooOld = new ArrayList<>();
+		synchronized (lock) {
+			for (PendingEvent event : pending.values()) {
+				String key = event.getOrderingKey();
+				if (blocked.contains(key))
+					continue;
+				if (event.inFlight)
+					blocked.add(key);
+				else if (now - event.created > maxAgeMillis)
+					tooOld.add(event.id);
+				else if (event.nextAttempt > now)
+					blocked.add(key);
+				else {
+					event.inFlight = true;
+					due.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+				}
+			}
+		}
+		for (String id : tooOld) {
+			expired.incrementAndGet();
+			printDebug("retryPending", new String[]{"message", "id"}, new String[]{"Dropping expired event", id}, Level.WARNING);
+			ack(id);
+		}
+		for (List<PendingEvent> events : due.values()) {
+			for (int i = 0; i < events.size(); i++) {
+				PendingEvent event = events.get(i);
+				if (replay(currentSender, event)) {
+					ack(event.id);
+					continue;
+				}
+				// the rest of the key waits for this event to go through
+				release(event.id);
+				for (int j = i + 1; j < events.size(); j++)
+					skip(events.get(j).id);
+				break;
+			}
+		}
+	}
+
+	private boolean replay(Sender currentSender, PendingEvent event) {
+		try {
+			JsonObject record = read(event);
+			retried.incrementAndGet();
+			return record == null || currentSender.send(event.instanceUrl, event.toolId, event.url,
+					getParams(record), getString(record, "data"));
+		} catch (IOException | RuntimeException e) {
+			printDebug("retryPending", new String[]{"id", "exception"}, new String[]{event.id, e.getMessage()}, Level.WARNING);
+			return false;
+		}
+	}
+
+	private JsonObject read(PendingEvent event) throws IOException {
+		byte[] line = new byte[event.length];
+		try (RandomAccessFile file = new RandomAccessFile(segmentFile(event.segment), "r")) {
+			file.seek(event.offset);
+			file.readFully(line);
+		}
+		try {
+			return parseRecord(new String(line, StandardCharsets.UTF_8));
+		} catch (JsonParseException | IllegalStateException e) {
+			printDebug("read", new String[]{"id", "exception"}, new String[]{event.id, e.getMessage()}, Level.WARNING);
+			return null;
+		}
+	}
+
+	private static JsonObject parseRecord(String line) {
+		return JsonParser.parseString(line.trim()).getAsJsonObject();
+	}
+
+	private static String getString(JsonObject record, String name) {
+		JsonElement element = record.get(name);
+		return element == null || element.isJsonNull() ? null : element.getAsString();
+	}
+
+	private static long getLong(JsonObject record, String name) {
+		JsonElement element = record.get(name);
+		return element == null || element.isJsonNull() ? 0L : element.getAsLong();
+	}
+
+	private static JSONObject getParams(JsonObject record) {
+		String params = getString(record, "params");
+		return params == null ? new JSONObject() : JSONObject.fromObject(params);
+	}
+
+	private long write(byte[] line) throws IOException {
+		long offset = activeSize;
+		ByteBuffer buffer = ByteBuffer.wrap(line);
+		while (buffer.hasRemaining())
+			activeChannel.write(buffer);
+		activeSize += line.length;
+		dirty = true;
+		return offset;
+	}
+
+	private void sync() {
+		if (!dirty)
+			return;
+		synchronized (lock) {
+			try {
+				dirty = false;
+				activeChannel.force(false);
+			} catch (IOException e) {
+				printDebug("sync", new String[]{"exception"}, new String[]{e.getMessage()}, Level.WARNING);
+			}
+		}
+	}
+
+	private void rotateIfNeeded() {
+		if (activeSize < segmentSize)
+			return;
+		try {
+			activeChannel.force(false);
+			activeChannel.close();
+			openSegment(activeSegment + 1);
+		} catch (IOException e) {
+			printDebug("rotateIfNeeded", new String[]{"exception"}, new String[]{e.getMessage()}, Level.SEVERE);
+		}
+	}
+
+	private void openSegment(long segment) throws IOException {
+		activeChannel = FileChannel.open(segmentFile(segment).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		activeSegment = segment;
+		activeSize = activeChannel.size();
+		segmentPending.putIfAbsent(segment, new AtomicInteger());
+	}
+
+	// Segments are only deleted oldest first, so acks in a deleted segment always refer to deleted events.
+	private void deleteDrainedSegments() {
+		Iterator<Map.Entry<Long, AtomicInteger>> it = segmentPending.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Long, AtomicInteger> entry = it.next();
+			if (entry.getKey() == activeSegment || entry.getValue().get() > 0)
+				return;
+			File file = segmentFile(entry.getKey());
+			if (file.exists() && !file.delete()) {
+				printDebug("deleteDrainedSegments", new String[]{"file"}, new String[]{file.getName()}, Level.WARNING);
+				return;
+			}
+			it.remove();
+		}
+	}
+
+	private void recover() throws IOException {
+		File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		long lastSegment = -1;
+		if (files != null) {
+			long[] segments = new long[files.length];
+			int count = 0;
+			for (File file : files) {
+				try {
+					segments[count++] = Long.parseLong(file.getName().substring(SEGMENT_PREFIX.length(),
+							file.getName().length() - SEGMENT_SUFFIX.length()));
+				} catch (NumberFormatException ignore) {
+					// not one of ours
+				}
+			}
+			segments = Arrays.copyOf(segments, count);
+			Arrays.sort(segments);
+			for (long segment : segments) {
+				recoverSegment(segment);
+				lastSegment = segment;
+			}
+		}
+		// events that survived the restart are the outbox's to deliver
+		for (PendingEvent event : pending.values())
+			leaveToOutbox(event);
+		// always continue in a fresh segment, the tail of the last one may be a torn write
+		activeSegment = lastSegment + 1;
+		deleteDrainedSegments();
+		if (!pending.isEmpty())
+			printDebug("recover", new String[]{"pending"}, new String[]{String.valueOf(pending.size())}, Level.INFO);
+	}
+
+	private void recoverSegment(long segment) throws IOException {
+		segmentPending.putIfAbsent(segment, new AtomicInteger());
+		byte[] content = Files.readAllBytes(segmentFile(segment).toPath());
+		int start = 0;
+		for (int i = 0; i < content.length; i++) {
+			if (content[i] != '\n')
+				continue;
+			int length = i - start + 1;
+			try {
+				JsonObject record = parseRecord(new String(content, start, length, StandardCharsets.UTF_8));
+				String id = getString(record, "id");
+				String type = getString(record, "type");
+				if (TYPE_EVENT.equals(type) && id != null) {
+					pending.put(id, new PendingEvent(id, segment, start, length, getLong(record, "created"),
+							getString(record, "orderingKey"), getString(record, "instanceUrl"), getString(record, "toolId"), getString(record, "url")));
+					segmentPending.get(segment).incrementAndGet();
+					pendingBytes += length;
+				} else if (TYPE_ACK.equals(type) && id != null) {
+					PendingEvent event = pending.remove(id);
+					if (event != null) {
+						segmentPending.get(event.segment).decrementAndGet();
+						pendingBytes -= event.length;
+					}
+				}
+			} catch (JsonParseException | IllegalStateException e) {
+				printDebug("recoverSegment", new String[]{"segment", "offset"},
+						new String[]{String.valueOf(segment), String.valueOf(start)}, Level.WARNING);
+			}
+			start = i + 1;
+		}
+	}
+
+	private File segmentFile(long segment) {
+		return new File(dir, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+	}
+
+	public int getPendingCount() {
+		synchronized (lock) {
+			return pending.size();
+		}
+	}
+
+	/**
+	 * @return counters of the outbox and the oldest pending events, without their payload
+	 */
+	public JSONObject getStatus() {
+		JSONObject status = new JSONObject();
+		JSONArray events = new JSONArray();
+		synchronized (lock) {
+			status.put("pending", pending.size());
+			status.put("pendingBytes", pendingBytes);
+			status.put("segments", segmentPending.size());
+			for (PendingEvent event : pending.values()) {
+				if (events.size() >= STATUS_EVENT_LIMIT)
+					break;
+				JSONObject json = new JSONObject();
+				json.put("id", event.id);
+				json.put("created", event.created);
+				json.put("instanceUrl", event.instanceUrl);
+				json.put("toolId", event.toolId);
+				json.put("url", event.url);
+				json.put("attempts", event.attempts);
+				json.put("inFlight", event.inFlight);
+				events.add(json);
+			}
+		}
+		status.put("maxPendingEvents", maxPendingEvents);
+		status.put("maxPendingBytes", maxPendingBytes);
+		status.put("appended", appended.get());
+		status.put("acknowledged", acknowledged.get());
+		status.put("rejected", rejected.get());
+		status.put("expired", expired.get());
+		status.put("retried", retried.get());
+		status.put("events", events);
+		return status;
+	}
+
+	void close() throws IOException {
+		scheduler.shutdownNow();
+		synchronized (lock) {
+			activeChannel.force(false);
+			activeChannel.close();
+		}
+	}
+
+	private static final class PendingEvent {
+		private final String id;
+		private final long segment;
+		private final long offset;
+		private final int length;
+		private final long created;
+		private final String orderingKey;
+		private final String instanceUrl;
+		private final String toolId;
+		private final String url;
+		private int attempts;
+		private boolean inFlight;
+		// left to the outbox to deliver, after a failed attempt, a deferral or a restart
+		private boolean released;
+		private long nextAttempt;
+
+		PendingEvent(String id, long segment, long offset, int length, long created, String orderingKey,
+		             String instanceUrl, String toolId, String url) {
+			this.id = id;
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+			this.created = created;
+			this.orderingKey = orderingKey;
+			this.instanceUrl = instanceUrl;
+			this.toolId = toolId;
+			this.url = url;
+		}
+
+		// the order is kept per run and instance, events without a key are replayed independently
+		String getOrderingKey() {
+			return orderingKey != null ? orderingKey + "|" + instanceUrl + "|" + toolId : id;
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsEventOutbox.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -0,0 +1,136 @@
+package io.jenkins.plugins.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import hudson.model.Queue;
+import hudson.model.queue.CauseOfBlockage;
+import io.jenkins.plugins.utils.GenericUtils;
+import jenkins.model.Jenkins;
+
+/**
+ * Decision cache for freestyle change control gating.
+ *
+ * {@link io.jenkins.plugins.DevOpsQueueTaskDispatcher#canRun(Queue.Item)} runs while Jenkins holds the queue lock,
+ * so the network calls needed to decide whether a queued freestyle item is under change control (tracking check,
+ * change control check and callback registration) are made on a background thread instead. Until the evaluation
+ * of an item completes, the item is blocked as "pending evaluation"; afterwards the cached decision is returned
+ * with a single map lookup. Decisions are dropped when the item leaves the queue.
+ *
+ * Evaluation concurrency can be tuned with the system property
+ * {@code io.jenkins.plugins.model.DevOpsFreestyleGate.threads}.
+ */
+public final class DevOpsFreestyleGate {
+
+	private static final int DEFAULT_THREADS = 4;
+	private static final DevOpsFreestyleGate INSTANCE = new DevOpsFreestyleGate(
+			Integer.getInteger(DevOpsFreestyleGate.class.getName() + ".threads", DEFAULT_THREADS));
+
+	private static final CauseOfBlockage PENDING_EVALUATION = new CauseOfBlockage() {
+		@Override
+		public String getShortDescription() {
+			return "Job is pending ServiceNow DevOps change control evaluation";
+		}
+	};
+
+	private final Map<Long, Decision> decisions = new ConcurrentHashMap<>();
+	private final ExecutorService executor;
+
+	private DevOpsFreestyleGate(int threads) {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread thread = new Thread(r, "ServiceNow DevOps freestyle gate " + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		pool.allowCoreThreadTimeOut(true);
+		this.executor = pool;
+	}
+
+	public static DevOpsFreestyleGate get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the cached decision of the item, starting its evaluation in the background when there is none yet.
+	 *
+	 * @param item Queued item being evaluated by the queue dispatcher
+	 * @param evaluation Blocking evaluation, returns the blockage to apply or null to let the item run
+	 * @return the decided blockage, null when the item may run, or a "pending evaluation" blockage
+	 */
+	public CauseOfBlockage getDecision(Queue.Item item, Supplier<CauseOfBlockage> evaluation) {
+		final long itemId = item.getId();
+		Decision decision = decisions.get(itemId);
+		if (decision == null) {
+			Decision pending = new Decision();
+			decision = decisions.putIfAbsent(itemId, pending);
+			if (decision == null) {
+				decision = pending;
+				try {
+					executor.execute(() -> evaluate(itemId, pending, evaluation));
+				} catch (RejectedExecutionException e) {
+					decisions.remove(itemId, pending);
+					printDebug("getDecision", new String[]{"message"},
+							new String[]{"Evaluation rejected: " + e.getMessage()}, Level.WARNING);
+				}
+			}
+		}
+		return decision.completed ? decision.blockage : PENDING_EVALUATION;
+	}
+
+	private void evaluate(long itemId, Decision decision, Supplier<CauseOfBlockage> evaluation) {
+		try {
+			decision.blockage = evaluation.get();
+		} catch (RuntimeException e) {
+			// never block an item because the evaluation itself failed
+			printDebug("evaluate", new String[]{"itemId", "exception"},
+					new String[]{String.valueOf(itemId), e.getMessage()}, Level.WARNING);
+			decision.blockage = null;
+		} finally {
+			decision.completed = true;
+			Jenkins jenkins = Jenkins.getInstanceOrNull();
+			if (jenkins != null)
+				jenkins.getQueue().scheduleMaintenance();
+		}
+	}
+
+	/**
+	 * Drops the decision of an item, called once it left the queue.
+	 *
+	 * @param itemId Id of the queue item
+	 */
+	public void forget(long itemId) {
+		decisions.remove(itemId);
+	}
+
+	public int getPendingCount() {
+		int pending = 0;
+		for (Decision decision : decisions.values()) {
+			if (!decision.completed)
+				pending++;
+		}
+		return pending;
+	}
+
+	public int size() {
+		return decisions.size();
+	}
+
+	private static final class Decision {
+		private volatile CauseOfBlockage blockage;
+		private volatile boolean completed;
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsFreestyleGate.class.getName(), methodName, variables, values, logLevel);
+	}
+}
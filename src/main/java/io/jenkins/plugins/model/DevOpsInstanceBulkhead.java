@@ -0,0 +1,290 @@
+package io.jenkins.plugins.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+import io.jenkins.plugins.config.DevOpsConfigurationEntry;
+import io.jenkins.plugins.utils.GenericUtils;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Keeps the ServiceNow instances a controller reports to apart from each other, so a slow or unreachable instance
+ * (a sandbox going down) does not hold back the pipelines reporting to the other ones.
+ *
+ * Every instance gets its own small thread pool with a bounded queue, used to call all the configurations of an
+ * event side by side with an overall deadline ({@link #invokeAll}), and its own {@link DevOpsNotificationDispatcher}
+ * for the notifications. A call that does not fit in the queue or does not answer before the deadline is given up
+ * for this event only. Calls and failures are counted per instance, see {@link #getHealth()}.
+ *
+ * Pool size, queue capacity, dispatcher lanes and deadline can be tuned with the system properties
+ * {@code io.jenkins.plugins.model.DevOpsInstanceBulkhead.threads},
+ * {@code io.jenkins.plugins.model.DevOpsInstanceBulkhead.queueCapacity},
+ * {@code io.jenkins.plugins.model.DevOpsInstanceBulkhead.dispatcherLanes} and
+ * {@code io.jenkins.plugins.model.DevOpsInstanceBulkhead.deadlineMillis}.
+ */
+public final class DevOpsInstanceBulkhead {
+
+	public enum Status {
+		/** the last call succeeded */
+		UP,
+		/** the last calls failed, timed out or were rejected */
+		DEGRADED,
+		/** several calls in a row failed */
+		DOWN
+	}
+
+	private static final String PROPERTY_PREFIX = DevOpsInstanceBulkhead.class.getName();
+	private static final int DEFAULT_THREADS = 2;
+	private static final int DEFAULT_QUEUE_CAPACITY = 20;
+	private static final int DEFAULT_DISPATCHER_LANES = 2;
+	private static final int DEFAULT_DISPATCHER_LANE_CAPACITY = 500;
+	private static final long DEFAULT_DEADLINE_MILLIS = 10000;
+	private static final int DOWN_AFTER_FAILURES = 3;
+	// a rejected or timed out call keeps the instance degraded for this long
+	private static final long DEGRADED_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private static final Map<String, DevOpsInstanceBulkhead> BULKHEADS = new ConcurrentHashMap<>();
+
+	private final String instance;
+	private final ThreadPoolExecutor executor;
+	private volatile DevOpsNotificationDispatcher dispatcher;
+
+	private final AtomicLong calls = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+	private volatile long lastSuccess;
+	private volatile long lastFailure;
+	private volatile long lastDropped;
+
+	private DevOpsInstanceBulkhead(String instance) {
+		this.instance = instance;
+		int threads = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + ".threads", DEFAULT_THREADS));
+		int queueCapacity = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + ".queueCapacity", DEFAULT_QUEUE_CAPACITY));
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), r -> {
+					Thread thread = new Thread(r, "ServiceNow DevOps " + instance + " " + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @param instanceUrl Url of the ServiceNow instance
+	 * @return the bulkhead of the instance, configurations of the same instance share it
+	 */
+	public static DevOpsInstanceBulkhead get(String instanceUrl) {
+		return BULKHEADS.computeIfAbsent(getKey(instanceUrl), DevOpsInstanceBulkhead::new);
+	}
+
+	static String getKey(String instanceUrl) {
+		if (instanceUrl == null)
+			return "";
+		String key = instanceUrl.trim().toLowerCase();
+		while (key.endsWith("/"))
+			key = key.substring(0, key.length() - 1);
+		return key;
+	}
+
+	/**
+	 * @return the overall deadline of the calls made for one event, in milliseconds
+	 */
+	public static long getDeadlineMillis() {
+		return Math.max(0, Long.getLong(PROPERTY_PREFIX + ".deadlineMillis", DEFAULT_DEADLINE_MILLIS));
+	}
+
+	/**
+	 * @return the dispatcher delivering the notifications of the instance
+	 */
+	public DevOpsNotificationDispatcher getDispatcher() {
+		if (dispatcher == null) {
+			synchronized (this) {
+				if (dispatcher == null)
+					dispatcher = new DevOpsNotificationDispatcher(instance,
+							Integer.getInteger(PROPERTY_PREFIX + ".dispatcherLanes", DEFAULT_DISPATCHER_LANES),
+							Integer.getInteger(DevOpsNotificationDispatcher.class.getName() + ".laneCapacity",
+									DEFAULT_DISPATCHER_LANE_CAPACITY),
+							Boolean.getBoolean(DevOpsNotificationDispatcher.class.getName() + ".synchronous"));
+			}
+		}
+		return dispatcher;
+	}
+
+	/**
+	 * Calls every configuration side by side, each one on the bulkhead of its instance, and waits for the answers
+	 * until the deadline. A single configuration is called on the calling thread.
+	 *
+	 * @param configs Configurations to call
+	 * @param call The call, made once per configuration
+	 * @param failed Tells whether the result of a call is a failure of the instance
+	 * @param timeoutMillis Overall deadline
+	 * @return the results in the order of the configurations, null for a call that failed, was rejected or did not
+	 * answer in time
+	 */
+	public static <T> List<T> invokeAll(List<DevOpsConfigurationEntry> configs,
+			Function<DevOpsConfigurationEntry, T> call, Predicate<T> failed, long timeoutMillis) {
+		List<T> results = new ArrayList<>(Collections.nCopies(configs.size(), null));
+		if (configs.size() == 1) {
+			try {
+				results.set(0, get(configs.get(0).getInstanceUrl()).execute(call, configs.get(0), failed));
+			} catch (RuntimeException e) {
+				printDebug("invokeAll", new String[]{"configurationName", "exception"},
+						new String[]{configs.get(0).getName(), e.getMessage()}, Level.WARNING);
+			}
+			return results;
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		List<Future<T>> futures = new ArrayList<>(configs.size());
+		for (DevOpsConfigurationEntry config : configs) {
+			DevOpsInstanceBulkhead bulkhead = get(config.getInstanceUrl());
+			try {
+				futures.add(bulkhead.executor.submit(() -> bulkhead.execute(call, config, failed)));
+			} catch (RejectedExecutionException e) {
+				bulkhead.onDropped(bulkhead.rejected, config, "queue full");
+				futures.add(null);
+			}
+		}
+		for (int i = 0; i < futures.size(); i++) {
+			Future<T> future = futures.get(i);
+			if (future == null)
+				continue;
+			DevOpsConfigurationEntry config = configs.get(i);
+			try {
+				results.set(i, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+			} catch (TimeoutException e) {
+				future.cancel(true);
+				DevOpsInstanceBulkhead bulkhead = get(config.getInstanceUrl());
+				bulkhead.onDropped(bulkhead.timedOut, config, "deadline exceeded");
+			} catch (ExecutionException e) {
+				// counted as a failure by execute
+				printDebug("invokeAll", new String[]{"configurationName", "exception"},
+						new String[]{config.getName(), String.valueOf(e.getCause())}, Level.WARNING);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				for (int j = i; j < futures.size(); j++) {
+					if (futures.get(j) != null)
+						futures.get(j).cancel(true);
+				}
+				break;
+			}
+		}
+		return results;
+	}
+
+	private <T> T execute(Function<DevOpsConfigurationEntry, T> call, DevOpsConfigurationEntry config,
+			Predicate<T> failed) {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			T result = call.apply(config);
+			success = !failed.test(result);
+			return result;
+		} finally {
+			record(success, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records the outcome of a call made to the instance outside of {@link #invokeAll}.
+	 *
+	 * @param success Whether the instance answered
+	 * @param latencyNanos Duration of the call
+	 */
+	public void record(boolean success, long latencyNanos) {
+		calls.incrementAndGet();
+		totalLatencyNanos.addAndGet(latencyNanos);
+		maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+		if (success) {
+			consecutiveFailures.set(0);
+			lastSuccess = System.currentTimeMillis();
+		} else {
+			failures.incrementAndGet();
+			consecutiveFailures.incrementAndGet();
+			lastFailure = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Records notifications that were given up because the dispatcher of the instance stayed full.
+	 */
+	public void recordRejected(int count) {
+		rejected.addAndGet(count);
+		lastDropped = System.currentTimeMillis();
+		printDebug("recordRejected", new String[]{"instance", "events"},
+				new String[]{instance, String.valueOf(count)}, Level.WARNING);
+	}
+
+	private void onDropped(AtomicLong counter, DevOpsConfigurationEntry config, String reason) {
+		counter.incrementAndGet();
+		lastDropped = System.currentTimeMillis();
+		printDebug("invokeAll", new String[]{"configurationName", "instance", "message"},
+				new String[]{config.getName(), instance, "Call given up: " + reason}, Level.WARNING);
+	}
+
+	public Status getStatus() {
+		int failuresInARow = consecutiveFailures.get();
+		if (failuresInARow >= DOWN_AFTER_FAILURES)
+			return Status.DOWN;
+		if (failuresInARow > 0 || System.currentTimeMillis() - lastDropped < DEGRADED_PERIOD_MILLIS)
+			return Status.DEGRADED;
+		return Status.UP;
+	}
+
+	/**
+	 * @return status, call counters, latency and dispatcher queues per instance
+	 */
+	public static JSONArray getHealth() {
+		JSONArray health = new JSONArray();
+		for (DevOpsInstanceBulkhead bulkhead : new TreeMap<>(BULKHEADS).values())
+			health.add(bulkhead.toJSON());
+		return health;
+	}
+
+	private JSONObject toJSON() {
+		long count = calls.get();
+		JSONObject json = new JSONObject();
+		json.put("instance", instance);
+		json.put("status", getStatus().name());
+		json.put("calls", count);
+		json.put("failures", failures.get());
+		json.put("consecutiveFailures", consecutiveFailures.get());
+		json.put("rejected", rejected.get());
+		json.put("timedOut", timedOut.get());
+		json.put("active", executor.getActiveCount());
+		json.put("queued", executor.getQueue().size());
+		json.put("avgLatencyMs", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / count));
+		json.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+		json.put("lastSuccess", lastSuccess);
+		json.put("lastFailure", lastFailure);
+		if (dispatcher != null)
+			json.put("dispatcher", dispatcher.getMetrics());
+		return json;
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsInstanceBulkhead.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -7,11 +7,17 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -19,6 +25,10 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
 import hudson.EnvVars;
 import hudson.Util;
 import hudson.model.AbstractProject;
@@ -42,6 +52,9 @@ import io.jenkins.plugins.pipeline.steps.executions.DevOpsPipelineChangeStepExec
 import io.jenkins.plugins.pipeline.steps.executions.DevOpsPipelineMapStepExecution;
 import io.jenkins.plugins.utils.CommUtils;
 import io.jenkins.plugins.utils.DevOpsConstants;
+import io.jenkins.plugins.utils.DevOpsHttpTransport;
+import io.jenkins.plugins.utils.DevOpsParallelFetcher;
+import io.jenkins.plugins.utils.DevOpsPoller;
 import io.jenkins.plugins.utils.GenericUtils;
 import jenkins.model.Jenkins;
 import jenkins.triggers.SCMTriggerItem;
@@ -51,6 +64,15 @@ import net.sf.json.JSONObject;
 
 public class DevOpsModel {
 
+	// values per IN query, keeps the query string well below the URL length limits of the instance
+	static final int QUERY_BATCH_SIZE = 50;
+	// rows per table API page of an IN query
+	static final int QUERY_PAGE_SIZE = 1000;
+
+	private static final String TASK_EXECUTION_NOT_FOUND = "Could not find matching task execution for given pipeline name and build number";
+	private static final DevOpsPoller CHANGESET_REGISTRATION_POLLER = new DevOpsPoller("config.registerChangeset", 220, 5000, 100,
+			TimeUnit.MINUTES.toMillis(2)).withBackoff(2, 2);
+
 	public final Pattern urlPatt;
 	private boolean queueJobs;
 
@@ -420,6 +442,8 @@ public class DevOpsModel {
 		// For each active configuration, check if an entry exists in snPipelineInfo.json for toolId_instanceUrl key
 		JSONObject configsTrackInfo = new JSONObject();
 		List<DevOpsPipelineInfoConfig> pipelineInfoConfigs = new ArrayList<>();
+		List<JSONObject> configTrackInfos = new ArrayList<>();
+		List<DevOpsConfigurationEntry> entriesToCall = new ArrayList<>();
 		for (DevOpsConfigurationEntry entry : activeDevopsConfigEntries) {
 
 			JSONObject configTrackInfo = getTrackInfoForConfigKey(jobName, infoFilePath, GenericUtils.getConfigEntryTrackKey(entry.getInstanceUrl(), entry.getToolId()));
@@ -435,29 +459,23 @@ public class DevOpsModel {
 			//  }
 			//}
 			// If entry doesn't exist, make the call to endpoint
-			if (configTrackInfo == null || entry.getTrackCheck()) {
-				JSONObject params = new JSONObject();
-				params.put(DevOpsConstants.TOOL_ID_ATTR.toString(), entry.getToolId());
-				params.put("url", jobUrl);
-				params.put("name", jobName);
-				params.put("pronoun", pronoun);
-				if (branchName != null)
-					params.put("branchName", branchName);
-				params.put("isMultiBranch", isMultiBranch);
-				printDebug("isTrackingEndpoint", new String[]{ "configurationName" }, new String[]{ entry.getName() }, Level.FINE);
-				if (!GenericUtils.isEmptyOrDefault(entry.getSecretCredentialId())) {
-					Map<String, String> tokenDetails = new HashMap<String, String>();
-					tokenDetails.put(DevOpsConstants.TOKEN_VALUE.toString(),
-							DevOpsConfigurationEntry.getTokenText(entry.getSecretCredentialId()));
-					configTrackInfo = CommUtils.callV2Support(DevOpsConstants.REST_GET_METHOD.toString(),
-							entry.getTrackingUrl(), params, null,
-							DevOpsConfigurationEntry.getUser(entry.getSecretCredentialId()), entry.getPwd(entry.getSecretCredentialId()), null, null, tokenDetails);
-				} else {
-					configTrackInfo = CommUtils.call(DevOpsConstants.REST_GET_METHOD.toString(),
-							entry.getTrackingUrl(), params, null,
-							DevOpsConfigurationEntry.getUser(entry.getCredentialsId()), DevOpsConfigurationEntry.getPwd(entry.getCredentialsId()), null, null);
-				}
+			if (configTrackInfo == null || entry.getTrackCheck())
+				entriesToCall.add(entry);
+			configTrackInfos.add(configTrackInfo);
+		}
+		// Instances are called side by side, each on its own bulkhead, so a slow one does not hold back the others
+		if (!entriesToCall.isEmpty()) {
+			List<JSONObject> responses = DevOpsInstanceBulkhead.invokeAll(entriesToCall,
+					entry -> callTrackingEndpoint(entry, jobUrl, jobName, pronoun, branchName, isMultiBranch),
+					DevOpsModel::isCommunicationFailure, DevOpsInstanceBulkhead.getDeadlineMillis());
+			for (int i = 0, called = 0; i < activeDevopsConfigEntries.size(); i++) {
+				if (called < entriesToCall.size() && entriesToCall.get(called) == activeDevopsConfigEntries.get(i))
+					configTrackInfos.set(i, responses.get(called++));
 			}
+		}
+		for (int i = 0; i < activeDevopsConfigEntries.size(); i++) {
+			DevOpsConfigurationEntry entry = activeDevopsConfigEntries.get(i);
+			JSONObject configTrackInfo = configTrackInfos.get(i);
 			if (GenericUtils.checkIfAttributeExist(configTrackInfo, DevOpsConstants.TRACKING_RESPONSE_ATTR.toString())) {
 				String configKey = GenericUtils.getConfigEntryTrackKey(entry.getInstanceUrl(), entry.getToolId());
 				configsTrackInfo.put(configKey, configTrackInfo);
@@ -472,6 +490,83 @@ public class DevOpsModel {
 		return new DevOpsPipelineInfo(pipelineInfoConfigs);
 	}
 
+	private JSONObject callTrackingEndpoint(DevOpsConfigurationEntry entry, String jobUrl, String jobName,
+			String pronoun, String branchName, boolean isMultiBranch) {
+		JSONObject params = new JSONObject();
+		params.put(DevOpsConstants.TOOL_ID_ATTR.toString(), entry.getToolId());
+		params.put("url", jobUrl);
+		params.put("name", jobName);
+		params.put("pronoun", pronoun);
+		if (branchName != null)
+			params.put("branchName", branchName);
+		params.put("isMultiBranch", isMultiBranch);
+		printDebug("isTrackingEndpoint", new String[]{ "configurationName" }, new String[]{ entry.getName() }, Level.FINE);
+		if (!GenericUtils.isEmptyOrDefault(entry.getSecretCredentialId())) {
+			Map<String, String> tokenDetails = new HashMap<String, String>();
+			tokenDetails.put(DevOpsConstants.TOKEN_VALUE.toString(),
+					DevOpsConfigurationEntry.getTokenText(entry.getSecretCredentialId()));
+			return CommUtils.callV2Support(DevOpsConstants.REST_GET_METHOD.toString(),
+					entry.getTrackingUrl(), params, null,
+					DevOpsConfigurationEntry.getUser(entry.getSecretCredentialId()), entry.getPwd(entry.getSecretCredentialId()), null, null, tokenDetails);
+		}
+		return CommUtils.call(DevOpsConstants.REST_GET_METHOD.toString(),
+				entry.getTrackingUrl(), params, null,
+				DevOpsConfigurationEntry.getUser(entry.getCredentialsId()), DevOpsConfigurationEntry.getPwd(entry.getCredentialsId()), null, null);
+	}
+
+	// CommUtils reports IO failures (instance unreachable, timeouts) as an "IOException: ..." failure reason
+	public static boolean isCommunicationFailure(JSONObject result) {
+		return result == null || result.optString(DevOpsConstants.COMMON_RESULT_FAILURE.toString()).startsWith("IOException");
+	}
+
+	/**
+	 * Sends a notification of a dummy pipeline, the instance answers without recording anything. Used to check
+	 * that the instance can be reached with the configuration.
+	 *
+	 * @return the answer of the instance, null when the notification could not be sent
+	 */
+	public JSONObject sendDummyNotification(DevOpsConfigurationEntry devopsConfig) {
+		String toolId = devopsConfig.getToolId();
+		try {
+			printDebug("sendDummyNotification", new String[]{"toolId"}, new String[]{toolId}, Level.FINE);
+			JSONObject params = new JSONObject();
+			params.put(DevOpsConstants.TOOL_TYPE_ATTR.toString(), DevOpsConstants.TOOL_TYPE.toString());
+			params.put(DevOpsConstants.TOOL_ID_ATTR.toString(), toolId);
+			String user = DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId());
+			String pwd = DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId());
+
+			DevOpsRunStatusModel model = new DevOpsRunStatusModel();
+			DevOpsRunStatusJobModel jobModel = new DevOpsRunStatusJobModel();
+
+			UUID uuid = UUID.randomUUID();
+			jobModel.setName(uuid.toString() + "_dummyWebhookPipeline");
+			model.setJobModel(jobModel);
+			model.setNumber(0);
+			model.setUrl(uuid.toString());
+			model.setPronoun(DevOpsConstants.JENKINS_DUMMY_EVENT_PRONOUN.toString());
+
+			Gson gson = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.IDENTITY).create();
+			String data = gson.toJson(model);
+			JSONObject jsonResult;
+
+			if (!GenericUtils.isEmptyOrDefault(devopsConfig.getSecretCredentialId())) {
+				Map<String, String> tokenDetails = new HashMap<String, String>();
+				tokenDetails.put(DevOpsConstants.TOKEN_VALUE.toString(),
+						DevOpsConfigurationEntry.getTokenText(devopsConfig.getSecretCredentialId()));
+				jsonResult = CommUtils.callV2Support("POST", devopsConfig.getNotificationUrl(), params, data, user, pwd,
+						null, null, tokenDetails);
+			} else {
+				jsonResult = CommUtils.call("POST", devopsConfig.getNotificationUrl(), params, data, user, pwd, null, null);
+			}
+			GenericUtils.printDebug(DevOpsModel.class.getName(), "sendDummyNotification", new String[]{"toolId", "jsonResult"}, Level.FINE, () -> new String[]{toolId, String.valueOf(jsonResult)});
+			return jsonResult;
+		} catch (Exception e) {
+			GenericUtils.printDebug(DevOpsModel.class.getName(), "sendDummyNotification", "Sending dummy notification failed for toolId: " + toolId + " Exception:" + e.getMessage(), Level.SEVERE);
+			e.printStackTrace();
+			return null;
+		}
+	}
+
 	public static class DevOpsPipelineInfo {
 		private List<DevOpsPipelineInfoConfig> devopsPipelineConfigs;
 
@@ -1567,93 +1662,103 @@ public class DevOpsModel {
 					else {
 						printDebug("handleFreestyle", new String[]{"message", "token"},
 								new String[]{"Job not registered", "null"}, Level.FINE);
-						// Check if job is being tracked
-						DevOpsModel.DevOpsPipelineInfo pipelineInfo = checkIsTracking(item);
-						//if (checkIsTracking(item).isTrack()) {
-						if (pipelineInfo != null) {
-							// If Job is under change control, register and notify SN with callback URL
-							String configurationName = getJobProperty(job).getConfigurationName();
-							String _result = sendIsUnderChgControl(jobUrl, jobName, null, null,
-									GenericUtils.isMultiBranch((job)), null, configurationName); // TODO
-							if (_result != null) {
-								// Job is under change control
-								if (_result.equalsIgnoreCase(
-										DevOpsConstants.COMMON_RESPONSE_VALUE_TRUE
-												.toString())) {
-									printDebug("handleFreestyle",
-											new String[]{"message", "jobUrl", "jobName"},
-											new String[]{"Job is under change control",
-													jobUrl, jobName}, Level.FINE);
-
-									// Generate a new token
-									token = getNewToken(job.getPronoun());
-									printDebug("handleFreestyle", new String[]{"token"},
-											new String[]{token}, Level.FINE);
-
-									// Register the Job callback hook, then notify SN
-									_result = registerFreestyleAndNotify(item, job,
-											token, jobId, jobUrl, jobName, jenkinsUrl, configurationName);
-									if (_result != null) {
-										// Job registered successfully
-										if (_result.equalsIgnoreCase(
-												DevOpsConstants.COMMON_RESPONSE_VALUE_TRUE
-														.toString())) {
-											printDebug("handleFreestyle",
-													new String[]{"message", "token"},
-													new String[]{"Job registered", token}, Level.FINE);
-											return getWaitingBlockage(
-													"Job is waiting for approval");
-										}
-										// Could not register the Job callback, so there are no webhooks registered
-										else {
-											printDebug("handleFreestyle",
-													new String[]{"message", "_result"},
-													new String[]{
-															"Something went wrong when registering the job",
-															_result}, Level.WARNING);
-											if (GenericUtils.isNotEmpty(_result) && _result.contains(DevOpsConstants.COMMON_RESULT_FAILURE.toString())) {
-												setAbortResultForFreestyle(jobId, _result);
-											} else {
-												setAbortResultForFreestyle(jobId);
-											}
-										}
-									}
-									// Call to SN failed
-									else {
-										printDebug("handleFreestyle", new String[]{"message"},
-												new String[]{
-														"Something went wrong when calling SN to register the job"}, Level.WARNING);
-										setAbortResultForFreestyle(jobId);
-									}
-								}
-								// Job is not under change control
-								else if (_result.equalsIgnoreCase(
-										DevOpsConstants.COMMON_RESPONSE_VALUE_FALSE
-												.toString())) {
-									printDebug("handleFreestyle",
-											new String[]{"message", "jobUrl"},
-											new String[]{"Job is not under change control",
-													jobUrl}, Level.FINE);
-								} else if (_result.equalsIgnoreCase(
-										DevOpsConstants.COMMON_RESPONSE_VALUE_UNKNOWN
-												.toString())) {
-									printDebug("handleFreestyle", new String[]{"message"},
-											new String[]{
-													"Job is not associated with any step"}, Level.FINE);
-									setAbortResultForFreestyle(jobId);
-								}
+						// The remaining checks call ServiceNow, evaluate them off the queue lock
+						return DevOpsFreestyleGate.get().getDecision(item,
+								() -> evaluateFreestyle(item, job, jobId, jobUrl, jobName, jenkinsUrl));
+					}
+				}
+			}
+		}
+		return null;
+	}
 
-							}
-							// Failed to check if the Job is under change control
-							else {
-								printDebug("handleFreestyle", new String[]{"message"},
-										new String[]{
-												"Something went wrong when checking if job is under change control"}, Level.WARNING);
+	// Called from DevOpsFreestyleGate on a background thread, never while holding the queue lock
+	private CauseOfBlockage evaluateFreestyle(Queue.Item item, Job<?, ?> job, String jobId,
+	                                          String jobUrl, String jobName, String jenkinsUrl) {
+		printDebug("evaluateFreestyle", new String[]{"jobId"}, new String[]{jobId}, Level.FINE);
+		// Check if job is being tracked
+		DevOpsModel.DevOpsPipelineInfo pipelineInfo = checkIsTracking(item);
+		//if (checkIsTracking(item).isTrack()) {
+		if (pipelineInfo != null) {
+			// If Job is under change control, register and notify SN with callback URL
+			String configurationName = getJobProperty(job).getConfigurationName();
+			String _result = sendIsUnderChgControl(jobUrl, jobName, null, null,
+					GenericUtils.isMultiBranch((job)), null, configurationName); // TODO
+			if (_result != null) {
+				// Job is under change control
+				if (_result.equalsIgnoreCase(
+						DevOpsConstants.COMMON_RESPONSE_VALUE_TRUE
+								.toString())) {
+					printDebug("evaluateFreestyle",
+							new String[]{"message", "jobUrl", "jobName"},
+							new String[]{"Job is under change control",
+									jobUrl, jobName}, Level.FINE);
+
+					// Generate a new token
+					String token = getNewToken(job.getPronoun());
+					printDebug("evaluateFreestyle", new String[]{"token"},
+							new String[]{token}, Level.FINE);
+
+					// Register the Job callback hook, then notify SN
+					_result = registerFreestyleAndNotify(item, job,
+							token, jobId, jobUrl, jobName, jenkinsUrl, configurationName);
+					if (_result != null) {
+						// Job registered successfully
+						if (_result.equalsIgnoreCase(
+								DevOpsConstants.COMMON_RESPONSE_VALUE_TRUE
+										.toString())) {
+							printDebug("evaluateFreestyle",
+									new String[]{"message", "token"},
+									new String[]{"Job registered", token}, Level.FINE);
+							return getWaitingBlockage(
+									"Job is waiting for approval");
+						}
+						// Could not register the Job callback, so there are no webhooks registered
+						else {
+							printDebug("evaluateFreestyle",
+									new String[]{"message", "_result"},
+									new String[]{
+											"Something went wrong when registering the job",
+											_result}, Level.WARNING);
+							if (GenericUtils.isNotEmpty(_result) && _result.contains(DevOpsConstants.COMMON_RESULT_FAILURE.toString())) {
+								setAbortResultForFreestyle(jobId, _result);
+							} else {
 								setAbortResultForFreestyle(jobId);
 							}
 						}
 					}
+					// Call to SN failed
+					else {
+						printDebug("evaluateFreestyle", new String[]{"message"},
+								new String[]{
+										"Something went wrong when calling SN to register the job"}, Level.WARNING);
+						setAbortResultForFreestyle(jobId);
+					}
+				}
+				// Job is not under change control
+				else if (_result.equalsIgnoreCase(
+						DevOpsConstants.COMMON_RESPONSE_VALUE_FALSE
+								.toString())) {
+					printDebug("evaluateFreestyle",
+							new String[]{"message", "jobUrl"},
+							new String[]{"Job is not under change control",
+									jobUrl}, Level.FINE);
+				} else if (_result.equalsIgnoreCase(
+						DevOpsConstants.COMMON_RESPONSE_VALUE_UNKNOWN
+								.toString())) {
+					printDebug("evaluateFreestyle", new String[]{"message"},
+							new String[]{
+									"Job is not associated with any step"}, Level.FINE);
+					setAbortResultForFreestyle(jobId);
 				}
+
+			}
+			// Failed to check if the Job is under change control
+			else {
+				printDebug("evaluateFreestyle", new String[]{"message"},
+						new String[]{
+								"Something went wrong when checking if job is under change control"}, Level.WARNING);
+				setAbortResultForFreestyle(jobId);
 			}
 		}
 		return null;
@@ -1858,8 +1963,8 @@ public class DevOpsModel {
 			if (null != branchName)
 				payload.put(DevOpsConstants.ARTIFACT_BRANCH_NAME.toString(), branchName); // branchName
 
-			printDebug("registerArtifact", new String[]{"message"},
-					new String[]{"Payload: " + payload.toString()}, Level.FINE);
+			GenericUtils.printDebug(DevOpsModel.class.getName(), "registerArtifact", new String[]{"message"}, Level.FINE,
+					() -> new String[]{"Payload: " + payload.toString()});
 			GenericUtils.printConsoleLog(listener, "Register artifact payload: " + payload.toString());
 
 			// make a POST call
@@ -1995,8 +2100,8 @@ public class DevOpsModel {
 			if (null != branchName)
 				payload.put(DevOpsConstants.ARTIFACT_BRANCH_NAME.toString(), branchName); // branchName
 
-			printDebug("createArtifactPackage", new String[]{"message"},
-					new String[]{"Payload: " + payload.toString()}, Level.FINE);
+			GenericUtils.printDebug(DevOpsModel.class.getName(), "createArtifactPackage", new String[]{"message"}, Level.FINE,
+					() -> new String[]{"Payload: " + payload.toString()});
 			GenericUtils.printConsoleLog(listener, "Create Artifact package payload: " + payload.toString());
 
 			// make a POST call
@@ -2180,16 +2285,18 @@ public class DevOpsModel {
 		return response;
 	}
 
-	public JSONObject fetchExportData(String exportId) {
+	/**
+	 * Downloads the exported data, the response body is handed to the handler as it is received.
+	 */
+	public DevOpsHttpTransport.Response downloadExportData(String exportId, DevOpsHttpTransport.BodyHandler handler)
+			throws IOException {
 
 		DevOpsConfigurationEntry devopsConfig = GenericUtils.getDevOpsConfigurationEntry();
 
 		String exportDataURL = devopsConfig.getExportConfigDataURL(exportId);
 
-		JSONObject response = CommUtils.call(DevOpsConstants.REST_GET_METHOD.toString(),
-				exportDataURL, null, null, DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId()),
-				DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId()), null, null);
-		return response;
+		return CommUtils.download(exportDataURL, DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId()),
+				DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId()), handler);
 	}
 
 	public JSONObject getSnapshotsByDeployables(String applicationName, String deployableName, String changesetNumber, boolean isValidated, String transactionSource, boolean noImapactedDeployable) {
@@ -2257,7 +2364,18 @@ public class DevOpsModel {
 		return response;
 	}
 
-	public JSONObject querySnapShotStatus(String appSysId, List<String> deployableNames, List<String> snapshotNames, int retryCount, boolean checkForNotValidated) throws InterruptedException {
+	/**
+	 * Batched form of {@link #getDeployableName(String)}.
+	 *
+	 * @return rows of the snapshot table by snapshot sys_id, an empty list when a snapshot is not found
+	 */
+	public Map<String, List<JSONObject>> getDeployableNames(List<String> snapshotSysIds) throws InterruptedException, IOException {
+		DevOpsConfigurationEntry devopsConfig = GenericUtils.getDevOpsConfigurationEntry();
+		return queryIn(devopsConfig.getSnapshotStatusURL(), "", "sys_id", snapshotSysIds,
+				"deployable_id.name,cdm_deployable_id.environment_type");
+	}
+
+	public JSONObject querySnapShotStatus(String appSysId, List<String> deployableNames, List<String> snapshotNames, int retryCount, boolean checkForNotValidated) {
 		JSONObject queryParams = new JSONObject();
 		DevOpsConfigurationEntry devopsConfig = GenericUtils.getDevOpsConfigurationEntry();
 
@@ -2266,10 +2384,9 @@ public class DevOpsModel {
 		String deployableNamesCommaSeparated = String.join(",", deployableNames);
 
 		String query = "cdm_application_id.sys_id=" + appSysId + "^cdm_deployable_id.nameIN" + deployableNamesCommaSeparated + "^nameIN" + snapShotNamesCommaSeparated + "^validationIN" + validationStates;
-		if (retryCount > 1 && checkForNotValidated) {
+		if (retryCount > 1 && checkForNotValidated)
 			queryParams.put(DevOpsConstants.TABLE_API_QUERY.toString(), query + ",not_validated");
-			Thread.sleep(500);
-		} else
+		else
 			queryParams.put(DevOpsConstants.TABLE_API_QUERY.toString(), query);
 		queryParams.put(DevOpsConstants.TABLE_API_FIELDS.toString(), "name,validation");
 
@@ -2323,7 +2440,7 @@ public class DevOpsModel {
 		return response;
 	}
 
-	public JSONObject registerChangeset(String pipelineName, String branchName, String toolId, String buildNumber, String type, boolean isMultiBranch, String changesetNumber, String snapshotName, String applicationName, TaskListener listener) {
+	public JSONObject registerChangeset(String pipelineName, String branchName, String toolId, String buildNumber, String type, boolean isMultiBranch, String changesetNumber, String snapshotName, String applicationName, TaskListener listener) throws InterruptedException {
 
 		JSONObject queryParams = new JSONObject();
 		JSONObject filePayloadJSON = new JSONObject();
@@ -2341,54 +2458,23 @@ public class DevOpsModel {
 		filePayloadJSON.put(DevOpsConstants.CONFIG_SNAPSHOT_NAME.toString(), snapshotName);
 		filePayloadJSON.put(DevOpsConstants.CONFIG_APPLICATION_NAME.toString(), applicationName);
 
-		int retryCount = 0;
-		int retryFrequency = 220;
-		JSONObject response = null;
 		JSONObject responseBody = new JSONObject();
-		String statusMessage = "";
-
-		while (retryCount <= 20) {
-			retryCount++;
-			if (retryCount % 2 == 0)
-				retryFrequency = retryFrequency * 2;
-			response = CommUtils.call(DevOpsConstants.REST_POST_METHOD.toString(),
-					devopsConfig.getPipelineRegisterURL(), queryParams, filePayloadJSON.toString(), DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId()),
-					DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId()), null, null);
-
-			if (response == null) {
-				try {
-					Thread.sleep(retryFrequency);
-				} catch (InterruptedException e) {
-					GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString() + " - " + e.getMessage());
-				}
-				continue;
-			}
 
-			JSONObject status = response.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
-			statusMessage = status.getString(DevOpsConstants.COMMON_RESPONSE_STATUS.toString());
-
-			if (!(statusMessage.equalsIgnoreCase("Could not find matching task execution for given pipeline name and build number"))) {//Todo
-				if (statusMessage.equalsIgnoreCase("Success")) {
-					responseBody.put(DevOpsConstants.COMMON_RESPONSE_STATUS.toString(), "Success");
-					responseBody.put(DevOpsConstants.COMMON_RESPONSE_MESSAGE.toString(), "Successfully Registered");
-					return responseBody;
-				} else {
-					responseBody.put(DevOpsConstants.COMMON_RESPONSE_STATUS.toString(), "Failure");
-					responseBody.put(DevOpsConstants.COMMON_RESPONSE_MESSAGE.toString(), statusMessage);
-					return responseBody;
-				}
-			}
-
-			try {
-				Thread.sleep(5000);
-			} catch (InterruptedException e) {
-				GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString() + " - " + e.getMessage());
-			}
-		}
+		// the task execution of the build may not be known yet by the instance
+		JSONObject response = CHANGESET_REGISTRATION_POLLER.poll(attempt -> CommUtils.call(DevOpsConstants.REST_POST_METHOD.toString(),
+				devopsConfig.getPipelineRegisterURL(), queryParams, filePayloadJSON.toString(), DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId()),
+				DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId()), null, null),
+				r -> r == null || TASK_EXECUTION_NOT_FOUND.equalsIgnoreCase(getRegistrationStatus(r)));
 
 		if (response != null) {
-			responseBody.put(DevOpsConstants.COMMON_RESPONSE_STATUS.toString(), "Failure");
-			responseBody.put(DevOpsConstants.COMMON_RESPONSE_MESSAGE.toString(), statusMessage);
+			String statusMessage = getRegistrationStatus(response);
+			if (statusMessage.equalsIgnoreCase("Success")) {
+				responseBody.put(DevOpsConstants.COMMON_RESPONSE_STATUS.toString(), "Success");
+				responseBody.put(DevOpsConstants.COMMON_RESPONSE_MESSAGE.toString(), "Successfully Registered");
+			} else {
+				responseBody.put(DevOpsConstants.COMMON_RESPONSE_STATUS.toString(), "Failure");
+				responseBody.put(DevOpsConstants.COMMON_RESPONSE_MESSAGE.toString(), statusMessage);
+			}
 			return responseBody;
 		}
 		responseBody.put(DevOpsConstants.COMMON_RESPONSE_STATUS.toString(), "Failure");
@@ -2396,6 +2482,11 @@ public class DevOpsModel {
 		return responseBody;
 	}
 
+	private static String getRegistrationStatus(JSONObject response) {
+		JSONObject status = response.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
+		return status.getString(DevOpsConstants.COMMON_RESPONSE_STATUS.toString());
+	}
+
 	public JSONObject validateSnapshot(String snapshotId, TaskListener listener, String transactionSource) {
 
 		JSONObject queryParams = new JSONObject();
@@ -2481,6 +2572,122 @@ public class DevOpsModel {
 		return response;
 	}
 
+	/**
+	 * Batched form of {@link #getValidationResults(String, String, String)} without policy, for several snapshots.
+	 *
+	 * @return validation result rows by snapshot sys_id
+	 */
+	public Map<String, List<JSONObject>> getValidationResults(List<String> snapshotSysIds) throws InterruptedException, IOException {
+		DevOpsConfigurationEntry devopsConfig = GenericUtils.getDevOpsConfigurationEntry();
+		return queryIn(devopsConfig.getPolicyValidationURL(), "is_latest=true", "snapshot.sys_id", snapshotSysIds,
+				"snapshot.application_id.name,policy.name,snapshot.name,impacted_node.name,node_path,policy_execution.output");
+	}
+
+	/**
+	 * Batched form of {@link #getValidationResults(String, String, String)} for several policies of a snapshot.
+	 *
+	 * @return validation result rows by policy name
+	 */
+	public Map<String, List<JSONObject>> getValidationResults(String snapshotSysId, List<String> policies, String format) throws InterruptedException, IOException {
+		DevOpsConfigurationEntry devopsConfig = GenericUtils.getDevOpsConfigurationEntry();
+		String fields = format.equalsIgnoreCase("xml") ? "description,impacted_node.name,node_path"
+				: "description,impacted_node.name,node_path,type,policy_execution.decision";
+		return queryIn(devopsConfig.getPolicyValidationURL(), "snapshot.sys_id=" + snapshotSysId + "^is_latest=true",
+				"policy.name", policies, fields);
+	}
+
+	/**
+	 * Fetches the rows matching any of the values with {@code <field>IN} queries of at most {@link #QUERY_BATCH_SIZE}
+	 * values, and groups them by value. See {@link #queryIn(String, String, List, String, Function)}.
+	 */
+	private Map<String, List<JSONObject>> queryIn(String url, String baseQuery, String field, List<String> values, String fields)
+			throws InterruptedException, IOException {
+		DevOpsConfigurationEntry devopsConfig = GenericUtils.getDevOpsConfigurationEntry();
+		String user = DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId());
+		String pwd = DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId());
+		return queryIn(baseQuery, field, values, fields, queryParams ->
+				CommUtils.call(DevOpsConstants.REST_GET_METHOD.toString(), url, queryParams, null, user, pwd, null, null));
+	}
+
+	/**
+	 * Fetches the rows matching any of the values with {@code <field>IN} queries of at most {@link #QUERY_BATCH_SIZE}
+	 * values, and groups them by value. Values the IN operator cannot carry (commas, query separators) get a query of
+	 * their own, with their {@code ^} doubled so the encoded query does not split on it. Each query is read in pages of {@link #QUERY_PAGE_SIZE} rows, ordered by sys_id so the pages do not
+	 * overlap, until a short page comes back: a value may match any number of rows, so the size of a batch says
+	 * nothing about the size of its result. The queries run on the {@link DevOpsParallelFetcher}. The grouping field
+	 * is only kept in the rows when it was asked for, so each row looks like the one of a single value query.
+	 *
+	 * @param get Sends the table API query parameters and returns the response
+	 * @throws IOException when a query did not return its rows
+	 */
+	static Map<String, List<JSONObject>> queryIn(String baseQuery, String field, List<String> values, String fields,
+	                                             Function<JSONObject, JSONObject> get) throws InterruptedException, IOException {
+		Map<String, List<JSONObject>> rowsByValue = new LinkedHashMap<>();
+		List<String> batched = new ArrayList<>();
+		List<String> single = new ArrayList<>();
+		for (String value : values) {
+			if (value == null || rowsByValue.containsKey(value))
+				continue;
+			rowsByValue.put(value, new ArrayList<>());
+			if (value.isEmpty() || value.contains(",") || value.contains("^"))
+				single.add(value);
+			else
+				batched.add(value);
+		}
+		if (rowsByValue.isEmpty())
+			return rowsByValue;
+
+		String prefix = baseQuery.isEmpty() ? "" : baseQuery + "^";
+		List<String> queries = new ArrayList<>();
+		for (int i = 0; i < batched.size(); i += QUERY_BATCH_SIZE)
+			queries.add(prefix + field + "IN" + String.join(",", batched.subList(i, Math.min(batched.size(), i + QUERY_BATCH_SIZE))));
+		for (String value : single)
+			queries.add(prefix + field + "=" + value.replace("^", "^^"));
+
+		boolean keepField = Arrays.asList(fields.split(",")).contains(field);
+		String queryFields = keepField ? fields : fields + "," + field;
+		List<Callable<List<JSONObject>>> tasks = new ArrayList<>();
+		for (String query : queries)
+			tasks.add(() -> queryPages(query + "^ORDERBYsys_id", queryFields, get));
+
+		for (List<JSONObject> result : DevOpsParallelFetcher.fetchAll(tasks)) {
+			for (JSONObject row : result) {
+				List<JSONObject> rows = rowsByValue.get(row.optString(field));
+				if (rows == null)
+					continue;
+				if (!keepField) {
+					row = JSONObject.fromObject(row);
+					row.remove(field);
+				}
+				rows.add(row);
+			}
+		}
+		return rowsByValue;
+	}
+
+	private static List<JSONObject> queryPages(String query, String fields, Function<JSONObject, JSONObject> get)
+			throws IOException {
+		List<JSONObject> rows = new ArrayList<>();
+		for (int offset = 0; ; offset += QUERY_PAGE_SIZE) {
+			JSONObject queryParams = new JSONObject();
+			queryParams.put(DevOpsConstants.TABLE_API_QUERY.toString(), query);
+			queryParams.put(DevOpsConstants.TABLE_API_FIELDS.toString(), fields);
+			queryParams.put(DevOpsConstants.TABLE_API_LIMIT.toString(), String.valueOf(QUERY_PAGE_SIZE));
+			queryParams.put(DevOpsConstants.TABLE_API_OFFSET.toString(), String.valueOf(offset));
+			JSONObject response = get.apply(queryParams);
+			JSONArray page = response == null ? null : response.optJSONArray("result");
+			if (page == null) {
+				String reason = response == null ? "no response"
+						: response.optString(DevOpsConstants.COMMON_RESULT_FAILURE.toString(), response.toString());
+				throw new IOException("Query " + query + " failed at offset " + offset + ": " + reason);
+			}
+			for (int i = 0; i < page.size(); i++)
+				rows.add(page.getJSONObject(i));
+			if (page.size() < QUERY_PAGE_SIZE)
+				return rows;
+		}
+	}
+
 	public JSONObject getConfigInfo(String info) {
 		JSONObject configStatus = null;
 		try {
@@ -0,0 +1,291 @@
+package io.jenkins.plugins.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import io.jenkins.plugins.config.DevOpsConfigurationEntry;
+import io.jenkins.plugins.utils.GenericUtils;
+import net.sf.json.JSONObject;
+
+/**
+ * Coalesces stage, run and test result notifications of the same configuration into batches.
+ *
+ * Events are buffered per configuration (instance url, tool id and api version) and handed to the
+ * {@link DevOpsNotificationDispatcher} of their instance as one batch once the coalescing window elapsed or the
+ * batch is full.
+ * Batches of a configuration always use the same dispatcher lane and are handed to it one at a time, in the order
+ * they were closed, so events keep the order they were added in. The timer closing the batches whose window elapsed
+ * never waits for room in a full lane: a batch that does not fit is left to the outbox, or handed over again after
+ * another window when its events are not recorded there, so one slow instance does not hold back the others.
+ * Whether a batch goes out as one bulk request or as single POSTs is decided by the {@link BatchSender}.
+ *
+ * Batching is off unless a window is set with the system property
+ * {@code io.jenkins.plugins.model.DevOpsNotificationBatcher.windowMillis}; the batch size is capped by
+ * {@code io.jenkins.plugins.model.DevOpsNotificationBatcher.maxBatchSize}.
+ */
+public final class DevOpsNotificationBatcher {
+
+	/**
+	 * Sends a batch of events of one configuration, in order.
+	 */
+	public interface BatchSender {
+		void send(DevOpsConfigurationEntry devopsConfig, List<Event> events);
+	}
+
+	private static final String PROPERTY_PREFIX = DevOpsNotificationBatcher.class.getName();
+	private static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+	private static volatile DevOpsNotificationBatcher instance;
+
+	private final long windowMillis;
+	private final int maxBatchSize;
+	private final Map<String, Buffer> buffers = new HashMap<>();
+	// closed batches per configuration waiting to be handed to the dispatcher, guarded by buffers
+	private final Map<String, Handover> handovers = new HashMap<>();
+	private final ScheduledExecutorService timer;
+
+	private final AtomicLong events = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+
+	DevOpsNotificationBatcher(long windowMillis, int maxBatchSize) {
+		this.windowMillis = Math.max(0, windowMillis);
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "ServiceNow DevOps notification batcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public static DevOpsNotificationBatcher get() {
+		if (instance == null) {
+			synchronized (DevOpsNotificationBatcher.class) {
+				if (instance == null)
+					instance = new DevOpsNotificationBatcher(
+							Long.getLong(PROPERTY_PREFIX + ".windowMillis", 0L),
+							Integer.getInteger(PROPERTY_PREFIX + ".maxBatchSize", DEFAULT_MAX_BATCH_SIZE));
+			}
+		}
+		return instance;
+	}
+
+	public boolean isEnabled() {
+		return windowMillis > 0 && maxBatchSize > 1;
+	}
+
+	/**
+	 * Buffers the events of a configuration. The batch is flushed when it is full or when the window opened by
+	 * its first event elapsed.
+	 *
+	 * @param devopsConfig Configuration the events are sent to
+	 * @param newEvents Events in the order they have to be delivered
+	 * @param sender Used to deliver the batch
+	 */
+	public void add(DevOpsConfigurationEntry devopsConfig, List<Event> newEvents, BatchSender sender) {
+		if (newEvents == null || newEvents.isEmpty())
+			return;
+		events.addAndGet(newEvents.size());
+		String key = getKey(devopsConfig);
+		boolean closed = false;
+		synchronized (buffers) {
+			Buffer buffer = buffers.get(key);
+			for (Event event : newEvents) {
+				if (buffer == null) {
+					buffer = new Buffer(devopsConfig, sender);
+					buffers.put(key, buffer);
+					Buffer scheduled = buffer;
+					timer.schedule(() -> flush(key, scheduled), windowMillis, TimeUnit.MILLISECONDS);
+				}
+				buffer.events.add(event);
+				if (buffer.events.size() >= maxBatchSize) {
+					buffers.remove(key);
+					close(key, buffer);
+					closed = true;
+					buffer = null;
+				}
+			}
+		}
+		// the producer may wait for room in the lane, as it does for single events
+		if (closed)
+			handOver(key, true);
+	}
+
+	private void flush(String key, Buffer buffer) {
+		synchronized (buffers) {
+			if (buffer.flushed)
+				return;
+			buffers.remove(key, buffer);
+			close(key, buffer);
+		}
+		handOver(key, false);
+	}
+
+	// called with the buffers lock held, fixes the position of the batch among the batches of its configuration
+	private void close(String key, Buffer buffer) {
+		buffer.flushed = true;
+		handovers.computeIfAbsent(key, k -> new Handover()).batches.addLast(buffer);
+	}
+
+	/**
+	 * Hands the closed batches of a configuration to the dispatcher, oldest first. Only one thread hands over the
+	 * batches of a configuration at a time, the others leave theirs to it.
+	 *
+	 * @param mayWait Whether the calling thread may wait for room in a full lane, false for the timer
+	 */
+	private void handOver(String key, boolean mayWait) {
+		while (true) {
+			Handover handover;
+			Buffer batch;
+			synchronized (buffers) {
+				handover = handovers.get(key);
+				if (handover == null || handover.busy)
+					return;
+				batch = handover.batches.peekFirst();
+				if (batch == null) {
+					handovers.remove(key);
+					return;
+				}
+				handover.busy = true;
+			}
+			boolean handed = false;
+			try {
+				handed = submit(key, batch, mayWait);
+			} finally {
+				synchronized (buffers) {
+					handover.busy = false;
+					if (handed)
+						handover.batches.removeFirst();
+				}
+			}
+			if (!handed) {
+				timer.schedule(() -> handOver(key, false), windowMillis, TimeUnit.MILLISECONDS);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return false when the lane stayed full and the batch, not recorded in the outbox, has to be handed over later
+	 */
+	private boolean submit(String key, Buffer batch, boolean mayWait) {
+		DevOpsConfigurationEntry devopsConfig = batch.devopsConfig;
+		List<Event> events = batch.events;
+		DevOpsInstanceBulkhead bulkhead = DevOpsInstanceBulkhead.get(devopsConfig.getInstanceUrl());
+		DevOpsNotificationDispatcher dispatcher = bulkhead.getDispatcher();
+		List<String> outboxIds = new ArrayList<>();
+		for (Event event : events)
+			outboxIds.add(event.getOutboxId());
+		Runnable delivery = () -> batch.sender.send(devopsConfig, events);
+		boolean queued;
+		if (mayWait) {
+			queued = dispatcher.submit(key, delivery, DevOpsInstanceBulkhead.getDeadlineMillis(), outboxIds);
+		} else {
+			queued = dispatcher.offer(key, delivery, 0);
+			if (!queued && outboxIds.contains(null))
+				return false;
+		}
+		if (!queued) {
+			// left to the outbox, it delivers them once the instance keeps up again
+			bulkhead.recordRejected(events.size());
+			DevOpsNotificationModel.release(outboxIds);
+		}
+		batches.incrementAndGet();
+		printDebug("submit", new String[]{"configuration", "events"},
+				new String[]{devopsConfig.getName(), String.valueOf(events.size())}, Level.FINE);
+		return true;
+	}
+
+	static String getKey(DevOpsConfigurationEntry devopsConfig) {
+		// the api version is part of the key, changing credentials switches to a separate batch
+		return devopsConfig.getInstanceUrl() + "|" + devopsConfig.getToolId() + "|" + devopsConfig.getApiVersion();
+	}
+
+	public JSONObject getMetrics() {
+		JSONObject metrics = new JSONObject();
+		int buffered = 0;
+		int waiting = 0;
+		synchronized (buffers) {
+			for (Buffer buffer : buffers.values())
+				buffered += buffer.events.size();
+			for (Handover handover : handovers.values())
+				waiting += handover.batches.size();
+		}
+		metrics.put("enabled", isEnabled());
+		metrics.put("windowMillis", windowMillis);
+		metrics.put("maxBatchSize", maxBatchSize);
+		metrics.put("buffered", buffered);
+		metrics.put("waitingBatches", waiting);
+		metrics.put("events", events.get());
+		metrics.put("batches", batches.get());
+		return metrics;
+	}
+
+	/**
+	 * Serialized notification waiting to be sent.
+	 */
+	public static final class Event {
+		private final String url;
+		private final String type;
+		private final JSONObject params;
+		private final String data;
+		private final String outboxId;
+
+		public Event(String url, String type, JSONObject params, String data, String outboxId) {
+			this.url = url;
+			this.type = type;
+			this.params = params;
+			this.data = data;
+			this.outboxId = outboxId;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public JSONObject getParams() {
+			return params;
+		}
+
+		public String getData() {
+			return data;
+		}
+
+		public String getOutboxId() {
+			return outboxId;
+		}
+	}
+
+	private static final class Handover {
+		private final Deque<Buffer> batches = new ArrayDeque<>();
+		private boolean busy;
+	}
+
+	private static final class Buffer {
+		private final DevOpsConfigurationEntry devopsConfig;
+		private final BatchSender sender;
+		private final List<Event> events = new ArrayList<>();
+		private boolean flushed;
+
+		Buffer(DevOpsConfigurationEntry devopsConfig, BatchSender sender) {
+			this.devopsConfig = devopsConfig;
+			this.sender = sender;
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsNotificationBatcher.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -0,0 +1,223 @@
+package io.jenkins.plugins.model;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import io.jenkins.plugins.utils.GenericUtils;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Delivers notification payloads to ServiceNow outside of the thread that produced them, so pipeline
+ * (CPS VM) and RunListener threads no longer wait for the instance to answer.
+ *
+ * Deliveries are spread over a fixed number of lanes, each served by one daemon thread. All deliveries of
+ * a run are hashed to the same lane, so they are sent in the order they were submitted (run started before
+ * stage start before stage end before run completed). Every lane has a bounded queue: when it is full the
+ * submitting thread waits for room, up to a timeout for events that the outbox can deliver later.
+ *
+ * Every instance has its own dispatcher, see {@link DevOpsInstanceBulkhead#getDispatcher()}, so a slow instance
+ * only fills its own lanes. The lane capacity can be tuned with the system property
+ * {@code io.jenkins.plugins.model.DevOpsNotificationDispatcher.laneCapacity}. Setting
+ * {@code io.jenkins.plugins.model.DevOpsNotificationDispatcher.synchronous} to true delivers inline.
+ */
+public final class DevOpsNotificationDispatcher {
+
+	private final String name;
+	private final Lane[] lanes;
+	private final boolean synchronous;
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong delivered = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+	private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+
+	/**
+	 * @param name Instance the dispatcher delivers to, added to the name of the lane threads
+	 */
+	DevOpsNotificationDispatcher(String name, int laneCount, int laneCapacity, boolean synchronous) {
+		this.name = name;
+		this.synchronous = synchronous;
+		this.lanes = new Lane[Math.max(1, laneCount)];
+		for (int i = 0; i < lanes.length; i++)
+			lanes[i] = new Lane(i, Math.max(1, laneCapacity));
+	}
+
+	/**
+	 * Queues a delivery of events recorded in the {@link DevOpsEventOutbox}, waiting at most the timeout for room in
+	 * its lane. Deliveries sharing the same ordering key are executed one after another in submission order. Only events with an outbox id are delivered later when the lane stays full: when one of them could not
+	 * be recorded (outbox disabled or full, write failure) the submitting thread waits for room as long as it takes.
+	 *
+	 * @param orderingKey Key identifying the run the delivery belongs to
+	 * @param delivery The network call to make
+	 * @param timeoutMillis How long to wait for room, 0 to only queue when there is room right away
+	 * @param outboxIds Outbox ids of the events of the delivery, null for an event that was not recorded
+	 * @return false when the lane stayed full, the delivery was dropped and its events are left to the outbox
+	 */
+	public boolean submit(String orderingKey, Runnable delivery, long timeoutMillis, List<String> outboxIds) {
+		submitted.incrementAndGet();
+		Task task = new Task(delivery);
+		if (synchronous) {
+			run(task);
+			return true;
+		}
+		Lane lane = getLane(orderingKey);
+		if (lane.enqueue(task, timeoutMillis))
+			return true;
+		if (outboxIds.contains(null)) {
+			printDebug("submit", new String[]{"message"},
+					new String[]{"Notification lane " + lane.index + " is full, waiting for room for events not in the outbox"},
+					Level.FINE);
+			lane.enqueue(task);
+			return true;
+		}
+		rejected.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Queues a delivery when there is room in its lane within the timeout, never waiting longer.
+	 *
+	 * @param orderingKey Key identifying the run the delivery belongs to
+	 * @param delivery The network call to make
+	 * @param timeoutMillis How long to wait for room, 0 to only queue when there is room right away
+	 * @return false when the lane stayed full, the delivery was not queued
+	 */
+	public boolean offer(String orderingKey, Runnable delivery, long timeoutMillis) {
+		Task task = new Task(delivery);
+		if (synchronous) {
+			submitted.incrementAndGet();
+			run(task);
+			return true;
+		}
+		if (!getLane(orderingKey).enqueue(task, timeoutMillis))
+			return false;
+		submitted.incrementAndGet();
+		return true;
+	}
+
+	private Lane getLane(String orderingKey) {
+		return lanes[Math.floorMod(orderingKey == null ? 0 : orderingKey.hashCode(), lanes.length)];
+	}
+
+	private void run(Task task) {
+		long dequeued = System.nanoTime();
+		totalQueueWaitNanos.addAndGet(dequeued - task.enqueued);
+		try {
+			task.delivery.run();
+			delivered.incrementAndGet();
+		} catch (RuntimeException e) {
+			failed.incrementAndGet();
+			printDebug("run", new String[]{"exception"}, new String[]{e.getMessage()}, Level.WARNING);
+		} finally {
+			long latency = System.nanoTime() - task.enqueued;
+			totalLatencyNanos.addAndGet(latency);
+			maxLatencyNanos.accumulateAndGet(latency, Math::max);
+		}
+	}
+
+	public int getQueueDepth() {
+		int depth = 0;
+		for (Lane lane : lanes)
+			depth += lane.queue.size();
+		return depth;
+	}
+
+	/**
+	 * @return queue depth per lane, delivery counters and end-to-end delivery latency (submit to sent)
+	 */
+	public JSONObject getMetrics() {
+		JSONObject metrics = new JSONObject();
+		long completed = delivered.get() + failed.get();
+		JSONArray laneDepths = new JSONArray();
+		for (Lane lane : lanes)
+			laneDepths.add(lane.queue.size());
+		metrics.put("queueDepth", getQueueDepth());
+		metrics.put("laneDepths", laneDepths);
+		metrics.put("submitted", submitted.get());
+		metrics.put("delivered", delivered.get());
+		metrics.put("failed", failed.get());
+		metrics.put("rejected", rejected.get());
+		metrics.put("avgQueueWaitMs", completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalQueueWaitNanos.get() / completed));
+		metrics.put("avgLatencyMs", completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / completed));
+		metrics.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+		return metrics;
+	}
+
+	private static final class Task {
+		private final Runnable delivery;
+		private final long enqueued = System.nanoTime();
+
+		Task(Runnable delivery) {
+			this.delivery = delivery;
+		}
+	}
+
+	private final class Lane implements Runnable {
+		private final int index;
+		private final BlockingQueue<Task> queue;
+		private Thread worker;
+
+		Lane(int index, int capacity) {
+			this.index = index;
+			this.queue = new LinkedBlockingQueue<>(capacity);
+		}
+
+		void enqueue(Task task) {
+			startWorker();
+			try {
+				if (!queue.offer(task)) {
+					printDebug("enqueue", new String[]{"message"},
+							new String[]{"Notification lane " + index + " is full, waiting for room"}, Level.FINE);
+					queue.put(task);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				// do not lose the event because the producer was interrupted
+				DevOpsNotificationDispatcher.this.run(task);
+			}
+		}
+
+		boolean enqueue(Task task, long timeoutMillis) {
+			startWorker();
+			try {
+				return queue.offer(task, timeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				// do not lose the event because the producer was interrupted
+				DevOpsNotificationDispatcher.this.run(task);
+				return true;
+			}
+		}
+
+		private synchronized void startWorker() {
+			if (worker == null || !worker.isAlive()) {
+				worker = new Thread(this, "ServiceNow DevOps notification dispatcher " + name + " " + index);
+				worker.setDaemon(true);
+				worker.start();
+			}
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				try {
+					DevOpsNotificationDispatcher.this.run(queue.take());
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsNotificationDispatcher.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -1,10 +1,13 @@
 package io.jenkins.plugins.model;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
@@ -17,15 +20,21 @@ import io.jenkins.plugins.DevOpsRunStatusAction;
 import io.jenkins.plugins.config.DevOpsConfigurationEntry;
 import io.jenkins.plugins.utils.CommUtils;
 import io.jenkins.plugins.utils.DevOpsConstants;
+import io.jenkins.plugins.utils.DevOpsHttpTransport.RequestBody;
 import io.jenkins.plugins.utils.GenericUtils;
 import net.sf.json.JSONObject;
 
 
 public class DevOpsNotificationModel {
 
+	private static final String BULK_TYPE_ORCHESTRATION = "orchestration";
+	private static final String BULK_TYPE_TEST = "test";
+	// how long an instance without bulk endpoint only gets single events before the bulk endpoint is tried again
+	private static final long BULK_RECHECK_INTERVAL = Long.getLong(
+			DevOpsNotificationModel.class.getName() + ".bulkRecheckInterval", TimeUnit.HOURS.toMillis(1));
+	private static final Map<String, Long> BULK_UNSUPPORTED_UNTIL = new ConcurrentHashMap<>();
+
 	private final Gson gson;
-	private static final Logger LOGGER =
-			Logger.getLogger(DevOpsNotificationModel.class.getName());
 
 	/**
 	 * Constructor for DevOpsNotificationModel.
@@ -41,7 +50,6 @@ public class DevOpsNotificationModel {
 		// Configure Gson to exclude stageNodeId field from all serialized objects
 		this.gson = new GsonBuilder()
 			.setFieldNamingPolicy(FieldNamingPolicy.IDENTITY)
-			.setPrettyPrinting()
 			// STRY60920723: Add exclusion strategy to ignore stageNodeId in all models
 			// for security/sonar/test results in notification events
 			.setExclusionStrategies(new ExclusionStrategy() {
@@ -60,79 +68,283 @@ public class DevOpsNotificationModel {
 			.create();
 	}
 
-	public void send(DevOpsRunStatusModel model, DevOpsConfigurationEntry devopsConfig) {
+	/**
+	 * Builds the stage/run notification and test result payloads for every tracked configuration and hands them
+	 * to the {@link DevOpsNotificationDispatcher}. Payloads are serialized here, on the calling thread, so later
+	 * changes to the action's model cannot leak into an event that is still queued. That compact string is the
+	 * only copy of a payload: it is recorded in the outbox as is and written to the connection without being
+	 * converted to bytes first.
+	 */
+	public void sendNotificationToConfigurations(DevOpsRunStatusAction action, DevOpsModel.DevOpsPipelineInfo pipelineInfo, boolean isStageStart, Run<?, ?> run, EnvVars vars) {
+		if (action != null && pipelineInfo != null) {
+			String orderingKey = run != null ? run.getExternalizableId() : null;
+			List<DevOpsPipelineInfoConfig> pipelineInfoConfigs = new ArrayList<>();
+			List<JSONObject> testInfos = new ArrayList<>();
+			for (DevOpsPipelineInfoConfig pipelineInfoConfig : pipelineInfo.getDevopsPipelineConfigs()) {
+				if (pipelineInfoConfig.isTrack()) {
+					pipelineInfoConfigs.add(pipelineInfoConfig);
+					testInfos.add(pipelineInfoConfig.getTestInfo());
+				}
+			}
+			if (pipelineInfoConfigs.isEmpty())
+				return;
+			// Test type mappings: the reports of all configurations are read once, each configuration gets its own subset
+			List<List<DevOpsTestSummary>> mappedTestSummaries =
+					action.getTestSummariesForTestTypeMappings(testInfos, isStageStart, run, vars);
+			// Events are handed to the dispatcher of each instance, waiting for room in a full one ends at the deadline
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DevOpsInstanceBulkhead.getDeadlineMillis());
+			// Payloads are serialized once and shared by the configurations with the same test summaries
+			Map<DevOpsTestSummary, String> testPayloads = new IdentityHashMap<>();
+			Map<List<Integer>, String> modelPayloads = new HashMap<>();
+			Map<DevOpsTestSummary, Integer> summaryIds = new IdentityHashMap<>();
+			for (int c = 0; c < pipelineInfoConfigs.size(); c++) {
+				DevOpsConfigurationEntry devopsConfig = pipelineInfoConfigs.get(c).getDevopsConfig();
+				DevOpsRunStatusModel model = action.getModel();
+				if (model == null || devopsConfig == null)
+					continue;
+				List<DevOpsTestSummary> mapped = mappedTestSummaries.get(c);
+				// Send notifications
+				List<String> payloads = new ArrayList<>();
+				payloads.add(modelPayloads.computeIfAbsent(getShape(mapped, summaryIds), shape -> {
+					// Inject test type mappings on existing notification payload
+					int testsAdded = action.addTestSummaries(mapped);
+					try {
+						return gson.toJson(model);
+					} finally {
+						// Reset to common model
+						action.removeTestSummariesForTestTypeMappings(testsAdded);
+					}
+				}));
+				List<DevOpsTestSummary> testSummaries = new ArrayList<>();
+				if (model.getTestSummaries() != null)
+					testSummaries.addAll(model.getTestSummaries());
+				testSummaries.addAll(mapped);
+				for (DevOpsTestSummary devOpsTestSummary : testSummaries)
+					payloads.add(testPayloads.computeIfAbsent(devOpsTestSummary, gson::toJson));
 
-		if (model != null) {
+				List<String> urls = new ArrayList<>();
+				List<JSONObject> params = new ArrayList<>();
+				for (int i = 0; i < payloads.size(); i++) {
+					urls.add(i == 0 ? devopsConfig.getNotificationUrl() : devopsConfig.getTestUrl());
+					params.add(i == 0 ? getNotificationParams() : new JSONObject());
+				}
+				// Write-ahead: record the events before handing them over, so they survive an outage or restart
+				List<String> outboxIds = appendToOutbox(orderingKey, devopsConfig, urls, params, payloads);
+				// earlier events of the run are waiting in the outbox, these are replayed after them
+				if (deferToOutbox(outboxIds))
+					continue;
+				DevOpsNotificationBatcher batcher = DevOpsNotificationBatcher.get();
+				if (batcher.isEnabled()) {
+					List<DevOpsNotificationBatcher.Event> events = new ArrayList<>();
+					for (int i = 0; i < payloads.size(); i++)
+						events.add(new DevOpsNotificationBatcher.Event(urls.get(i),
+								i == 0 ? BULK_TYPE_ORCHESTRATION : BULK_TYPE_TEST, params.get(i),
+								payloads.get(i), outboxIds.get(i)));
+					batcher.add(devopsConfig, events, this::deliverBatch);
+					continue;
+				}
+				DevOpsInstanceBulkhead bulkhead = DevOpsInstanceBulkhead.get(devopsConfig.getInstanceUrl());
+				long timeout = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+				boolean queued = bulkhead.getDispatcher().submit(orderingKey, () -> {
+					for (int i = 0; i < payloads.size(); i++)
+						deliver(devopsConfig, urls.get(i), payloads.get(i), params.get(i), outboxIds.get(i));
+				}, timeout, outboxIds);
+				if (!queued) {
+					// left to the outbox, it delivers them once the instance keeps up again
+					bulkhead.recordRejected(payloads.size());
+					release(outboxIds);
+				}
+			}
+		}
+	}
 
-			printDebug("send", null, null, Level.FINE);
+	// configurations mapping the same summaries have the same shape, summaries are told apart by identity
+	private static List<Integer> getShape(List<DevOpsTestSummary> testSummaries, Map<DevOpsTestSummary, Integer> ids) {
+		List<Integer> shape = new ArrayList<>(testSummaries.size());
+		for (DevOpsTestSummary testSummary : testSummaries)
+			shape.add(ids.computeIfAbsent(testSummary, summary -> ids.size()));
+		return shape;
+	}
 
-			JSONObject params = new JSONObject();
-			params.put(DevOpsConstants.TOOL_TYPE_ATTR.toString(),
-					DevOpsConstants.TOOL_TYPE.toString());
+	private List<String> appendToOutbox(String orderingKey, DevOpsConfigurationEntry devopsConfig, List<String> urls,
+	                                    List<JSONObject> params, List<String> payloads) {
+		DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < payloads.size(); i++) {
+			ids.add(outbox == null || urls.get(i) == null ? null : outbox.append(orderingKey, devopsConfig.getInstanceUrl(),
+					devopsConfig.getToolId(), urls.get(i), params.get(i), payloads.get(i)));
+		}
+		return ids;
+	}
+
+	private static boolean deferToOutbox(List<String> outboxIds) {
+		DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+		if (outbox == null || outboxIds.isEmpty() || outboxIds.contains(null) || !outbox.isBacklogged(outboxIds.get(0)))
+			return false;
+		for (String outboxId : outboxIds)
+			outbox.defer(outboxId);
+		return true;
+	}
+
+	/**
+	 * Sends a batch of events with one request to the bulk endpoint of the configuration. Falls back to one POST
+	 * per event when the batch holds a single event or the instance has no bulk endpoint for the api version in use.
+	 */
+	private void deliverBatch(DevOpsConfigurationEntry devopsConfig, List<DevOpsNotificationBatcher.Event> batch) {
+		// an event of the batch may have been queued behind one that was left to the outbox since
+		List<DevOpsNotificationBatcher.Event> events = new ArrayList<>();
+		for (DevOpsNotificationBatcher.Event event : batch) {
+			if (!deferIfBacklogged(event.getOutboxId()))
+				events.add(event);
+		}
+		if (events.isEmpty())
+			return;
+		String bulkUrl = devopsConfig.getBulkNotificationUrl();
+		if (events.size() > 1 && isBulkSupported(bulkUrl)) {
+			long start = System.nanoTime();
+			JSONObject result = post(devopsConfig, bulkUrl, getBulkPayload(events), getNotificationParams());
+			DevOpsInstanceBulkhead.get(devopsConfig.getInstanceUrl())
+					.record(!isCommunicationFailure(result), System.nanoTime() - start);
+			if (isCommunicationFailure(result)) {
+				releaseAll(events);
+				return;
+			}
+			if (result != null && !result.containsKey(DevOpsConstants.COMMON_RESULT_ERROR.toString())) {
+				DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+				if (outbox != null) {
+					for (DevOpsNotificationBatcher.Event event : events) {
+						if (event.getOutboxId() != null)
+							outbox.ack(event.getOutboxId());
+					}
+				}
+				return;
+			}
+			BULK_UNSUPPORTED_UNTIL.put(bulkUrl, System.currentTimeMillis() + BULK_RECHECK_INTERVAL);
+			printDebug("deliverBatch", new String[]{"message", "bulkUrl"},
+					new String[]{"Bulk endpoint not available, sending events one by one", bulkUrl}, Level.INFO);
+		}
+		for (DevOpsNotificationBatcher.Event event : events)
+			deliver(devopsConfig, event.getUrl(), event.getData(), event.getParams(), event.getOutboxId());
+	}
 
-			if (devopsConfig != null)
-				sendNotification(devopsConfig, devopsConfig.getNotificationUrl(), gson.toJson(model), params);
+	private boolean isBulkSupported(String bulkUrl) {
+		if (bulkUrl == null)
+			return false;
+		Long unsupportedUntil = BULK_UNSUPPORTED_UNTIL.get(bulkUrl);
+		return unsupportedUntil == null || unsupportedUntil < System.currentTimeMillis();
+	}
 
-		} else {
-			LOGGER.log(Level.INFO,
-					"DevOpsRunStatusModel is null or empty");
+	// payloads are already serialized, they are written as they are instead of being parsed or concatenated again
+	private RequestBody getBulkPayload(List<DevOpsNotificationBatcher.Event> events) {
+		List<String> parts = new ArrayList<>();
+		parts.add("{\"events\":[");
+		for (int i = 0; i < events.size(); i++) {
+			DevOpsNotificationBatcher.Event event = events.get(i);
+			parts.add((i > 0 ? "," : "") + "{\"type\":\"" + event.getType() + "\",\"params\":"
+					+ (event.getParams() != null ? event.getParams().toString() : "{}") + ",\"payload\":");
+			parts.add(event.getData());
+			parts.add("}");
 		}
+		parts.add("]}");
+		return RequestBody.ofStrings(parts);
 	}
 
+	private void releaseAll(List<DevOpsNotificationBatcher.Event> events) {
+		List<String> outboxIds = new ArrayList<>();
+		for (DevOpsNotificationBatcher.Event event : events)
+			outboxIds.add(event.getOutboxId());
+		release(outboxIds);
+	}
 
-	public void sendTestResults(DevOpsTestSummary testModel, DevOpsConfigurationEntry devopsConfig) {
-		if (testModel != null) {
-			printDebug("sendTestResults", null, null, Level.FINE);
-			if (devopsConfig != null)
-				sendNotification(devopsConfig, devopsConfig.getTestUrl(), gson.toJson(testModel), new JSONObject());
-		} else {
-			LOGGER.log(Level.INFO,
-					"DevOpsRunStatusTestModel is null or empty");
+	static void release(List<String> outboxIds) {
+		DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+		if (outbox == null)
+			return;
+		for (String outboxId : outboxIds) {
+			if (outboxId != null)
+				outbox.release(outboxId);
 		}
 	}
 
-	public void sendNotificationToConfigurations(DevOpsRunStatusAction action, DevOpsModel.DevOpsPipelineInfo pipelineInfo, boolean isStageStart, Run<?, ?> run, EnvVars vars) {
-		if (action != null && pipelineInfo != null) {
-			List<DevOpsPipelineInfoConfig> pipelineInfoConfigs = pipelineInfo.getDevopsPipelineConfigs();
-			for (DevOpsPipelineInfoConfig pipelineInfoConfig : pipelineInfoConfigs) {
-				if (pipelineInfoConfig.isTrack()) {
-					// Inject test type mappings on existing notification payload
-					int testsAdded = action.addTestSummariesForTestTypeMappings(pipelineInfoConfig.getTestInfo(), isStageStart, run, vars);
-					// Send notifications
-					send(action.getModel(), pipelineInfoConfig.getDevopsConfig());
-					if (action.getModel().getTestSummaries() != null && action.getModel().getTestSummaries().size() > 0) {
-						for (DevOpsTestSummary devOpsTestSummary : action.getModel().getTestSummaries()) {
-							sendTestResults(devOpsTestSummary, pipelineInfoConfig.getDevopsConfig());
-						}
-					}
-					// Reset to common model
-					action.removeTestSummariesForTestTypeMappings(testsAdded);
-				}
+	private static boolean deferIfBacklogged(String outboxId) {
+		DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+		if (outbox == null || !outbox.isBacklogged(outboxId))
+			return false;
+		outbox.defer(outboxId);
+		return true;
+	}
+
+	private void deliver(DevOpsConfigurationEntry devopsConfig, String url, String data, JSONObject params, String outboxId) {
+		// an earlier event of the run queued in the same lane may have been left to the outbox since it was submitted
+		if (deferIfBacklogged(outboxId))
+			return;
+		boolean done = false;
+		long start = System.nanoTime();
+		try {
+			done = sendNotification(devopsConfig, url, RequestBody.ofString(data), params);
+		} finally {
+			DevOpsInstanceBulkhead.get(devopsConfig.getInstanceUrl()).record(done, System.nanoTime() - start);
+			DevOpsEventOutbox outbox = DevOpsEventOutbox.get();
+			if (outbox != null && outboxId != null) {
+				if (done)
+					outbox.ack(outboxId);
+				else
+					outbox.release(outboxId);
 			}
 		}
 	}
 
-	private void sendNotification(DevOpsConfigurationEntry devopsConfig, String notificationUrl, String data, JSONObject params) {
+	/**
+	 * Sends an event recorded in the {@link DevOpsEventOutbox} again.
+	 *
+	 * @return false when the instance could not be reached and the event should stay pending
+	 */
+	public boolean redeliver(String instanceUrl, String toolId, String url, JSONObject params, String data) {
+		DevOpsConfigurationEntry devopsConfig =
+				GenericUtils.getDevOpsConfigurationEntryByInstanceUrlAndToolId(instanceUrl, toolId);
+		if (devopsConfig == null) {
+			printDebug("redeliver", new String[]{"message", "instanceUrl", "toolId"},
+					new String[]{"Configuration no longer exists, dropping event", instanceUrl, toolId}, Level.WARNING);
+			return true;
+		}
+		return sendNotification(devopsConfig, url, RequestBody.ofString(data), params != null ? params : new JSONObject());
+	}
 
+	private JSONObject getNotificationParams() {
+		JSONObject params = new JSONObject();
+		params.put(DevOpsConstants.TOOL_TYPE_ATTR.toString(),
+				DevOpsConstants.TOOL_TYPE.toString());
+		return params;
+	}
+
+	/**
+	 * @return false only when the instance could not be reached, true once it answered (successfully or not)
+	 */
+	private boolean sendNotification(DevOpsConfigurationEntry devopsConfig, String notificationUrl, RequestBody body, JSONObject params) {
+		return !isCommunicationFailure(post(devopsConfig, notificationUrl, body, params));
+	}
+
+	private JSONObject post(DevOpsConfigurationEntry devopsConfig, String notificationUrl, RequestBody body, JSONObject params) {
+
+		JSONObject result = null;
 		if (devopsConfig != null && notificationUrl != null) {
-			printDebug("sendNotification", new String[] { "configurationName" }, new String[] { devopsConfig.getName() }, Level.FINE);
+			printDebug("post", new String[] { "configurationName" }, new String[] { devopsConfig.getName() }, Level.FINE);
 
 			String toolId = devopsConfig.getToolId();
 			params.put(DevOpsConstants.TOOL_ID_ATTR.toString(), toolId);
-			String user = DevOpsConfigurationEntry.getUser(devopsConfig.getCredentialsId());
-			String pwd = DevOpsConfigurationEntry.getPwd(devopsConfig.getCredentialsId());
-
-			if (!GenericUtils.isEmptyOrDefault(devopsConfig.getSecretCredentialId())) {
-				Map<String, String> tokenDetails = new HashMap<String, String>();
-				tokenDetails.put(DevOpsConstants.TOKEN_VALUE.toString(),
-						DevOpsConfigurationEntry.getTokenText(devopsConfig.getSecretCredentialId()));
-				CommUtils.callV2Support("POST", notificationUrl, params, data, user, pwd, null, null, tokenDetails);
-			} else {
-				CommUtils.call("POST", notificationUrl, params, data, user, pwd, null, null);
-			}
+			// token or basic auth header, encoded once per configuration
+			result = CommUtils.callWithAuthorization("POST", notificationUrl, params, body,
+					devopsConfig.getAuthorizationHeader(), null, null, devopsConfig.getRequestCompressionThreshold());
 
 		}
+		return result;
+	}
 
+	// CommUtils reports IO failures (instance unreachable, timeouts) as an "IOException: ..." failure reason
+	private boolean isCommunicationFailure(JSONObject result) {
+		if (result == null || !result.containsKey(DevOpsConstants.COMMON_RESULT_FAILURE.toString()))
+			return false;
+		return result.optString(DevOpsConstants.COMMON_RESULT_FAILURE.toString()).startsWith("IOException");
 	}
 
 
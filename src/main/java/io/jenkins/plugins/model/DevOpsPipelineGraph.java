@@ -1,14 +1,17 @@
 package io.jenkins.plugins.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
@@ -17,7 +20,7 @@ import hudson.FilePath;
 import io.jenkins.plugins.DevOpsRunListener;
 
 /*
- * The graph(hashMap) holds the ordered-list of children for each nodes
+ * The graph(hashMap) holds the ordered-list of children for each nodes, in the order they started
  *   parent-stage-1 --> child-stage-1,child-stage-2,
  *   parent-stage-2 --> child-stage-3,child-stage-4,
  *
@@ -40,9 +43,50 @@ public class DevOpsPipelineGraph {
 	private String jobExecutionUrl;
 	private FilePath workspacePath;
 	// In restart senario duplicate event are coming, just to filter them using processedIdList
-	private final Set<String> processedIdList = new HashSet<String>();
-	private final Map<String, DevOpsPipelineNode> map = new HashMap<>(); // NodeId -> DevopsPipelineNode
-	private final Map<String, LinkedList<DevOpsPipelineNode>> graph = new HashMap<>();  // ParentNodeId -> LinkedList<DevopsPipelineNode>
+	private Set<String> processedIdList = new HashSet<String>();
+	private Map<String, DevOpsPipelineNode> map = new ConcurrentHashMap<>(); // NodeId -> DevopsPipelineNode
+	private Map<String, List<DevOpsPipelineNode>> graph = new HashMap<>();  // ParentNodeId -> children, oldest first
+
+	// Nodes are added from the CPS thread and read by step executions and the data API. Lookups by id or name go
+	// to concurrent indexes, everything else holds the lock: readers get a consistent view of the graph.
+	private transient ReadWriteLock lock;
+	private transient Map<String, DevOpsPipelineNode> nodesByName; // Name -> last DevopsPipelineNode added with it
+	private transient Map<String, Integer> siblingIndex; // NodeId -> position in the children of its parent
+
+	public DevOpsPipelineGraph() {
+		initIndexes();
+	}
+
+	private void initIndexes() {
+		lock = new ReentrantReadWriteLock();
+		nodesByName = new ConcurrentHashMap<>();
+		siblingIndex = new HashMap<>();
+	}
+
+	protected Object readResolve() {
+		initIndexes();
+		if (processedIdList == null)
+			processedIdList = new HashSet<String>();
+		map = map != null ? new ConcurrentHashMap<>(map) : new ConcurrentHashMap<>();
+		Map<String, List<DevOpsPipelineNode>> children = new HashMap<>();
+		if (graph != null) {
+			for (Map.Entry<String, List<DevOpsPipelineNode>> entry : graph.entrySet()) {
+				List<DevOpsPipelineNode> siblings = new ArrayList<>(entry.getValue());
+				// older builds kept the children newest first
+				if (entry.getValue() instanceof LinkedList)
+					Collections.reverse(siblings);
+				children.put(entry.getKey(), siblings);
+				for (int i = 0; i < siblings.size(); i++)
+					siblingIndex.put(siblings.get(i).getId(), i);
+			}
+		}
+		graph = children;
+		for (DevOpsPipelineNode node : map.values()) {
+			if (node.getName() != null)
+				nodesByName.put(node.getName(), node);
+		}
+		return this;
+	}
 
 	public FilePath getWorkspacePath() {
 		return workspacePath;
@@ -60,12 +104,23 @@ public class DevOpsPipelineGraph {
 
 
 	public DevOpsPipelineNode getNodeById(String id) {
-		return this.map.get(id);
+		return id != null ? this.map.get(id) : null;
 	}
 
 	public DevOpsPipelineNode getNodeByName(String nodeName) {
-		Optional<DevOpsPipelineNode> node = this.map.values().stream().filter(entry -> entry.getName().equals(nodeName)).findFirst();
-		return node.orElse(null);
+		return nodeName != null ? this.nodesByName.get(nodeName) : null;
+	}
+
+	/**
+	 * @return a copy of the nodes of the graph, as they were at one point in time
+	 */
+	public List<DevOpsPipelineNode> getNodes() {
+		lock.readLock().lock();
+		try {
+			return new ArrayList<>(this.map.values());
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	public String getJobExecutionUrl() {
@@ -78,11 +133,21 @@ public class DevOpsPipelineGraph {
 	}
 
 	public void addToProcessedList(String stageId) {
-		processedIdList.add(stageId);
+		lock.writeLock().lock();
+		try {
+			processedIdList.add(stageId);
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	public boolean isAlreadyProcessed(String stageId) {
-		return processedIdList.contains(stageId);
+		lock.readLock().lock();
+		try {
+			return processedIdList.contains(stageId);
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	public void addStepToNode(String stageId) {
@@ -130,31 +195,30 @@ public class DevOpsPipelineGraph {
 	}
 
 	public DevOpsPipelineNode addNode(String parentId, String shortName, FlowNode flowNode, String pipelineExecutionUrl, String status) {
-		String name = shortName;
-		if (!StringUtils.isEmpty(parentId)) {
-			DevOpsPipelineNode parentNode = map.get(parentId);
-			if (parentNode != null)
-				name = parentNode.getName() + "/" + shortName;
-		}
-		DevOpsPipelineNode node = new DevOpsPipelineNode(parentId, shortName, name, flowNode, pipelineExecutionUrl, status);
-		String key = getGraphHashKey(parentId);
-		LinkedList<DevOpsPipelineNode> linkedList;
-		synchronized (graph) {
-			if (!graph.containsKey(key)) {
-				linkedList = new LinkedList<DevOpsPipelineNode>();
-				graph.put(key, linkedList);
-			} else {
-				linkedList = graph.get(key);
+		lock.writeLock().lock();
+		try {
+			String name = shortName;
+			if (!StringUtils.isEmpty(parentId)) {
+				DevOpsPipelineNode parentNode = map.get(parentId);
+				if (parentNode != null)
+					name = parentNode.getName() + "/" + shortName;
 			}
-
-			if (linkedList.isEmpty() || (!linkedList.isEmpty() && !Objects.equals(linkedList.getFirst().getId(), flowNode.getId()))) {
-				linkedList.addFirst(node);
+			DevOpsPipelineNode node = new DevOpsPipelineNode(parentId, shortName, name, flowNode, pipelineExecutionUrl, status);
+			List<DevOpsPipelineNode> siblings = graph.computeIfAbsent(getGraphHashKey(parentId), key -> new ArrayList<>());
+			if (siblings.isEmpty() || !Objects.equals(siblings.get(siblings.size() - 1).getId(), flowNode.getId())) {
+				siblingIndex.put(flowNode.getId(), siblings.size());
+				siblings.add(node);
 			}
+			populateUpstreamDetails(parentId, node);
+			populateParentDetails(parentId, node);
+			// published once complete, lookups do not take the lock
+			map.put(flowNode.getId(), node);
+			if (name != null)
+				nodesByName.put(name, node);
+			return node;
+		} finally {
+			lock.writeLock().unlock();
 		}
-		map.put(flowNode.getId(), node);
-		populateUpstreamDetails(parentId, flowNode.getId());
-		populateParentDetails(parentId, flowNode.getId());
-		return node;
 	}
 
 	public static String getStageExecutionUrl(String pipelineUrl, String stageId) {
@@ -162,10 +226,9 @@ public class DevOpsPipelineGraph {
 	}
 
 
-	private void populateParentDetails(String parentStageId, String stageId) {
+	private void populateParentDetails(String parentStageId, DevOpsPipelineNode node) {
 		if (!StringUtils.isEmpty(parentStageId)) {
 			DevOpsPipelineNode parentNode = getNodeById(parentStageId);
-			DevOpsPipelineNode node = getNodeById(stageId);
 
 			if (parentNode != null) {
 				node.setParentName(parentNode.getName());
@@ -175,47 +238,43 @@ public class DevOpsPipelineGraph {
 		}
 	}
 
-	private void populateUpstreamDetails(String parentStageId, String stageId) {
-		if (map.containsKey(stageId)) {
-			DevOpsPipelineNode node = getNodeById(stageId);
-			FlowNode flowNode = node.getFlowNode();
+	private void populateUpstreamDetails(String parentStageId, DevOpsPipelineNode node) {
+		FlowNode flowNode = node.getFlowNode();
 
-			Boolean isParallelStage = DevOpsRunListener.DevOpsStageListener.isEnclosedInParallel(flowNode);
-			if (!isParallelStage) {
-				DevOpsPipelineNode upStreamPipelineNode = getUpStreamNode(parentStageId, stageId);
-				if (upStreamPipelineNode != null) {
-					node.setUpstreamStageName(upStreamPipelineNode.getName());
-					String upstreamTaskExecURL = getStageExecutionUrl(upStreamPipelineNode.getPipelineExecutionUrl(), upStreamPipelineNode.getId());
-					node.setUpstreamTaskExecURL(upstreamTaskExecURL);
-				}
+		Boolean isParallelStage = DevOpsRunListener.DevOpsStageListener.isEnclosedInParallel(flowNode);
+		if (!isParallelStage) {
+			DevOpsPipelineNode upStreamPipelineNode = getUpStreamNode(parentStageId, node.getId());
+			if (upStreamPipelineNode != null) {
+				node.setUpstreamStageName(upStreamPipelineNode.getName());
+				String upstreamTaskExecURL = getStageExecutionUrl(upStreamPipelineNode.getPipelineExecutionUrl(), upStreamPipelineNode.getId());
+				node.setUpstreamTaskExecURL(upstreamTaskExecURL);
 			}
 		}
 	}
 
+	// the sibling started just before the node
 	private DevOpsPipelineNode getUpStreamNode(String parentId, String id) {
-		DevOpsPipelineNode upStreamStage = null;
-		String key = getGraphHashKey(parentId);
-
-		if (graph.containsKey(key)) {
-			LinkedList<DevOpsPipelineNode> linkedList = graph.get(key);
-			for (int i = 0; i < linkedList.size() - 1; i++) {
-				if (linkedList.get(i).getId().equals(id)) {
-					upStreamStage = linkedList.get(i + 1);
-					break;
-				}
-			}
-		}
-		return upStreamStage;
+		List<DevOpsPipelineNode> siblings = graph.get(getGraphHashKey(parentId));
+		Integer index = siblingIndex.get(id);
+		if (siblings == null || index == null || index == 0 || index >= siblings.size())
+			return null;
+		return siblings.get(index - 1);
 	}
 
 	public List<String> getWaitForChildExecutions(String stageId) {
 		List<String> childs = new ArrayList<>();
-		String key = getGraphHashKey(stageId);
-		if (graph.containsKey(key)) {
-			LinkedList<DevOpsPipelineNode> list = graph.get(key);
-			for (DevOpsPipelineNode node : list) {
-				childs.add(getStageExecutionUrl(node.getPipelineExecutionUrl(), node.getId()));
+		lock.readLock().lock();
+		try {
+			List<DevOpsPipelineNode> siblings = graph.get(getGraphHashKey(stageId));
+			if (siblings != null) {
+				// most recent child first
+				for (int i = siblings.size() - 1; i >= 0; i--) {
+					DevOpsPipelineNode node = siblings.get(i);
+					childs.add(getStageExecutionUrl(node.getPipelineExecutionUrl(), node.getId()));
+				}
 			}
+		} finally {
+			lock.readLock().unlock();
 		}
 		return childs;
 	}
@@ -0,0 +1,199 @@
+package io.jenkins.plugins.model;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import hudson.FilePath;
+import io.jenkins.plugins.utils.GenericUtils;
+import net.sf.json.JSONObject;
+
+/**
+ * In-memory copy of the snPipelineInfo.json tracking files of the jobs.
+ *
+ * Tracking state is read for every active configuration at every run start and freestyle queue evaluation; with
+ * this cache the file of a job is read and parsed once, later reads are map lookups. Writes update the cache
+ * right away and are persisted by a background thread, and only when the content actually changed. All updates
+ * of the files (tracking checks, the snupdate_ and delete callbacks) go through this cache, so it never serves
+ * stale content. The files are deleted on startup, a write lost to a shutdown is not an issue.
+ *
+ * The cache holds the files of at most {@code io.jenkins.plugins.model.DevOpsPipelineInfoCache.maxEntries} jobs
+ * (5000 by default), the least recently used one is dropped first. A file whose write is still pending is kept
+ * until it is written, so a dropped entry is always read back from an up to date file.
+ *
+ * Returned objects are shared with the cache and must not be modified, copy them before making changes.
+ */
+public final class DevOpsPipelineInfoCache {
+
+	private static final DevOpsPipelineInfoCache INSTANCE = new DevOpsPipelineInfoCache(
+			Integer.getInteger(DevOpsPipelineInfoCache.class.getName() + ".maxEntries", 5000));
+
+	// marks a path without file, so missing files are not looked up again
+	private static final Entry ABSENT = new Entry(null, null);
+
+	private final int maxEntries;
+	private final Map<String, Entry> entries;
+	private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "ServiceNow DevOps pipeline info writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong writes = new AtomicLong();
+	private final AtomicLong unchangedWrites = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	DevOpsPipelineInfoCache(int maxEntries) {
+		this.maxEntries = Math.max(1, maxEntries);
+		// access ordered, the eldest entry is the least recently used one
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() <= DevOpsPipelineInfoCache.this.maxEntries || dirty.contains(eldest.getKey()))
+					return false;
+				evictions.incrementAndGet();
+				return true;
+			}
+		});
+	}
+
+	public static DevOpsPipelineInfoCache get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @param path Absolute path of the snPipelineInfo.json file
+	 * @return the content of the file, null when there is no file or it cannot be read
+	 */
+	public JSONObject read(String path) {
+		if (path == null)
+			return null;
+		path = getKey(path);
+		Entry entry = entries.get(path);
+		if (entry != null) {
+			hits.incrementAndGet();
+			return entry.content;
+		}
+		entry = load(path);
+		if (entry == null)
+			return null;
+		Entry existing = entries.putIfAbsent(path, entry);
+		return existing != null ? existing.content : entry.content;
+	}
+
+	private Entry load(String path) {
+		loads.incrementAndGet();
+		try {
+			FilePath pipelineInfoFile = new FilePath(new File(path));
+			if (!pipelineInfoFile.exists())
+				return ABSENT;
+			String fileContents = pipelineInfoFile.readToString();
+			return new Entry(JSONObject.fromObject(fileContents), fileContents);
+		} catch (Exception e) {
+			// not cached, the next read tries again
+			printDebug("load", new String[]{"path", "exception"}, new String[]{path, e.getMessage()}, Level.SEVERE);
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces the content of a file. The file is written in the background, unless the content is unchanged.
+	 *
+	 * @param path Absolute path of the snPipelineInfo.json file
+	 * @param content New content, must not be modified afterwards
+	 */
+	public void write(String path, JSONObject content) {
+		if (path == null || content == null)
+			return;
+		path = getKey(path);
+		String serialized = content.toString();
+		Entry current = entries.get(path);
+		if (current != null && serialized.equals(current.serialized)) {
+			unchangedWrites.incrementAndGet();
+			return;
+		}
+		String key = path;
+		boolean scheduled;
+		// the entry is marked dirty atomically with its update, see flush
+		synchronized (entries) {
+			entries.put(key, new Entry(content, serialized));
+			scheduled = dirty.add(key);
+		}
+		if (scheduled)
+			writer.execute(() -> flush(key));
+	}
+
+	// The path stays dirty, and its entry cannot be evicted, until the file holds the cached content.
+	private void flush(String path) {
+		Entry entry = entries.get(path);
+		if (entry == null || entry.serialized == null) {
+			dirty.remove(path);
+			return;
+		}
+		boolean written = false;
+		try {
+			new FilePath(new File(path)).write(entry.serialized, "UTF-8");
+			writes.incrementAndGet();
+			written = true;
+		} catch (Exception e) {
+			printDebug("flush", new String[]{"path", "exception"}, new String[]{path, e.getMessage()}, Level.SEVERE);
+		}
+		synchronized (entries) {
+			if (entries.get(path) != entry) {
+				// written again meanwhile, the newer content is flushed next
+				writer.execute(() -> flush(path));
+				return;
+			}
+			// after a failure the entry is dropped, so the next read sees what is really on disk
+			if (!written)
+				entries.remove(path);
+			dirty.remove(path);
+		}
+	}
+
+	// the same file is reached through the job's root dir and through JENKINS_HOME/jobs/<name>
+	private static String getKey(String path) {
+		return new File(path).getAbsoluteFile().toPath().normalize().toString();
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public JSONObject getStatus() {
+		JSONObject status = new JSONObject();
+		status.put("size", entries.size());
+		status.put("maxEntries", maxEntries);
+		status.put("evictions", evictions.get());
+		status.put("pendingWrites", dirty.size());
+		status.put("hits", hits.get());
+		status.put("loads", loads.get());
+		status.put("writes", writes.get());
+		status.put("unchangedWrites", unchangedWrites.get());
+		return status;
+	}
+
+	private static final class Entry {
+		private final JSONObject content;
+		private final String serialized;
+
+		Entry(JSONObject content, String serialized) {
+			this.content = content;
+			this.serialized = serialized;
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsPipelineInfoCache.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -0,0 +1,82 @@
+package io.jenkins.plugins.model;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import hudson.model.Run;
+import hudson.tasks.junit.SuiteResult;
+import hudson.tasks.junit.TestResult;
+
+/**
+ * Index of the test suites of a run by the id of their enclosing pipeline blocks (stages, parallel branches).
+ *
+ * Suites are indexed as they are attached to the run's {@link TestResult}: every lookup only indexes the suites
+ * added since the previous one, so a stage event reads the suites of its own stage instead of walking every suite
+ * and case of the run. Suites are only ever appended to a test result, the index keeps their positions rather than
+ * the suites themselves, and only a weak reference to the indexed result: the junit plugin keeps test results
+ * weakly reachable so they can be unloaded and reloaded from disk, a reloaded result is indexed again.
+ */
+public final class DevOpsTestResultIndex {
+
+	private WeakReference<TestResult> indexedResult = new WeakReference<>(null);
+	private int indexedSuites;
+	private final Map<String, List<Integer>> positionsByBlockId = new HashMap<>();
+
+	/**
+	 * @param run Run the test result belongs to, the junit plugin attaches results while holding its monitor
+	 * @param testResult Current test result of the run
+	 * @param blockId Id of the enclosing block (the stage start node id)
+	 * @return the suites enclosed by the block, in the order they were attached
+	 */
+	public synchronized List<SuiteResult> getSuites(Run<?, ?> run, TestResult testResult, String blockId) {
+		if (run == null || testResult == null || blockId == null)
+			return Collections.emptyList();
+		synchronized (run) {
+			Collection<SuiteResult> suites = testResult.getSuites();
+			update(testResult, suites);
+			List<Integer> positions = positionsByBlockId.get(blockId);
+			if (positions == null)
+				return Collections.emptyList();
+			List<SuiteResult> all = suites instanceof List ? (List<SuiteResult>) suites : new ArrayList<>(suites);
+			List<SuiteResult> enclosed = new ArrayList<>(positions.size());
+			for (int position : positions)
+				enclosed.add(all.get(position));
+			return enclosed;
+		}
+	}
+
+	private void update(TestResult testResult, Collection<SuiteResult> suites) {
+		if (testResult != indexedResult.get() || suites.size() < indexedSuites)
+			reset(testResult);
+		if (suites.size() == indexedSuites)
+			return;
+
+		int position = 0;
+		for (SuiteResult suiteResult : suites) {
+			if (position++ < indexedSuites || suiteResult == null)
+				continue;
+			List<String> blockIds = suiteResult.getEnclosingBlocks();
+			if (blockIds == null)
+				continue;
+			for (String blockId : blockIds) {
+				positionsByBlockId.computeIfAbsent(blockId.trim(), k -> new ArrayList<>()).add(position - 1);
+			}
+		}
+		indexedSuites = position;
+	}
+
+	private void reset(TestResult testResult) {
+		indexedResult = new WeakReference<>(testResult);
+		indexedSuites = 0;
+		positionsByBlockId.clear();
+	}
+
+	public synchronized int size() {
+		return indexedSuites;
+	}
+}
@@ -22,6 +22,7 @@ import io.jenkins.plugins.utils.DevOpsConstants;
 
 public class DevOpsConfigUploadStep extends Step implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static final int MAX_PARALLEL_UPLOADS = 10;
     private boolean m_enabled;
     private boolean m_ignoreErrors;
 
@@ -40,6 +41,7 @@ public class DevOpsConfigUploadStep extends Step implements Serializable {
     private boolean markFailed;
     private boolean showResults;
     private boolean autoPublish;
+    private int parallelUploads = 1;
    
 
     @DataBoundConstructor
@@ -145,6 +147,15 @@ public class DevOpsConfigUploadStep extends Step implements Serializable {
         return showResults;
     }
 
+    @DataBoundSetter
+    public void setParallelUploads(int parallelUploads) {
+        this.parallelUploads = Math.max(1, Math.min(MAX_PARALLEL_UPLOADS, parallelUploads));
+    }
+
+    public int getParallelUploads() {
+        return Math.max(1, parallelUploads);
+    }
+
    public void setApplicationName(String applicationName) {
        this.applicationName = applicationName;
    }
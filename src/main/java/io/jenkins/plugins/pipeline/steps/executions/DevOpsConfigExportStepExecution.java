@@ -4,6 +4,15 @@ import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.model.Result;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 
@@ -13,6 +22,9 @@ import io.jenkins.plugins.config.DevOpsJobProperty;
 import hudson.model.TaskListener;
 import io.jenkins.plugins.model.DevOpsModel;
 import io.jenkins.plugins.pipeline.steps.DevOpsConfigExportStep;
+import io.jenkins.plugins.utils.DevOpsHttpTransport;
+import io.jenkins.plugins.utils.DevOpsJsonFieldReader;
+import io.jenkins.plugins.utils.DevOpsPoller;
 import io.jenkins.plugins.utils.GenericUtils;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONException;
@@ -24,8 +36,12 @@ public class DevOpsConfigExportStepExecution extends SynchronousNonBlockingStepE
 	private static final long serialVersionUID = 1L;
 
 	private DevOpsConfigExportStep step;
-	private int retryFrequency = 220;
-	private int maxRetryCount = 20;
+	private static final String[] EXPORT_DATA_PATH = {DevOpsConstants.COMMON_RESPONSE_RESULT.toString(),
+			DevOpsConstants.COMMON_RESPONSE_EXPORTER_RESULT.toString()};
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+	// polls every 220 ms at first, the delay doubles every other attempt
+	private static final DevOpsPoller STATUS_POLLER = new DevOpsPoller("config.export", 220, 60000, 100,
+			TimeUnit.MINUTES.toMillis(15)).withBackoff(2, 2);
 
 	public DevOpsConfigExportStepExecution(StepContext context, DevOpsConfigExportStep step) {
 		super(context);
@@ -121,41 +137,24 @@ public class DevOpsConfigExportStepExecution extends SynchronousNonBlockingStepE
 		JSONObject response = null;
 		JSONObject exportStatus = null;
 		String state = "";
-		int retryCount = 0;
-
-		while (retryCount <= maxRetryCount) {
-			retryCount++;
-			try {
-				exportStatus = model.fetchExportStatus(exportId);
-			} catch (Exception e) {
-				return handleException(e.getMessage());
-			}
-
-			try {
-				response = exportStatus.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
-				state = response.getString(DevOpsConstants.COMMON_RESPONSE_STATE.toString());
-			} catch (JSONException j) {
-				return handleException("Export step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
-			}
 
-			if (state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_NEW.toString())
-					|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_IN_PROGRESS.toString())
-					|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_READY.toString())
-					|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_INITIALIZING.toString())) {
-				if (retryCount % 2 == 0) {
-					GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString()
-							+ " - Waiting for response - Retried  " + retryCount + " times");
-					retryFrequency *= 2;
-				}
-				try {
-					Thread.sleep(retryFrequency);
-				} catch (InterruptedException i) {
+		try {
+			final String id = exportId;
+			exportStatus = STATUS_POLLER.poll(attempt -> {
+				if (attempt > 1 && (attempt - 1) % 2 == 0)
 					GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString()
-							+ " - Exception while fetching export status");
-					continue;
-				}
-			} else
-				break;
+							+ " - Waiting for response - Retried  " + (attempt - 1) + " times");
+				return model.fetchExportStatus(id);
+			}, DevOpsConfigExportStepExecution::isPending);
+		} catch (RuntimeException e) {
+			return handleException(e.getMessage());
+		}
+
+		try {
+			response = exportStatus.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
+			state = response.getString(DevOpsConstants.COMMON_RESPONSE_STATE.toString());
+		} catch (JSONException j) {
+			return handleException("Export step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
 		}
 
 		if (this.step.getShowResults())
@@ -198,38 +197,6 @@ public class DevOpsConfigExportStepExecution extends SynchronousNonBlockingStepE
 			}
 		}
 
-		GenericUtils.printConsoleLog(listener,
-				DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString() + " - Fetching exported data");
-
-		JSONObject exportResponse = null;
-		String exportData = "";
-		try {
-			exportResponse = model.fetchExportData(exportId);
-		} catch (Exception e) {
-			return handleException(e.getMessage());
-		}
-
-		if (this.step.getShowResults())
-			GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString()
-					+ " - Response from export data api : " + exportResponse);
-
-		try {
-			JSONObject body = exportResponse.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
-			if (body.get(DevOpsConstants.COMMON_RESPONSE_EXPORTER_RESULT.toString()) instanceof JSONObject)
-				exportData = (body.getJSONObject(DevOpsConstants.COMMON_RESPONSE_EXPORTER_RESULT.toString()))
-						.toString();
-			else {
-				exportData = body.getString(DevOpsConstants.COMMON_RESPONSE_EXPORTER_RESULT.toString());
-				if (this.step.getExporterFormat().equalsIgnoreCase(DevOpsConstants.CONFIG_RAW_FORMAT.toString()))
-					exportData = exportData.replace("\"", "\\\"");
-			}
-		} catch (JSONException j) {
-			return handleException("Export step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
-		}
-
-		GenericUtils.printConsoleLog(listener,
-				DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString() + " - Writing exported data to file");
-
 		String exportDataFileName = "";
 		if (GenericUtils.isEmpty(this.step.getFileName())) {
 			if (this.step.getExporterFormat().equalsIgnoreCase(DevOpsConstants.CONFIG_JSON_FORMAT.toString())
@@ -248,18 +215,114 @@ public class DevOpsConfigExportStepExecution extends SynchronousNonBlockingStepE
 		} else
 			exportDataFileName = this.step.getFileName();
 
-		FilePath filePath = new FilePath(workspace,exportDataFileName);
+		GenericUtils.printConsoleLog(listener,
+				DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString() + " - Fetching exported data");
+
+		GenericUtils.printConsoleLog(listener,
+				DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString() + " - Writing exported data to file");
+
+		// the data is copied from the response to the workspace as it is received, it is never held in memory
+		boolean escapeQuotes = this.step.getExporterFormat().equalsIgnoreCase(DevOpsConstants.CONFIG_RAW_FORMAT.toString());
+		ExportFile exportFile = new ExportFile(new FilePath(workspace, exportDataFileName));
+		DevOpsHttpTransport.Response exportResponse = null;
 		try {
-			filePath.write(exportData, "utf-8");
+			exportResponse = model.downloadExportData(exportId, in -> {
+				exportFile.length = DevOpsJsonFieldReader.copy(in, EXPORT_DATA_PATH, escapeQuotes, exportFile);
+				exportFile.close();
+			});
 		} catch (Exception e) {
-			return handleException(" Exception while writing file : " + e.getMessage());
+			boolean opened = exportFile.isOpened();
+			exportFile.discard();
+			if (opened)
+				return handleException(" Exception while writing file : " + e.getMessage());
+			return handleException(e.getMessage());
+		}
+
+		if (exportResponse.getStatusCode() > 299 || exportFile.length < 0) {
+			if (this.step.getShowResults())
+				GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString()
+						+ " - Response from export data api : " + exportResponse.getBody());
+			return handleException("Export step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
 		}
 
+		if (this.step.getShowResults())
+			GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_EXPORT_STEP_FUNCTION_NAME.toString()
+					+ " - Exported data written to " + exportDataFileName + " : " + exportFile.length + " characters");
+
 		return Boolean.valueOf(true);
 		
 	}
 	
 
+	/**
+	 * Export file in the workspace, created only once the exported data is found in the response. On a remote agent
+	 * the data is sent over the channel while it is written.
+	 */
+	private static final class ExportFile implements DevOpsJsonFieldReader.Target {
+		private final FilePath filePath;
+		private Writer writer;
+		// characters written, -1 when the response has no exported data
+		private long length = -1;
+
+		ExportFile(FilePath filePath) {
+			this.filePath = filePath;
+		}
+
+		@Override
+		public Writer open() throws IOException {
+			try {
+				writer = new BufferedWriter(new OutputStreamWriter(filePath.write(), StandardCharsets.UTF_8),
+						WRITE_BUFFER_SIZE);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while creating " + filePath.getRemote());
+			}
+			return writer;
+		}
+
+		boolean isOpened() {
+			return writer != null;
+		}
+
+		void close() throws IOException {
+			if (writer != null)
+				writer.close();
+		}
+
+		// a partial file is not left in the workspace
+		void discard() {
+			if (writer == null)
+				return;
+			try {
+				writer.close();
+			} catch (IOException e) {
+				// the file is deleted anyway
+			}
+			try {
+				filePath.delete();
+			} catch (IOException | InterruptedException e) {
+				GenericUtils.printDebug(DevOpsConfigExportStepExecution.class.getName(), "discard",
+						new String[]{"file", "exception"}, new String[]{filePath.getRemote(), e.getMessage()}, Level.WARNING);
+			}
+		}
+	}
+
+	// an answer that cannot be read ends the polling, it is reported once polling is over
+	private static boolean isPending(JSONObject exportStatus) {
+		if (exportStatus == null)
+			return false;
+		try {
+			String state = exportStatus.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString())
+					.getString(DevOpsConstants.COMMON_RESPONSE_STATE.toString());
+			return state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_NEW.toString())
+					|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_IN_PROGRESS.toString())
+					|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_READY.toString())
+					|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_INITIALIZING.toString());
+		} catch (JSONException j) {
+			return false;
+		}
+	}
+
 	private Boolean handleException(String exceptionMessage) throws Exception {
 		Run<?, ?> run = getContext().get(Run.class);
 		TaskListener listener = getContext().get(TaskListener.class);
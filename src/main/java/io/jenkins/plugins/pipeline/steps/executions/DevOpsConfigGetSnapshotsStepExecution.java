@@ -1,20 +1,19 @@
 package io.jenkins.plugins.pipeline.steps.executions;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
 import java.net.ConnectException;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
-import dev.failsafe.Failsafe;
-import dev.failsafe.RetryPolicy;
 import hudson.AbortException;
 import hudson.FilePath;
 import hudson.EnvVars;
@@ -31,24 +30,17 @@ import io.jenkins.plugins.config.DevOpsJobProperty;
 import io.jenkins.plugins.model.CDMSnapshot;
 import io.jenkins.plugins.model.DevOpsModel;
 import io.jenkins.plugins.pipeline.steps.DevOpsConfigGetSnapshotsStep;
+import io.jenkins.plugins.utils.DevOpsPoller;
 import io.jenkins.plugins.utils.GenericUtils;
 import net.sf.json.JSONObject;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONException;
 import io.jenkins.plugins.utils.DevOpsConstants;
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import org.w3c.dom.Attr;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import java.io.File;
 
 public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockingStepExecution<String> {
@@ -57,6 +49,8 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 	private static final long startDelayInMilliseconds = 114l;
 	private static final long maxDelayInMilliseconds = 466944;
 	private static final int maxNumberOfRetries = 14;
+	private static final DevOpsPoller SNAPSHOT_POLLER = new DevOpsPoller("config.snapshots", startDelayInMilliseconds,
+			maxDelayInMilliseconds, maxNumberOfRetries, TimeUnit.MINUTES.toMillis(16));
 	private int notValidatedRetryCount = 60;
 	private boolean checkForNotValidated = true;
 
@@ -329,15 +323,15 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 	public List<CDMSnapshot> addDeployableDetails(List<CDMSnapshot> snapshots) throws IOException, InterruptedException,
 			JSONException, IndexOutOfBoundsException, ParserConfigurationException, TransformerException {
 		DevOpsModel model = new DevOpsModel();
+		Map<String, List<JSONObject>> deployables = model.getDeployableNames(
+				snapshots.stream().map(CDMSnapshot::getSys_id).collect(Collectors.toList()));
 		for (CDMSnapshot snapshot : snapshots) {
-			String sysId = snapshot.getSys_id();
-			JSONObject response = model.getDeployableName(sysId);
-			JSONArray result = response.getJSONArray("result");
-			if (result.isEmpty()) {
+			List<JSONObject> result = deployables.get(snapshot.getSys_id());
+			if (result == null || result.isEmpty()) {
 				snapshot.setDeployableName("");
 				snapshot.setEnvironmentType("");
 			} else {
-				JSONObject responseBody = result.getJSONObject(0);
+				JSONObject responseBody = result.get(0);
 				snapshot.setDeployableName(responseBody.getString("deployable_id.name"));
 				snapshot.setEnvironmentType(responseBody.getString("cdm_deployable_id.environment_type"));
 			}
@@ -356,12 +350,20 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 		List<String> snapshotSysIds = new ArrayList<String>();
 		List<CDMSnapshot> updatedSnapshotObj = new ArrayList<CDMSnapshot>();
 
-		for (int i = 0; i < noOfSnapshots; i++) {
+		if (noOfSnapshots > 0) {
 			snapshotNames = results.stream().map(s -> s.getName()).collect(Collectors.toList());
 			validationStates = results.stream().map(s -> s.getValidation()).collect(Collectors.toList());
 			snapshotSysIds = results.stream().map(s -> s.getSys_id()).collect(Collectors.toList());
 		}
 
+		// one query for the validated snapshots instead of one per snapshot
+		List<String> validatedSysIds = new ArrayList<>();
+		for (int j = 0; j < noOfSnapshots; j++) {
+			if (isValidationComplete(validationStates.get(j)))
+				validatedSysIds.add(snapshotSysIds.get(j));
+		}
+		Map<String, List<JSONObject>> validationRows = model.getValidationResults(validatedSysIds);
+
 		JSONObject validationResults = null;
 		List<JSONObject> processedResults = new ArrayList<>();
 
@@ -370,12 +372,13 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 			String validationState = validationStates.get(j);
 			String snapshotSysId = snapshotSysIds.get(j);
 
-			if (validationState.equalsIgnoreCase("passed") || validationState.equalsIgnoreCase("failed")
-					|| validationState.equalsIgnoreCase("execution_error")
-					|| validationState.equalsIgnoreCase("not_validated")
-					|| validationState.equalsIgnoreCase("passed_with_exception")) {
-				validationResults = model.getValidationResults(snapshotSysId, "", "");
-				JSONArray result = validationResults.getJSONArray("result");
+			if (isValidationComplete(validationState)) {
+				JSONArray result = new JSONArray();
+				List<JSONObject> rows = validationRows.get(snapshotSysId);
+				if (rows != null)
+					result.addAll(rows);
+				validationResults = new JSONObject();
+				validationResults.put("result", result);
 				if (result.isEmpty()) {
 					GenericUtils.printConsoleLog(listener,
 							"snDevOpsConfigGetSnapshots - Failed to get the validation results or no results found for the snapshot : "
@@ -405,6 +408,13 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 		return updatedSnapshotObj;
 	}
 
+	private static boolean isValidationComplete(String validationState) {
+		return validationState.equalsIgnoreCase("passed") || validationState.equalsIgnoreCase("failed")
+				|| validationState.equalsIgnoreCase("execution_error")
+				|| validationState.equalsIgnoreCase("not_validated")
+				|| validationState.equalsIgnoreCase("passed_with_exception");
+	}
+
 	public void processValidationResults(JSONObject validationResult, String snapshotName, String snapshotSysId,
 			String validationState, FilePath workspace, TaskListener listener, EnvVars envVars)
 			throws IOException, InterruptedException, JSONException, IndexOutOfBoundsException,
@@ -495,33 +505,8 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 				filePath.append(File.separator);
 				filePath.append(fileName);
 
-				DocumentBuilderFactory documentFactoryElement = DocumentBuilderFactory.newInstance();
-				DocumentBuilder documentBuilderElement = documentFactoryElement.newDocumentBuilder();
-				Document documentElement = documentBuilderElement.newDocument();
-
-				Element testSuitesRootElement = documentElement.createElement("testsuites");
-				documentElement.appendChild(testSuitesRootElement);
-				String name = appName + "/" + snapshotName;
-
-				Element testSuiteRootElement = documentElement.createElement("testsuite");
-				testSuitesRootElement.appendChild(testSuiteRootElement);
-
-				Attr nameElement = documentElement.createAttribute("name");
-				nameElement.setValue(name);
-				testSuiteRootElement.setAttributeNode(nameElement);
-
-				TransformerFactory transformerFactory = TransformerFactory.newInstance();
-				transformerFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-				transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-				transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
-				Transformer transformer = transformerFactory.newTransformer();
-				transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-				transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-				DOMSource source = new DOMSource(documentElement);
-				StringWriter stringWriter = new StringWriter();
-				StreamResult result = new StreamResult(stringWriter);
-				transformer.transform(source, result);
-				writeToFile(workspace, stringWriter.toString(), filePath.toString());
+				new JUnitWriter(getOutputFile(workspace, filePath.toString()).write(), appName + "/" + snapshotName, 0, 0)
+						.close();
 
 			}
 		}
@@ -545,147 +530,50 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 		if (!(format.equalsIgnoreCase("json"))) {
 
 			int noOfPolicies = validationResults.size();
-			int failureCount = 0;
-			int nonComplaintDecisions = 0;
-			for (int k = 0; k < validationResults.size(); k++) {
-				JSONObject processedResult = validationResults.get(k);
-				if (!(processedResult.toString().equals("{}"))) {
-					String decision = processedResult.getString("decision");
-					JSONArray failureArray = new JSONArray();
-					failureArray = processedResult.getJSONArray("failures");
-					failureCount = failureCount + failureArray.size();
-					if (decision.equals("non_compliant"))
-						nonComplaintDecisions++;
-				}
+			boolean validationFailed = validationState.equalsIgnoreCase("execution_error")
+					|| validationState.equalsIgnoreCase("failed");
+			// details of all the policies with a result, fetched together
+			List<String> detailedPolicies = new ArrayList<>();
+			for (int j = 0; j < noOfPolicies; j++) {
+				if (!(validationResults.get(j).toString().equals("{}") && validationFailed))
+					detailedPolicies.add(pNames.get(j));
 			}
-			String test = 1 + "";
-			String noOfFailure = 1 + "";
+			Map<String, List<JSONObject>> policyDetails = model.getValidationResults(snapshotSysId, detailedPolicies, "xml");
+
+			// one test case per validation info row of a policy, counted first as the totals open the document
+			int tests = 0;
+			int failures = 0;
 			for (int j = 0; j < noOfPolicies; j++) {
-				JSONObject policyResult = validationResults.get(j);
-				String message = "";
-				if (policyResult.toString().equals("{}") && (validationState.equalsIgnoreCase("execution_error")
-						|| validationState.equalsIgnoreCase("failed"))) {
-					DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
-					DocumentBuilder documentBuilder = documentFactory.newDocumentBuilder();
-					Document document = documentBuilder.newDocument();
-					Element root = document.createElement("testsuites");
-					Attr tests = document.createAttribute("tests");
-					tests.setValue(test);
-					root.setAttributeNode(tests);
-					Attr failures = document.createAttribute("failures");
-					failures.setValue(noOfFailure);
-					root.setAttributeNode(failures);
-					document.appendChild(root);
-					Element testcase = document.createElement("testcase");
-					Attr decision = document.createAttribute("decision");
-					Attr policyName = document.createAttribute("name");
-					Element failure = document.createElement("failure");
-					decision.setValue("non_complaint");
-					policyName.setValue(pNames.get(j));
-
-					testcase.setAttributeNode(decision);
-					testcase.setAttributeNode(policyName);
-					testcase.appendChild(failure);
-					Element testsuite = document.createElement("testsuite");
-					root.appendChild(testsuite);
-					String name1 = applicationName + "/" + snapshotName;
-					Attr name = document.createAttribute("name");
-					name.setValue(name1);
-					testsuite.setAttributeNode(name);
-					testsuite.appendChild(testcase);
-				} else {
-					JSONObject r = model.getValidationResults(snapshotSysId, pNames.get(j), "xml");
-					JSONArray info = r.getJSONArray("result");
-					if (!info.isEmpty()) {
-						for (int b = 0; b < info.size(); b++) {
-							message = info.get(b).toString();
-							String validationDecision = policyResult.getString("decision");
-							DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
-							DocumentBuilder documentBuilder = documentFactory.newDocumentBuilder();
-							Document document = documentBuilder.newDocument();
-							Element root = document.createElement("testsuites");
-							Attr tests = document.createAttribute("tests");
-							tests.setValue(test);
-							root.setAttributeNode(tests);
-							Attr failures = document.createAttribute("failures");
-							
-							root.setAttributeNode(failures);
-							document.appendChild(root);
-							Element testcase = document.createElement("testcase");
-							Attr decision = document.createAttribute("decision");
-							Attr policyName = document.createAttribute("name");
-							Element failure = document.createElement("failure");
-							decision.setValue(validationDecision);
-							if (validationDecision.equalsIgnoreCase("compliant_with_exception")) {
-								policyName.setValue(pNames.get(j) + " (EXCEPTION)");
-							} else {
-								policyName.setValue(pNames.get(j));
-							}
-							testcase.setAttributeNode(decision);
-							testcase.setAttributeNode(policyName);
-							JSONArray failuresArray = policyResult.getJSONArray("failures");
-							if (failuresArray.size() == 0) {
-								Element testsuite = document.createElement("testsuite");
-								if (validationDecision.equalsIgnoreCase("non_complaint")) {
-									failures.setValue(noOfFailure);
-									testcase.appendChild(failure);
-									root.appendChild(testsuite);
-									String name1 = applicationName + "/" + snapshotName;
-									Attr name = document.createAttribute("name");
-									name.setValue(name1);
-									testsuite.setAttributeNode(name);
-									testsuite.appendChild(testcase);
-								} else {
-									failures.setValue("0");
-									root.appendChild(testsuite);
-									String name1 = applicationName + "/" + snapshotName;
-									Attr name = document.createAttribute("name");
-									name.setValue(name1);
-									testsuite.setAttributeNode(name);
-									testsuite.appendChild(testcase);
-								}
-							} else {
-								if (message.length() != 0) {
-									failures.setValue(noOfFailure);
-									failure.appendChild(document.createTextNode(message));
-									testcase.appendChild(failure);
-									Element testsuite = document.createElement("testsuite");
-									root.appendChild(testsuite);
-									String name1 = applicationName + "/" + snapshotName;
-									Attr name = document.createAttribute("name");
-									name.setValue(name1);
-									testsuite.setAttributeNode(name);
-									testsuite.appendChild(testcase);
-								} else {
-									failures.setValue("0");
-									Element testsuite = document.createElement("testsuite");
-									root.appendChild(testsuite);
-									String name1 = applicationName + "/" + snapshotName;
-									Attr name = document.createAttribute("name");
-									name.setValue(name1);
-									testsuite.setAttributeNode(name);
-									testsuite.appendChild(testcase);
-								}
-							}
-							TransformerFactory transformerFactory = TransformerFactory.newInstance();
-							transformerFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-							transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-							transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
-							Transformer transformer = transformerFactory.newTransformer();
-							transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-							transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-							DOMSource source = new DOMSource(document);
-							StringWriter stringWriter = new StringWriter();
-							StreamResult result = new StreamResult(stringWriter);
-							transformer.transform(source, result);
-							String outputData = stringWriter.toString();
-							fileName = fName+ "_" + pNames.get(j) + "_" + String.valueOf(b) + ".xml";
-							StringBuilder filePath = new StringBuilder();
-							filePath.append(path);
-							filePath.append(File.separator);
-							filePath.append(fileName);
-							writeToFile(workspace, outputData, filePath.toString());
-						}
+				List<JSONObject> info = policyDetails.get(pNames.get(j));
+				if (info == null || info.isEmpty())
+					continue;
+				tests += info.size();
+				if (isFailure(validationResults.get(j)))
+					failures += info.size();
+			}
+			if (tests == 0)
+				return;
+
+			fileName = fName + ".xml";
+			StringBuilder filePath = new StringBuilder();
+			filePath.append(path);
+			filePath.append(File.separator);
+			filePath.append(fileName);
+			try (JUnitWriter writer = new JUnitWriter(getOutputFile(workspace, filePath.toString()).write(),
+					applicationName + "/" + snapshotName, tests, failures)) {
+				for (int j = 0; j < noOfPolicies; j++) {
+					List<JSONObject> info = policyDetails.get(pNames.get(j));
+					if (info == null || info.isEmpty())
+						continue;
+					JSONObject policyResult = validationResults.get(j);
+					String validationDecision = policyResult.getString("decision");
+					String testName = validationDecision.equalsIgnoreCase("compliant_with_exception")
+							? pNames.get(j) + " (EXCEPTION)" : pNames.get(j);
+					boolean failure = isFailure(policyResult);
+					boolean withMessage = !policyResult.getJSONArray("failures").isEmpty();
+					for (JSONObject row : info) {
+						String message = !failure ? null : withMessage ? row.toString() : "";
+						writer.testCase(testName, validationDecision, message);
 					}
 				}
 			}
@@ -697,6 +585,7 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 			filePath.append(File.separator);
 			filePath.append(fileName);
 			List<JSONObject> modifiedList = new ArrayList<>();
+			Map<String, List<JSONObject>> policyDetails = model.getValidationResults(snapshotSysId, pNames, "json");
 			for (int p = 0; p < validationResults.size(); p++) {
 				JSONObject newObj = new JSONObject();
 				List<JSONObject> results = new ArrayList<>();
@@ -705,11 +594,10 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 				int nonComplaintCount = 0;
 
 				newObj.put("PolicyName", pNames.get(p));
-				JSONObject o = model.getValidationResults(snapshotSysId, pNames.get(p), "json");
-				JSONArray info = o.getJSONArray("result");
-				if (!info.isEmpty()) {
+				List<JSONObject> info = policyDetails.get(pNames.get(p));
+				if (info != null && !info.isEmpty()) {
 					for (int i = 0; i < info.size(); i++) {
-						JSONObject f = info.getJSONObject(i);
+						JSONObject f = info.get(i);
 						String type = f.getString("type");
 						if (f.getString("policy_execution.decision").equalsIgnoreCase("non_compliant"))
 							nonComplaintCount++;
@@ -739,18 +627,87 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 		}
 	}
 
+	// a policy with failures reports each of its info rows as a failure with the row as message
+	private static boolean isFailure(JSONObject policyResult) {
+		return !policyResult.getJSONArray("failures").isEmpty()
+				|| policyResult.getString("decision").equalsIgnoreCase("non_complaint");
+	}
+
 	private void writeToFile(FilePath workspace, String fileContent, String filePath)
 			throws IOException, InterruptedException {
+		getOutputFile(workspace, filePath).write(fileContent, null);
+	}
 
+	private FilePath getOutputFile(FilePath workspace, String filePath) {
 		VirtualChannel channel = workspace.getChannel();
-		FilePath outputFilePath = null;
-		if (workspace.isRemote()) {
-			outputFilePath = new FilePath(channel, filePath);
-		} else {
-			outputFilePath = new FilePath(new File(filePath));
+		if (workspace.isRemote())
+			return new FilePath(channel, filePath);
+		return new FilePath(new File(filePath));
+	}
+
+	/**
+	 * Streams a JUnit report of one snapshot to the workspace, the test cases are written as they are added.
+	 */
+	private static final class JUnitWriter implements Closeable {
+		private final OutputStream out;
+		private final XMLStreamWriter xml;
+
+		JUnitWriter(OutputStream out, String suiteName, int tests, int failures) throws IOException {
+			this.out = out;
+			try {
+				xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+				xml.writeStartDocument("UTF-8", "1.0");
+				xml.writeCharacters("\n");
+				xml.writeStartElement("testsuites");
+				xml.writeAttribute("tests", String.valueOf(tests));
+				xml.writeAttribute("failures", String.valueOf(failures));
+				xml.writeCharacters("\n  ");
+				xml.writeStartElement("testsuite");
+				xml.writeAttribute("name", suiteName);
+				xml.writeAttribute("tests", String.valueOf(tests));
+				xml.writeAttribute("failures", String.valueOf(failures));
+			} catch (XMLStreamException e) {
+				out.close();
+				throw new IOException(e);
+			}
+		}
+
+		/**
+		 * @param failureMessage Text of the failure, empty for a failure without text, null when the test passed
+		 */
+		void testCase(String name, String decision, String failureMessage) throws IOException {
+			try {
+				xml.writeCharacters("\n    ");
+				xml.writeStartElement("testcase");
+				xml.writeAttribute("decision", decision);
+				xml.writeAttribute("name", name);
+				if (failureMessage != null) {
+					xml.writeStartElement("failure");
+					if (!failureMessage.isEmpty())
+						xml.writeCharacters(failureMessage);
+					xml.writeEndElement();
+				}
+				xml.writeEndElement();
+			} catch (XMLStreamException e) {
+				throw new IOException(e);
+			}
 		}
-		outputFilePath.write(fileContent, null);
 
+		@Override
+		public void close() throws IOException {
+			try {
+				xml.writeCharacters("\n  ");
+				xml.writeEndElement();
+				xml.writeCharacters("\n");
+				xml.writeEndElement();
+				xml.writeEndDocument();
+				xml.close();
+			} catch (XMLStreamException e) {
+				throw new IOException(e);
+			} finally {
+				out.close();
+			}
+		}
 	}
 
 	public List<CDMSnapshot> processSnapshotsByPollingCreationAndValidationStatus(String appSysId,
@@ -967,41 +924,33 @@ public class DevOpsConfigGetSnapshotsStepExecution extends SynchronousNonBlockin
 	}
 
 	private void pollWithCallable(TaskListener listener, Callable<String> callable, DevOpsModel model)
-			throws AbortException {
-		//retry for 15 minutes. start at 110ms delay and increase exponentially with 14 retries
-		RetryPolicy<Object> retryPolicy = RetryPolicy.builder()
-				.handle(ConnectException.class)
-				.handleResultIf(result -> result == RETRY)
-				.withBackoff(startDelayInMilliseconds, maxDelayInMilliseconds, ChronoUnit.MILLIS)
-				.withMaxAttempts(maxNumberOfRetries)
-				.build();
-
-		Failsafe.with(retryPolicy)
-		.get(ctx -> {
-			String result = callable.call();
-
-			// full execution has not completed so initial attemptCount is 0. Dealing with this issue here because no exception is thrown when retries exceeded
-			if(ctx.getAttemptCount() == maxNumberOfRetries -1 && result == RETRY) {
-				// Retries have been exceeded and the callable signalled to retry again
-				try {
-					String retryExhaustedMessage = "snDevOpsConfigGetSnapshots - Failed after " + maxNumberOfRetries + " tries!";
-					GenericUtils.printConsoleLog(listener, retryExhaustedMessage);
-
-					Run<?, ?> run = getContext().get(Run.class);
-					DevOpsJobProperty jobProperties = model.getJobProperty(run.getParent());
-					if (jobProperties.isIgnoreSNErrors() && !this.step.getMarkFailed()) {
-						GenericUtils.printConsoleLog(listener, "Job Ignore Error && Not Mark Failed");
-					} else {
-						throw new AbortException(retryExhaustedMessage);
-					}
-				} catch (InterruptedException | IOException io) {
-					GenericUtils.printConsoleLog(listener,
-							"snDevOpsConfigGetSnapshots - Exception in pollWithCallable");
-				}
+			throws IOException, InterruptedException {
+		//retry for 15 minutes. start at 114ms delay and increase exponentially with 14 retries
+		String result = SNAPSHOT_POLLER.poll(attempt -> {
+			try {
+				return callable.call();
+			} catch (ConnectException e) {
+				return RETRY;
+			} catch (IOException | RuntimeException | InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IOException(e);
 			}
+		}, r -> r == RETRY);
 
-			return result;
-		});
+		if (result == RETRY) {
+			// Retries have been exceeded and the callable signalled to retry again
+			String retryExhaustedMessage = "snDevOpsConfigGetSnapshots - Failed after " + maxNumberOfRetries + " tries!";
+			GenericUtils.printConsoleLog(listener, retryExhaustedMessage);
+
+			Run<?, ?> run = getContext().get(Run.class);
+			DevOpsJobProperty jobProperties = model.getJobProperty(run.getParent());
+			if (jobProperties.isIgnoreSNErrors() && !this.step.getMarkFailed()) {
+				GenericUtils.printConsoleLog(listener, "Job Ignore Error && Not Mark Failed");
+			} else {
+				throw new AbortException(retryExhaustedMessage);
+			}
+		}
 	}
 
 	public List<CDMSnapshot> getSnapshotList(JSONArray result) throws IOException {
@@ -69,6 +69,8 @@ public class DevOpsConfigRegisterPipelineStepExecution extends SynchronousStepEx
 		try {
 			registerResponse = model.registerChangeset(pipelineName, branchName, toolId, buildNumber, type, isMultiBranch, changesetNumber,
 					snapshotName, applicationName, listener);
+		} catch (InterruptedException e) {
+			throw e;
 		} catch (Exception e) {
 			return handleException("Failed to register pipeline with given changeset / snapshot : " + e.getMessage());
 		}
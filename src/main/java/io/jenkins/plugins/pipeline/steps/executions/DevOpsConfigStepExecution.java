@@ -3,6 +3,7 @@ package io.jenkins.plugins.pipeline.steps.executions;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -18,6 +19,7 @@ import hudson.model.TaskListener;
 import hudson.AbortException;
 import hudson.model.Run;
 
+import io.jenkins.plugins.utils.DevOpsPoller;
 import io.jenkins.plugins.utils.GenericUtils;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONException;
@@ -43,6 +45,10 @@ public class DevOpsConfigStepExecution extends SynchronousNonBlockingStepExecuti
 
 	private ObjectMapper mapper = new ObjectMapper();
 
+	// first look after 3 s as before, then until the validation is over for at most 30 s
+	private static final DevOpsPoller VALIDATION_POLLER = new DevOpsPoller("config.validation", 1000, 5000, 20,
+			TimeUnit.SECONDS.toMillis(30)).withFirstDelay(3000);
+
 	public DevOpsConfigStepExecution(StepContext context, DevOpsConfigStep step) {
 		super(context);
 		this.step = step;
@@ -160,12 +166,10 @@ public class DevOpsConfigStepExecution extends SynchronousNonBlockingStepExecuti
 								registerContext, registerStep);
 						registerExec.run();
 
-						Thread.sleep(3000);
-
-						// Fetching latest snapshot status
+						// Fetching latest snapshot status, once the validation requested by the registration is over
 						List<CDMSnapshot> updatedSnapshotList = new ArrayList<>();
-						JSONObject updatedSnapshotObj = model.snapShotExists(getExec.appSysId, deploybaleNames,
-								changesetId);
+						JSONObject updatedSnapshotObj = VALIDATION_POLLER.poll(attempt -> model.snapShotExists(
+								getExec.appSysId, deploybaleNames, changesetId), DevOpsConfigStepExecution::isValidationPending);
 						if (updatedSnapshotObj != null) {
 							JSONArray snapshotArray = updatedSnapshotObj.getJSONArray("result");
 							updatedSnapshotList = getExec.getSnapshotList(snapshotArray);
@@ -230,4 +234,18 @@ public class DevOpsConfigStepExecution extends SynchronousNonBlockingStepExecuti
 			return "[]";
 		}
 	}
+
+	private static boolean isValidationPending(JSONObject snapshots) {
+		if (snapshots == null)
+			return false;
+		JSONArray result = snapshots.optJSONArray("result");
+		if (result == null)
+			return false;
+		for (int i = 0; i < result.size(); i++) {
+			String validation = result.getJSONObject(i).optString("validation");
+			if (validation.equals("requested") || validation.equals("in_progress"))
+				return true;
+		}
+		return false;
+	}
 }
@@ -14,6 +14,9 @@ import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import io.jenkins.plugins.config.DevOpsJobProperty;
@@ -25,6 +28,9 @@ import hudson.FilePath;
 import hudson.model.TaskListener;
 import io.jenkins.plugins.model.DevOpsModel;
 import io.jenkins.plugins.pipeline.steps.DevOpsConfigUploadStep;
+import io.jenkins.plugins.utils.CommUtils;
+import io.jenkins.plugins.utils.DevOpsParallelFetcher;
+import io.jenkins.plugins.utils.DevOpsPoller;
 import io.jenkins.plugins.utils.GenericUtils;
 import net.sf.json.JSONException;
 import net.sf.json.JSONObject;
@@ -37,8 +43,9 @@ public class DevOpsConfigUploadStepExecution extends SynchronousNonBlockingStepE
 
 	private DevOpsConfigUploadStep step;
 
-	private int retryFrequency = 220;
-	private int maxRetryCount = 20;
+	// polls every 220 ms at first, the delay doubles every other attempt
+	private static final DevOpsPoller STATUS_POLLER = new DevOpsPoller("config.upload", 220, 60000, 100,
+			TimeUnit.MINUTES.toMillis(15)).withBackoff(2, 2);
 	private String validFormatRegex = ".{json,xml,yml,ini,properties,yaml}";
 
 	public DevOpsConfigUploadStepExecution(StepContext context, DevOpsConfigUploadStep step) {
@@ -155,150 +162,118 @@ public class DevOpsConfigUploadStepExecution extends SynchronousNonBlockingStepE
 					DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString() + " - Initiating the upload");
 
 //Reading File content.
-			boolean commitFlag = false;
 			boolean deleteFlag = false;
 			String changesetId = "";
 			JSONObject responseStatus = null;
 			
 			if (this.step.getAutoDelete() == null || this.step.getAutoDelete() == true)
 			   deleteFlag = true;
-			   
-			for (FilePath fileToUpload : filteredList) {
-
-				String fileContent = fileToUpload.readToString();
-				String fileName = "";
-				String format = "";
-				String dataFormat = "";
-				String transactionSource = "system_information=jenkins,interface_type="+step.getTarget()+",interface="+step.getAutoValidate()+",session_type="+step.getAutoCommit()+",interface_version=";
-				if(this.step.getDataFormat() == null) {
-					fileName = fileToUpload.getName();
-					format = fileName.substring(fileName.lastIndexOf('.')+1);
-					if(format.equals("yml"))
-						dataFormat = dataFormat+"yaml";
-					else
-						dataFormat= dataFormat+format;
-				}
-				else
-					dataFormat = dataFormat+this.step.getDataFormat().toLowerCase();
-				transactionSource = transactionSource+dataFormat;
-
-				// Setting namePath
-				Path relativePath = Paths.get(fileToUpload.getRemote().replace(workspace.getRemote() + "/", ""));
-				String modifiedNamePath = "";
-				if (this.step.getConvertPath()) {
-					modifiedNamePath = this.step.getNamePath() + File.separator + relativePath.toString();
-				} else {
-					File f = new File(relativePath.toString());
-					String absoulteName = f.getName();
-					modifiedNamePath = this.step.getNamePath() + File.separator + absoulteName;
-				}
-
-				if (filteredList.indexOf(fileToUpload) == filteredList.size() - 1) {
-					commitFlag = this.step.getAutoCommit();
-				}
-
-				JSONObject uploadRequest = null;
-				try {
-					uploadRequest = model.uploadData(this.step.getApplicationName().trim(), changesetNumber,
-							dataFormat, modifiedNamePath, commitFlag, deleteFlag,
-							this.step.getAutoValidate(), fileContent, this.step.getTarget(),
-							this.step.getDeployableName(), this.step.getCollectionName(), this.step.getAutoPublish(), transactionSource);
-				} catch (Exception e) {
-					return handleException("Failed to upload file due to : " + e.getMessage() + " - Upload failed");
-				}
-
-				if (uploadRequest == null) {
-					return handleException("Invalid target Type : Upload failed");
-				}
 
-				if (this.step.getShowResults())
-					GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
-							+ " - Response from upload request api for file " + relativePath + " : " + uploadRequest);
-
-				String errorMessage = "";
-				if (uploadRequest.containsKey(DevOpsConstants.COMMON_RESULT_ERROR.toString())) {
-					try {
-						JSONObject error = uploadRequest.getJSONObject(DevOpsConstants.COMMON_RESULT_ERROR.toString());
-						errorMessage = error.getString(DevOpsConstants.COMMON_RESPONSE_MESSAGE.toString());
-					} catch (JSONException j) {
-						return handleException(
-								"Upload step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
+			List<PendingUpload> uploads = new ArrayList<>();
+			for (FilePath fileToUpload : filteredList)
+				uploads.add(prepareUpload(fileToUpload, workspace));
+
+			// Up to parallelUploads files are uploaded and polled together, on a pool of that size. The last file
+			// carries the autoCommit flag, it is only uploaded once all the other files are completed.
+			int parallelUploads = this.step.getParallelUploads();
+			int lastIndex = uploads.size() - 1;
+			int nextIndex = 0;
+			List<PendingUpload> outstanding = new ArrayList<>();
+			ExecutorService uploadExecutor = DevOpsParallelFetcher.newExecutor("ServiceNow DevOps config upload",
+					Math.min(parallelUploads, uploads.size()));
+			try {
+				while (nextIndex <= lastIndex || !outstanding.isEmpty()) {
+					List<PendingUpload> batch = new ArrayList<>();
+					while (nextIndex < lastIndex && outstanding.size() + batch.size() < parallelUploads)
+						batch.add(uploads.get(nextIndex++));
+					if (nextIndex == lastIndex && outstanding.isEmpty() && batch.isEmpty())
+						batch.add(uploads.get(nextIndex++));
+
+					if (!batch.isEmpty()) {
+						String failure = submitUploads(batch, changesetNumber, deleteFlag, nextIndex > lastIndex, model,
+								listener, uploadExecutor);
+						if (failure != null)
+							return handleException(failure);
+						outstanding.addAll(batch);
 					}
-					return handleException("Upload failed : " + errorMessage);
-				}
-
-				String uploadId = "";
-				try {
-					JSONObject result = uploadRequest.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
-					uploadId = result.getString(DevOpsConstants.CONFIG_UPLOAD_ID.toString());
-				} catch (JSONException j) {
-					return handleException(
-							"Upload step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
-				}
-
-				GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
-						+ " - Polling for upload status of the file - " + relativePath);
-
-				int retryCount = 0;
-				String state = "";
-				JSONObject response = null;
 
-				// Checking for upload status
-				while (retryCount <= maxRetryCount) {
-					retryCount++;
-					try {
-						response = model.checkStatusForUpload(uploadId);
-					} catch (Exception e) {
-						return handleException(
-								"Failed to fetch upload status due to : " + e.getMessage() + " - Upload failed");
+					long wait = outstanding.stream().mapToLong(u -> u.nextPollAt).min().getAsLong() - System.currentTimeMillis();
+					if (wait > 0) {
+						try {
+							Thread.sleep(wait);
+						} catch (InterruptedException i) {
+							// the step is stopped
+							outstanding.forEach(u -> u.schedule.finish(DevOpsPoller.Outcome.CANCELLED));
+							throw i;
+						}
 					}
 
+					// Checking for upload status
+					long now = System.currentTimeMillis();
+					List<PendingUpload> due = outstanding.stream().filter(u -> u.nextPollAt <= now).collect(Collectors.toList());
+					List<JSONObject> responses;
 					try {
-						responseStatus = response.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
-						state = responseStatus.getString(DevOpsConstants.COMMON_RESPONSE_STATE.toString());
-					} catch (JSONException j) {
+						responses = DevOpsParallelFetcher.fetchAll(uploadExecutor, due.stream()
+								.map(u -> (Callable<JSONObject>) () -> {
+									JSONObject status = model.checkStatusForUpload(u.uploadId);
+									u.retryAfter = CommUtils.takeLastRetryAfter();
+									return status;
+								})
+								.collect(Collectors.toList()));
+					} catch (IOException | RuntimeException e) {
 						return handleException(
-								"Upload step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
+								"Failed to fetch upload status due to : " + e.getMessage() + " - Upload failed");
 					}
 
-					if (state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_NEW.toString())
-							|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_IN_PROGRESS.toString())
-							|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_READY.toString())
-							|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_INITIALIZING.toString())) {
-						if (retryCount % 2 == 0) {
-							GenericUtils.printConsoleLog(listener,
-									DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
-											+ " - Waiting for response - Retried  " + retryCount + " times");
-							retryFrequency *= 2;
+					for (int i = 0; i < due.size(); i++) {
+						PendingUpload upload = due.get(i);
+						JSONObject response = responses.get(i);
+						String state = "";
+						try {
+							responseStatus = response.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
+							state = responseStatus.getString(DevOpsConstants.COMMON_RESPONSE_STATE.toString());
+						} catch (JSONException j) {
+							return handleException(
+									"Upload step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
 						}
+
+						if ((state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_NEW.toString())
+								|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_IN_PROGRESS.toString())
+								|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_READY.toString())
+								|| state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_INITIALIZING.toString())) {
+							long delay = upload.schedule.next(upload.retryAfter);
+							if (delay >= 0) {
+								if (upload.schedule.getAttempts() % 2 == 0)
+									GenericUtils.printConsoleLog(listener,
+											DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
+													+ " - Waiting for response - Retried  " + upload.schedule.getAttempts() + " times");
+								upload.nextPollAt = now + delay;
+								continue;
+							}
+							upload.schedule.finish(DevOpsPoller.Outcome.EXHAUSTED);
+						} else
+							upload.schedule.finish(DevOpsPoller.Outcome.COMPLETED);
+
+						if (this.step.getShowResults())
+							GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
+									+ " - Response from upload status api for file " + upload.relativePath + " : " + response);
 						try {
-							Thread.sleep(retryFrequency);
-						} catch (InterruptedException i) {
-							GenericUtils.printConsoleLog(listener,
-									DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
-											+ " - Exception while fetching upload status");
-							continue;
+							String output = "";
+							if (!(state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_COMPLETED.toString()))) {
+								output = responseStatus.getString(DevOpsConstants.COMMON_RESPONSE_OUTPUT.toString());
+								return handleException("Upload failed due to : " + output);
+							}
+						} catch (JSONException j) {
+							return handleException(
+									"Upload step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
 						}
-					} else
-						break;
-				}
-				if (this.step.getShowResults())
-					GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
-							+ " - Response from upload status api for file " + relativePath + " : " + response);
-				try {
-					String output = "";
-					if (responseStatus != null
-							&& !(state.equalsIgnoreCase(DevOpsConstants.COMMON_RESPONSE_COMPLETED.toString()))) {
-						output = responseStatus.getString(DevOpsConstants.COMMON_RESPONSE_OUTPUT.toString());
-						return handleException("Upload failed due to : " + output);
+						outstanding.remove(upload);
 					}
-				} catch (JSONException j) {
-					return handleException(
-							"Upload step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString());
 				}
-				//resetting retryFrequency for the next file upload
-                this.retryFrequency = 220;
+			} finally {
+				uploadExecutor.shutdownNow();
 			}
+			// the last status is the one of the final file
 			try {
 				if (responseStatus != null)
 					changesetId = (responseStatus.getJSONObject(DevOpsConstants.COMMON_RESPONSE_OUTPUT.toString()))
@@ -316,6 +291,110 @@ public class DevOpsConfigUploadStepExecution extends SynchronousNonBlockingStepE
 		}
 	}
 
+	private PendingUpload prepareUpload(FilePath fileToUpload, FilePath workspace) {
+		String fileName = "";
+		String format = "";
+		String dataFormat = "";
+		String transactionSource = "system_information=jenkins,interface_type="+step.getTarget()+",interface="+step.getAutoValidate()+",session_type="+step.getAutoCommit()+",interface_version=";
+		if(this.step.getDataFormat() == null) {
+			fileName = fileToUpload.getName();
+			format = fileName.substring(fileName.lastIndexOf('.')+1);
+			if(format.equals("yml"))
+				dataFormat = dataFormat+"yaml";
+			else
+				dataFormat= dataFormat+format;
+		}
+		else
+			dataFormat = dataFormat+this.step.getDataFormat().toLowerCase();
+		transactionSource = transactionSource+dataFormat;
+
+		// Setting namePath
+		Path relativePath = Paths.get(fileToUpload.getRemote().replace(workspace.getRemote() + "/", ""));
+		String modifiedNamePath = "";
+		if (this.step.getConvertPath()) {
+			modifiedNamePath = this.step.getNamePath() + File.separator + relativePath.toString();
+		} else {
+			File f = new File(relativePath.toString());
+			String absoulteName = f.getName();
+			modifiedNamePath = this.step.getNamePath() + File.separator + absoulteName;
+		}
+		return new PendingUpload(fileToUpload, relativePath, dataFormat, modifiedNamePath, transactionSource);
+	}
+
+	/**
+	 * Uploads the files of the batch side by side and records their upload ids.
+	 *
+	 * @param commitFlag whether the batch is the final file, which carries the autoCommit flag
+	 * @return the failure message, or null when all the files were accepted
+	 */
+	private String submitUploads(List<PendingUpload> batch, String changesetNumber, boolean deleteFlag, boolean commitFlag,
+			DevOpsModel model, TaskListener listener, ExecutorService executor) throws InterruptedException {
+		boolean autoCommit = commitFlag && this.step.getAutoCommit();
+		List<Callable<JSONObject>> requests = new ArrayList<>();
+		for (PendingUpload upload : batch) {
+			requests.add(() -> model.uploadData(this.step.getApplicationName().trim(), changesetNumber,
+					upload.dataFormat, upload.namePath, autoCommit, deleteFlag,
+					this.step.getAutoValidate(), upload.file.readToString(), this.step.getTarget(),
+					this.step.getDeployableName(), this.step.getCollectionName(), this.step.getAutoPublish(), upload.transactionSource));
+		}
+		List<JSONObject> uploadRequests;
+		try {
+			uploadRequests = DevOpsParallelFetcher.fetchAll(executor, requests);
+		} catch (IOException | RuntimeException e) {
+			return "Failed to upload file due to : " + e.getMessage() + " - Upload failed";
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+			PendingUpload upload = batch.get(i);
+			JSONObject uploadRequest = uploadRequests.get(i);
+			if (uploadRequest == null) {
+				return "Invalid target Type : Upload failed";
+			}
+
+			if (this.step.getShowResults())
+				GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
+						+ " - Response from upload request api for file " + upload.relativePath + " : " + uploadRequest);
+
+			try {
+				if (uploadRequest.containsKey(DevOpsConstants.COMMON_RESULT_ERROR.toString())) {
+					JSONObject error = uploadRequest.getJSONObject(DevOpsConstants.COMMON_RESULT_ERROR.toString());
+					return "Upload failed : " + error.getString(DevOpsConstants.COMMON_RESPONSE_MESSAGE.toString());
+				}
+				JSONObject result = uploadRequest.getJSONObject(DevOpsConstants.COMMON_RESPONSE_RESULT.toString());
+				upload.uploadId = result.getString(DevOpsConstants.CONFIG_UPLOAD_ID.toString());
+			} catch (JSONException j) {
+				return "Upload step failed : " + DevOpsConstants.FAILURE_REASON_CONN_ISSUE.toString();
+			}
+
+			GenericUtils.printConsoleLog(listener, DevOpsConstants.CONFIG_UPLOAD_STEP_FUNCTION_NAME.toString()
+					+ " - Polling for upload status of the file - " + upload.relativePath);
+			upload.schedule = STATUS_POLLER.start();
+			upload.nextPollAt = System.currentTimeMillis();
+		}
+		return null;
+	}
+
+	// a file being uploaded, with its polling state
+	private static final class PendingUpload {
+		private final FilePath file;
+		private final Path relativePath;
+		private final String dataFormat;
+		private final String namePath;
+		private final String transactionSource;
+		private String uploadId;
+		private DevOpsPoller.Schedule schedule;
+		private volatile String retryAfter;
+		private long nextPollAt;
+
+		PendingUpload(FilePath file, Path relativePath, String dataFormat, String namePath, String transactionSource) {
+			this.file = file;
+			this.relativePath = relativePath;
+			this.dataFormat = dataFormat;
+			this.namePath = namePath;
+			this.transactionSource = transactionSource;
+		}
+	}
+
 	private List<FilePath> walkFilePaths(FilePath filePath, int nMaxDepth) throws IOException, InterruptedException {
 		List<FilePath> fileList = new ArrayList<>();
 		filePath.list().stream().forEach(c -> {
@@ -43,15 +43,15 @@ public class DevOpsPipelineChangeStepExecution extends AbstractStepExecutionImpl
 	private String callbackUrl;
 	private String token;
 	private DevOpsPipelineChangeStep step;
-	private transient Thread pollingThread;
+	private transient DevOpsChangePollingModel.ChangePoll changePoll;
 
-	public void stopPollingThread() {
-		if (this.pollingThread != null && this.pollingThread.isAlive())
-			this.pollingThread.interrupt();
+	public void stopPolling() {
+		if (this.changePoll != null)
+			this.changePoll.cancel();
 	}
 
-	public void setPollingThread(Thread pollingThread) {
-		this.pollingThread = pollingThread;
+	public void setChangePoll(DevOpsChangePollingModel.ChangePoll changePoll) {
+		this.changePoll = changePoll;
 	}
 
 	public DevOpsPipelineChangeStepExecution(StepContext context, DevOpsPipelineChangeStep step) {
@@ -150,7 +150,7 @@ public class DevOpsPipelineChangeStepExecution extends AbstractStepExecutionImpl
 					// received on
 					// onTriggered
 					//Launching the new thread for polling and logging
-					new DevOpsChangePollingModel().launchChangePollingThread(listener, run, run.getParent(), this);
+					new DevOpsChangePollingModel().launchChangePolling(listener, run, run.getParent(), this);
 					return false;
 				}
 
@@ -202,7 +202,7 @@ public class DevOpsPipelineChangeStepExecution extends AbstractStepExecutionImpl
 	public void stop(Throwable cause) throws Exception {
 		DevOpsRootAction.deregisterPipelineWebhook(this);
 		getContext().onFailure(cause);
-		stopPollingThread();
+		stopPolling();
 	}
 
 	@Override
@@ -287,7 +287,7 @@ public class DevOpsPipelineChangeStepExecution extends AbstractStepExecutionImpl
 						printDebug("onResume", new String[]{"message"},
 								new String[]{"Job waiting for change callback"}, Level.FINE);
 						this.log(listener, "[ServiceNow DevOps] Job waiting for change callback");
-						new DevOpsChangePollingModel().launchChangePollingThread(listener, run, run.getParent(), this);
+						new DevOpsChangePollingModel().launchChangePolling(listener, run, run.getParent(), this);
 					} else {
 						Job<?, ?> job = run.getParent();
 						if (job != null) {
@@ -472,7 +472,7 @@ public class DevOpsPipelineChangeStepExecution extends AbstractStepExecutionImpl
 		} catch (IOException | InterruptedException e) {
 			e.printStackTrace();
 		}
-		this.stopPollingThread();
+		this.stopPolling();
 	}
 
 	// called from DevOpsRootAction _handlePipelineCallback
@@ -1,31 +1,37 @@
 package io.jenkins.plugins.utils;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import javax.xml.bind.DatatypeConverter;
 
-import hudson.ProxyConfiguration;
 import net.sf.json.JSONObject;
 
 public final class CommUtils {
     private CommUtils() {}
     private static Charset charSet = StandardCharsets.UTF_8;
     private static String defaultContentType = "application/json; charset=" + charSet.name();
-    
-    private static int connectTimeout = 5000;
+
+    private static volatile DevOpsHttpTransport transport = new DevOpsHttpTransport();
+
+    // Retry-After header of the last response read by the thread, for DevOpsPoller
+    private static final ThreadLocal<String> LAST_RETRY_AFTER = new ThreadLocal<>();
+    // instances (see DevOpsHttpTransport.getPoolKey) that rejected a compressed request but accepted it uncompressed
+    private static final Map<String, Long> GZIP_UNSUPPORTED_UNTIL = new ConcurrentHashMap<>();
+    private static final long GZIP_RECHECK_INTERVAL = Long.getLong(CommUtils.class.getName() + ".gzipRecheckInterval",
+            TimeUnit.HOURS.toMillis(1));
 
     /**
      * Sends request with given params and returns result from the call.
@@ -49,7 +55,7 @@ public final class CommUtils {
         if (params == null)
             printDebug("call", new String[]{"method","urlString","params","data"}, new String[]{method,urlString,"",data}, Level.FINE);
         else
-            printDebug("call", new String[]{"method","urlString","params","data"}, new String[]{method,urlString,params.toString(),data}, Level.FINE);
+            GenericUtils.printDebug(CommUtils.class.getName(), "call", new String[]{"method","urlString","params","data"}, Level.FINE, () -> new String[]{method,urlString,params.toString(),data});
 
         JSONObject jsonResult = null;
     
@@ -94,7 +100,7 @@ public final class CommUtils {
         if (params == null)
             printDebug("call", new String[]{"method","urlString","params","data"}, new String[]{method,urlString,"",data}, Level.FINE);
         else
-            printDebug("call", new String[]{"method","urlString","params","data"}, new String[]{method,urlString,params.toString(),data}, Level.FINE);
+            GenericUtils.printDebug(CommUtils.class.getName(), "call", new String[]{"method","urlString","params","data"}, Level.FINE, () -> new String[]{method,urlString,params.toString(),data});
 
         JSONObject jsonResult = null;
         try {
@@ -140,8 +146,8 @@ public final class CommUtils {
 			printDebug("callV2Support", new String[] { "method", "urlString", "params", "data" },
 					new String[] { method, urlString, "", data }, Level.FINE);
 		else
-			printDebug("callV2Support", new String[] { "method", "urlString", "params", "data" },
-					new String[] { method, urlString, params.toString(), data }, Level.FINE);
+			GenericUtils.printDebug(CommUtils.class.getName(), "callV2Support", new String[] { "method", "urlString", "params", "data" }, Level.FINE,
+					() -> new String[] { method, urlString, params.toString(), data });
 
 		JSONObject jsonResult = null;
 		try {
@@ -184,6 +190,60 @@ public final class CommUtils {
 		}
 	}
 
+    /**
+     * Same as call(), with an Authorization header that was already encoded by the caller,
+     * see DevOpsConfigurationEntry.getAuthorizationHeader().
+     * @param method Rest method
+     * @param urlString Url to be called
+     * @param params QueryParams
+     * @param body Payload, written straight to the connection
+     * @param authorization Authorization header value
+     * @param contentType ContentType Header
+     * @return jsonResult
+     */
+    public static JSONObject callWithAuthorization(String method, String urlString, JSONObject params, DevOpsHttpTransport.RequestBody body, String authorization, String contentType, String transactionSource) {
+        return callWithAuthorization(method, urlString, params, body, authorization, contentType, transactionSource, -1);
+    }
+
+    /**
+     * Same as callWithAuthorization(), POST and PUT payloads of at least compressionThreshold bytes are sent with
+     * Content-Encoding: gzip. When the instance rejects a compressed request, it is sent again uncompressed.
+     * @param compressionThreshold Minimum payload size to compress, -1 to never compress
+     * @return jsonResult
+     */
+    public static JSONObject callWithAuthorization(String method, String urlString, JSONObject params, DevOpsHttpTransport.RequestBody body, String authorization, String contentType, String transactionSource, long compressionThreshold) {
+        if (contentType == null)
+            contentType = CommUtils.defaultContentType;
+        GenericUtils.printDebug(CommUtils.class.getName(), "callWithAuthorization", new String[]{"method","urlString","params","data"}, Level.FINE, () -> new String[]{method,urlString,params != null ? params.toString() : "",String.valueOf(body)});
+        try {
+            switch (method) {
+                case "GET":
+                    return _execute(urlString, params, body, DevOpsConstants.REST_GET_METHOD.toString(), authorization, contentType, transactionSource, compressionThreshold);
+                case "POST":
+                    return _execute(urlString, params, body, DevOpsConstants.REST_POST_METHOD.toString(), authorization, contentType, transactionSource, compressionThreshold);
+                case "PUT":
+                    return _execute(urlString, params, body, DevOpsConstants.REST_PUT_METHOD.toString(), authorization, contentType, transactionSource, compressionThreshold);
+                case "DELETE":
+                    return _execute(urlString, params, body, DevOpsConstants.REST_DELETE_METHOD.toString(), authorization, contentType, transactionSource, compressionThreshold);
+                default:
+                    printDebug("callWithAuthorization", new String[]{"message"}, new String[]{"Invalid method name"}, Level.WARNING);
+                    return null;
+            }
+        } catch (MalformedURLException e) {
+            printDebug("callWithAuthorization", new String[]{"MalformedURLException"}, new String[]{e.getMessage()}, Level.SEVERE);
+            return null;
+        } catch (IllegalArgumentException e) {
+            printDebug("callWithAuthorization", new String[]{"IllegalArgumentException"}, new String[]{e.getMessage()}, Level.SEVERE);
+            return null;
+        } catch (IOException e) {
+            printDebug("callWithAuthorization", new String[]{"IOException"}, new String[]{e.getMessage()}, Level.SEVERE);
+            return getErrorMessage("IOException: "+e.getMessage());
+        } catch (Exception e) {
+            printDebug("callWithAuthorization", new String[]{"Exception"}, new String[]{e.getMessage()}, Level.SEVERE);
+            return null;
+        }
+    }
+
     private static JSONObject getErrorMessage(String message) {
 		JSONObject resultJSON = new JSONObject();
 		resultJSON.put(DevOpsConstants.COMMON_RESULT_FAILURE.toString(), message);
@@ -192,53 +252,15 @@ public final class CommUtils {
     
     
     private static JSONObject _send(String urlString, JSONObject params, String data, String username, String password, String method, String contentType, String transactionSource) throws IOException, MalformedURLException, IllegalArgumentException, Exception {
-    	JSONObject jsonResult = null;
-        URL url = new URL(_appendParams(urlString, params));
-        if (!url.getProtocol().startsWith("http")) 
-            throw new IllegalArgumentException("Not an http(s) url: " + url);
-        ProxyConfiguration pc = ProxyConfiguration.load();
-        HttpURLConnection conn;
-
-        if (pc != null) 
-            conn = (HttpURLConnection) ProxyConfiguration.open(url);
-        else
-            conn = (HttpURLConnection) url.openConnection();
         byte[] message = (username+":"+password).getBytes(charSet);
         String encoded = DatatypeConverter.printBase64Binary(message);
-        conn.setRequestProperty("Authorization", "Basic "+encoded);
-        conn.setRequestProperty("Content-Type", contentType);
-        conn.setRequestProperty("X-Transaction-Source", transactionSource);
-        conn.setConnectTimeout(connectTimeout);
-        conn.setRequestMethod(method);
-        if(method.equals(DevOpsConstants.REST_POST_METHOD.toString()) || method.equals(DevOpsConstants.REST_PUT_METHOD.toString())){
-        	conn.setDoOutput(true);
-        	OutputStream os = conn.getOutputStream();
-        	try{
-        	    os.write(data.getBytes(charSet));
-            } finally{
-        	    os.close();
-            }
-        }
-        jsonResult = _readResponse(conn);
-        return jsonResult;
+        return _execute(urlString, params, data, method, "Basic "+encoded, contentType, transactionSource);
     }
     
 	private static JSONObject _sendV2Support(String urlString, JSONObject params, String data, String username,
 			String password, String method, String contentType, String transactionSource, Map<String,String> tokenDetails)
 			throws IOException, MalformedURLException, IllegalArgumentException, Exception {
-		JSONObject jsonResult = null;
-		URL url = new URL(_appendParams(urlString, params));
-		if (!url.getProtocol().startsWith("http"))
-			throw new IllegalArgumentException("Not an http(s) url: " + url);
-		ProxyConfiguration pc = ProxyConfiguration.load();
-		HttpURLConnection conn;
-
-		if (pc != null)
-			conn = (HttpURLConnection) ProxyConfiguration.open(url);
-		else
-			conn = (HttpURLConnection) url.openConnection();
-
-		
+		String authorization;
 		if (null != tokenDetails && !tokenDetails.isEmpty()
 				&& tokenDetails.containsKey(DevOpsConstants.TOKEN_VALUE.toString())) {
 			String token = tokenDetails.get(DevOpsConstants.TOKEN_VALUE.toString());
@@ -250,32 +272,112 @@ public final class CommUtils {
 			} else {
 				toolId = tokenDetails.get(DevOpsConstants.TOOL_ID_ATTR.toString());
 			}
-			conn.setRequestProperty("Authorization", "sn_devops.DevOpsToken" + " " + toolId + ":" + token);
+			authorization = "sn_devops.DevOpsToken" + " " + toolId + ":" + token;
 
 		} else {
 			byte[] message = (username + ":" + password).getBytes(charSet);
 			String encoded = DatatypeConverter.printBase64Binary(message);
-			conn.setRequestProperty("Authorization", "Basic " + encoded);
+			authorization = "Basic " + encoded;
 
 		}
 
-		conn.setRequestProperty("Content-Type", contentType);
-		conn.setRequestProperty("X-Transaction-Source", transactionSource);
-		conn.setConnectTimeout(connectTimeout);
-		conn.setRequestMethod(method);
-		if (method.equals(DevOpsConstants.REST_POST_METHOD.toString())
-				|| method.equals(DevOpsConstants.REST_PUT_METHOD.toString())) {
-			conn.setDoOutput(true);
-			OutputStream os = conn.getOutputStream();
-			try {
-				os.write(data.getBytes(charSet));
-			} finally {
-				os.close();
-			}
+		return _execute(urlString, params, data, method, authorization, contentType, transactionSource);
+	}
+
+	private static JSONObject _execute(String urlString, JSONObject params, String data, String method,
+			String authorization, String contentType, String transactionSource) throws IOException {
+		DevOpsHttpTransport.RequestBody body = data != null ? DevOpsHttpTransport.RequestBody.ofString(data) : null;
+		return _execute(urlString, params, body, method, authorization, contentType, transactionSource, -1);
+	}
+
+	private static JSONObject _execute(String urlString, JSONObject params, DevOpsHttpTransport.RequestBody body,
+			String method, String authorization, String contentType, String transactionSource,
+			long compressionThreshold) throws IOException {
+		URL url = new URL(_appendParams(urlString, params));
+		if (!url.getProtocol().startsWith("http"))
+			throw new IllegalArgumentException("Not an http(s) url: " + url);
+
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put("Authorization", authorization);
+		headers.put("Content-Type", contentType);
+		if (transactionSource != null)
+			headers.put("X-Transaction-Source", transactionSource);
+
+		DevOpsRateLimiter.acquire(url);
+		DevOpsCircuitBreakers.acquire(url, params);
+		DevOpsHttpTransport.Response response = null;
+		boolean sent = true;
+		try {
+			response = _exchange(url, method, headers, body, compressionThreshold);
+		} catch (DevOpsHttpTransport.PoolSaturatedException e) {
+			sent = false;
+			throw e;
+		} finally {
+			// a call that never got a connection says nothing about the instance
+			if (sent)
+				DevOpsCircuitBreakers.record(url, params,
+						response != null && !DevOpsCircuitBreakers.isUnavailable(response.getStatusCode()));
+		}
+		return _readResponse(response);
+	}
+
+	private static DevOpsHttpTransport.Response _exchange(URL url, String method, Map<String, String> headers,
+			DevOpsHttpTransport.RequestBody body, long compressionThreshold) throws IOException {
+		if (_shouldCompress(url, method, body, compressionThreshold)) {
+			Map<String, String> gzipHeaders = new LinkedHashMap<>(headers);
+			gzipHeaders.put("Content-Encoding", "gzip");
+			DevOpsHttpTransport.Response response = transport.executeStreaming(url, method, gzipHeaders,
+					DevOpsHttpTransport.RequestBody.gzip(body));
+			if (!_isCompressionRejected(response))
+				return response;
+
+			printDebug("_execute", new String[]{"message", "statusCode"},
+					new String[]{"Compressed request rejected, sending it uncompressed", String.valueOf(response.getStatusCode())}, Level.FINE);
+			response = transport.executeStreaming(url, method, headers, body);
+			if (response.getStatusCode() < 300)
+				GZIP_UNSUPPORTED_UNTIL.put(DevOpsHttpTransport.getPoolKey(url), System.currentTimeMillis() + GZIP_RECHECK_INTERVAL);
+			return response;
 		}
-		
-		jsonResult = _readResponse(conn);
-		return jsonResult;
+		return transport.executeStreaming(url, method, headers, body);
+	}
+
+	private static boolean _shouldCompress(URL url, String method, DevOpsHttpTransport.RequestBody body,
+			long compressionThreshold) {
+		if (compressionThreshold < 0 || body == null || !(method.equals(DevOpsConstants.REST_POST_METHOD.toString())
+				|| method.equals(DevOpsConstants.REST_PUT_METHOD.toString())))
+			return false;
+		// streamed payloads have no known length, they are the large ones
+		long length = body.getLength();
+		if (length >= 0 && length < compressionThreshold)
+			return false;
+		Long unsupportedUntil = GZIP_UNSUPPORTED_UNTIL.get(DevOpsHttpTransport.getPoolKey(url));
+		return unsupportedUntil == null || unsupportedUntil < System.currentTimeMillis();
+	}
+
+	// 415 Unsupported Media Type is the standard answer, some front ends answer 400 to an encoding they do not handle.
+	// Any other 400 is an answer to the content: sending it again would repeat a notification or change request.
+	private static boolean _isCompressionRejected(DevOpsHttpTransport.Response response) {
+		if (response.getStatusCode() == 415)
+			return true;
+		if (response.getStatusCode() != 400 || response.getBody() == null)
+			return false;
+		String body = response.getBody().toLowerCase(Locale.ENGLISH);
+		return body.contains("content-encoding") || body.contains("gzip");
+	}
+
+	/**
+	 * @return the transport used for all calls to ServiceNow instances
+	 */
+	public static DevOpsHttpTransport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * Replaces the transport used for all calls to ServiceNow instances.
+	 * @param newTransport Transport to use, null restores the default one
+	 */
+	public static void setTransport(DevOpsHttpTransport newTransport) {
+		transport = newTransport != null ? newTransport : new DevOpsHttpTransport();
 	}
     
     private static String _appendParams(String urlString, JSONObject params) {
@@ -302,27 +404,60 @@ public final class CommUtils {
         return urlString;
     }
 
-    private static JSONObject _readResponse(HttpURLConnection conn) throws IOException {
-        printDebug("_readResponse", null, null, Level.FINE);
-        JSONObject jsonResult = null;
-        InputStream in = null;
-        String result = null;
-        try{
-            // for some SUCCESS cases, the response code is 201 from app-devops. 
-            if (conn.getResponseCode() > 299)  // we may use the condition "conn.getResponseCode != 200" in regular cases.
-                in = conn.getErrorStream();
-            else 
-                in = new BufferedInputStream(conn.getInputStream());
-                result = org.apache.commons.io.IOUtils.toString(in, charSet);
+    /**
+     * Sends a GET request whose response is too large to be read in memory, the response body is handed to the
+     * handler as it is received instead of being parsed.
+     * @param urlString Url to be called
+     * @param username UserName for Auth
+     * @param password Password for Auth
+     * @param handler Consumer of the response stream, only called for a successful response
+     * @return the response, its body is only set for an error status code
+     * @throws IOException when the instance cannot be reached (or its circuit breaker is open) or the handler fails
+     */
+    public static DevOpsHttpTransport.Response download(String urlString, String username, String password,
+            DevOpsHttpTransport.BodyHandler handler) throws IOException {
+        printDebug("download", new String[]{"urlString"}, new String[]{urlString}, Level.FINE);
+        URL url = new URL(urlString);
+        if (!url.getProtocol().startsWith("http"))
+            throw new IllegalArgumentException("Not an http(s) url: " + url);
+
+        byte[] message = (username+":"+password).getBytes(charSet);
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Authorization", "Basic "+DatatypeConverter.printBase64Binary(message));
+        headers.put("Content-Type", defaultContentType);
+        DevOpsRateLimiter.acquire(url);
+        DevOpsCircuitBreakers.acquire(url, null);
+        DevOpsHttpTransport.Response response = null;
+        try {
+            response = transport.download(url, DevOpsConstants.REST_GET_METHOD.toString(), headers, handler);
         } finally {
-            if(in != null)
-                in.close();
-            conn.disconnect();
+            DevOpsCircuitBreakers.record(url, null,
+                    response != null && !DevOpsCircuitBreakers.isUnavailable(response.getStatusCode()));
         }
-        if (result != null && !result.isEmpty()) 
-            jsonResult = JSONObject.fromObject(result);
-        if (jsonResult != null)
-            printDebug("_readResponse", new String[]{"jsonResult"}, new String[]{jsonResult.toString()}, Level.FINE);
+        printDebug("download", new String[]{"statusCode"}, new String[]{String.valueOf(response.getStatusCode())}, Level.FINE);
+        return response;
+    }
+
+    /**
+     * @return the Retry-After header of the last response read by the current thread, or null. The value is cleared.
+     */
+    public static String takeLastRetryAfter() {
+        String retryAfter = LAST_RETRY_AFTER.get();
+        LAST_RETRY_AFTER.remove();
+        return retryAfter;
+    }
+
+    private static JSONObject _readResponse(DevOpsHttpTransport.Response response) {
+        printDebug("_readResponse", null, null, Level.FINE);
+        if (response.getRetryAfter() != null)
+            LAST_RETRY_AFTER.set(response.getRetryAfter());
+        else
+            LAST_RETRY_AFTER.remove();
+        String result = response.getBody();
+        if (result == null || result.isEmpty())
+            return null;
+        JSONObject jsonResult = JSONObject.fromObject(result);
+        GenericUtils.printDebug(CommUtils.class.getName(), "_readResponse", new String[]{"jsonResult"}, Level.FINE, () -> new String[]{jsonResult.toString()});
         return jsonResult;
     }
     
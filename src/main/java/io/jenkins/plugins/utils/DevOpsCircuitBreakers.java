@@ -0,0 +1,229 @@
+package io.jenkins.plugins.utils;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import dev.failsafe.CircuitBreaker;
+import io.jenkins.plugins.config.DevOpsConfigurationEntry;
+import io.jenkins.plugins.model.DevOpsModel;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Circuit breakers in front of the ServiceNow instances, one per instance and tool id, used by {@link CommUtils}.
+ *
+ * After a number of calls in a row failed to reach the instance (connection errors, timeouts, 502, 503 or 504
+ * answers) the circuit opens: calls fail right away with an {@link IOException} instead of each one waiting out the
+ * connect timeout. Notifications failing that way stay in the outbox and are sent again later. While the circuit is
+ * open, a dummy notification is sent every open period to probe the instance, the circuit closes as soon as the
+ * instance answers. Once the open period is over a regular call can also go through as a probe.
+ *
+ * The number of failures, the open period (milliseconds) and the breakers themselves can be set with the system
+ * properties {@code io.jenkins.plugins.utils.DevOpsCircuitBreakers.failureThreshold},
+ * {@code io.jenkins.plugins.utils.DevOpsCircuitBreakers.openMillis} and
+ * {@code io.jenkins.plugins.utils.DevOpsCircuitBreakers.enabled}.
+ */
+public final class DevOpsCircuitBreakers {
+
+	private static final String PROPERTY_PREFIX = DevOpsCircuitBreakers.class.getName();
+	private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + ".enabled", "true"));
+	private static final int FAILURE_THRESHOLD = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + ".failureThreshold", 5));
+	private static final long OPEN_MILLIS = Math.max(1000, Long.getLong(PROPERTY_PREFIX + ".openMillis", 30000L));
+
+	private static final Map<String, Breaker> BREAKERS = new ConcurrentHashMap<>();
+	// set while the current thread sends a probe, the probe goes through the open circuit
+	private static final ThreadLocal<Boolean> PROBING = new ThreadLocal<>();
+
+	private static ScheduledExecutorService prober;
+
+	private DevOpsCircuitBreakers() {
+	}
+
+	/**
+	 * Lets a call to the instance through, or fails it right away when the circuit is open. A call that was let
+	 * through has to be followed by {@link #record(URL, JSONObject, boolean)}, unless it was never sent because the
+	 * local connection pool stayed full.
+	 *
+	 * @param url Url of the call
+	 * @param params Query parameters of the call, they hold the tool id
+	 * @throws IOException when the circuit is open
+	 */
+	static void acquire(URL url, JSONObject params) throws IOException {
+		if (!ENABLED || PROBING.get() != null)
+			return;
+		Breaker breaker = getBreaker(url, params);
+		if (!breaker.circuit.tryAcquirePermit()) {
+			breaker.rejected.incrementAndGet();
+			throw new IOException("ServiceNow instance " + breaker.instance + " is unavailable, calls are suspended for "
+					+ breaker.circuit.getRemainingDelay().toMillis() + " ms");
+		}
+	}
+
+	/**
+	 * @param reachable Whether the instance answered the call
+	 */
+	static void record(URL url, JSONObject params, boolean reachable) {
+		if (!ENABLED || PROBING.get() != null)
+			return;
+		Breaker breaker = getBreaker(url, params);
+		if (reachable)
+			breaker.circuit.recordSuccess();
+		else
+			breaker.circuit.recordFailure();
+	}
+
+	/**
+	 * @return whether an answer with this status code means the instance is not available
+	 */
+	static boolean isUnavailable(int statusCode) {
+		return statusCode == 502 || statusCode == 503 || statusCode == 504;
+	}
+
+	private static Breaker getBreaker(URL url, JSONObject params) {
+		String instance = DevOpsHttpTransport.getPoolKey(url);
+		String toolId = "";
+		if (params != null) {
+			if (params.containsKey(DevOpsConstants.TOOL_ID_ATTR.toString()))
+				toolId = params.optString(DevOpsConstants.TOOL_ID_ATTR.toString());
+			else if (params.containsKey(DevOpsConstants.ORCHESTRATION_TOOL_ID_ATTR.toString()))
+				toolId = params.optString(DevOpsConstants.ORCHESTRATION_TOOL_ID_ATTR.toString());
+		}
+		String toolIdKey = toolId;
+		return BREAKERS.computeIfAbsent(instance + "|" + toolId, key -> new Breaker(instance, toolIdKey));
+	}
+
+	private static synchronized ScheduledExecutorService getProber() {
+		if (prober == null) {
+			prober = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "ServiceNow DevOps circuit breaker probe");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return prober;
+	}
+
+	/**
+	 * Sends a dummy notification with a configuration of the instance (and tool id, when the calls had one).
+	 *
+	 * @return whether the instance answered, true when there is no configuration left to probe it with
+	 */
+	private static boolean probe(Breaker breaker) {
+		DevOpsConfigurationEntry probeConfig = null;
+		List<DevOpsConfigurationEntry> entries = GenericUtils.getActiveDevOpsConfigurationEntry();
+		for (DevOpsConfigurationEntry entry : entries) {
+			try {
+				if (DevOpsHttpTransport.getPoolKey(new URL(entry.getInstanceUrl())).equals(breaker.instance)
+						&& (breaker.toolId.isEmpty() || breaker.toolId.equals(entry.getToolId()))) {
+					probeConfig = entry;
+					break;
+				}
+			} catch (MalformedURLException e) {
+				// not a configuration of this instance
+			}
+		}
+		if (probeConfig == null)
+			return true;
+		JSONObject result = new DevOpsModel().sendDummyNotification(probeConfig);
+		return !DevOpsModel.isCommunicationFailure(result);
+	}
+
+	/**
+	 * @return state, failures and fast-failed calls per instance and tool id
+	 */
+	public static JSONArray getStatus() {
+		JSONArray status = new JSONArray();
+		for (Breaker breaker : new TreeMap<>(BREAKERS).values())
+			status.add(breaker.toJSON());
+		return status;
+	}
+
+	private static final class Breaker {
+		private final String instance;
+		private final String toolId;
+		private final CircuitBreaker<Object> circuit;
+		private final AtomicLong rejected = new AtomicLong();
+		private final AtomicLong opened = new AtomicLong();
+		private final AtomicLong probes = new AtomicLong();
+		private boolean probeScheduled;
+
+		Breaker(String instance, String toolId) {
+			this.instance = instance;
+			this.toolId = toolId;
+			this.circuit = CircuitBreaker.builder()
+					.withFailureThreshold(FAILURE_THRESHOLD)
+					.withDelay(Duration.ofMillis(OPEN_MILLIS))
+					.onOpen(event -> onOpen())
+					.onClose(event -> printDebug("onClose", new String[]{"instance", "toolId", "message"},
+							new String[]{instance, toolId, "Instance reachable again, circuit closed"}, Level.INFO))
+					.build();
+		}
+
+		private void onOpen() {
+			opened.incrementAndGet();
+			printDebug("onOpen", new String[]{"instance", "toolId", "message"},
+					new String[]{instance, toolId, "Instance unreachable, calls are suspended for " + OPEN_MILLIS + " ms"},
+					Level.WARNING);
+			scheduleProbe();
+		}
+
+		private synchronized void scheduleProbe() {
+			if (probeScheduled)
+				return;
+			probeScheduled = true;
+			getProber().schedule(this::runProbe, OPEN_MILLIS, TimeUnit.MILLISECONDS);
+		}
+
+		private void runProbe() {
+			synchronized (this) {
+				probeScheduled = false;
+			}
+			if (circuit.isClosed())
+				return;
+			probes.incrementAndGet();
+			boolean reachable = false;
+			PROBING.set(Boolean.TRUE);
+			try {
+				reachable = probe(this);
+			} catch (RuntimeException e) {
+				printDebug("runProbe", new String[]{"instance", "exception"}, new String[]{instance, e.getMessage()}, Level.FINE);
+			} finally {
+				PROBING.remove();
+			}
+			if (reachable) {
+				circuit.close();
+			} else {
+				circuit.open();
+				scheduleProbe();
+			}
+		}
+
+		JSONObject toJSON() {
+			JSONObject json = new JSONObject();
+			json.put("instance", instance);
+			json.put("toolId", toolId);
+			json.put("state", circuit.getState().name());
+			json.put("failures", circuit.getFailureCount());
+			json.put("remainingDelayMs", circuit.isOpen() ? circuit.getRemainingDelay().toMillis() : 0);
+			json.put("rejected", rejected.get());
+			json.put("opened", opened.get());
+			json.put("probes", probes.get());
+			return json;
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsCircuitBreakers.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -67,6 +67,7 @@ public enum DevOpsConstants {
 	TABLE_API_QUERY,
 	TABLE_API_FIELDS,
 	TABLE_API_LIMIT,
+	TABLE_API_OFFSET,
 	CONFIG_EXPORT_STEP_FUNCTION_NAME,
 	CONFIG_EXPORT_STEP_DISPLAY_NAME,
 
@@ -364,6 +365,7 @@ public enum DevOpsConstants {
 			case TABLE_API_QUERY: return "sysparm_query";
 			case TABLE_API_FIELDS: return "sysparm_fields";
 			case TABLE_API_LIMIT: return "sysparm_limit";
+			case TABLE_API_OFFSET: return "sysparm_offset";
 			case CONFIG_EXPORT_STEP_FUNCTION_NAME: return "snDevOpsConfigExport";
 			case CONFIG_EXPORT_STEP_DISPLAY_NAME: return "ServiceNow DevOps - DevOps Configuration Export";
 			case CONFIG_DEPLOYABLE_NAME: return "deployableName";
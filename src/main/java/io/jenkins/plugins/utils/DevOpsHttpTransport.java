@@ -0,0 +1,446 @@
+package io.jenkins.plugins.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
+
+import hudson.ProxyConfiguration;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * HTTP transport used by {@link CommUtils} to talk to ServiceNow instances.
+ *
+ * Connections are grouped in a pool per instance (scheme, host and port). Responses are always
+ * fully drained and closed instead of disconnected, so the JDK keep-alive cache can hand the
+ * underlying socket to the next request for the same instance instead of paying a new TCP/TLS
+ * handshake per event. Each pool caps the number of concurrent requests to the instance and
+ * keeps counters that can be inspected through {@link #getPoolMetrics()}. A request waits at most the connect
+ * timeout for its turn in a busy pool, and then fails with a {@link PoolSaturatedException}.
+ *
+ * Timeouts and pool size can be tuned with the system properties
+ * {@code io.jenkins.plugins.utils.DevOpsHttpTransport.connectTimeout},
+ * {@code io.jenkins.plugins.utils.DevOpsHttpTransport.readTimeout} (milliseconds) and
+ * {@code io.jenkins.plugins.utils.DevOpsHttpTransport.maxConnectionsPerInstance}.
+ */
+public class DevOpsHttpTransport {
+
+	private static final String PROPERTY_PREFIX = DevOpsHttpTransport.class.getName();
+
+	static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+	static final int DEFAULT_READ_TIMEOUT = 60000;
+	// matches the default idle connection cache of the JDK (http.maxConnections)
+	static final int DEFAULT_MAX_CONNECTIONS_PER_INSTANCE = 5;
+
+	private final int connectTimeout;
+	private final int readTimeout;
+	private final int maxConnectionsPerInstance;
+	private final Map<String, InstancePool> pools = new ConcurrentHashMap<>();
+
+	public DevOpsHttpTransport() {
+		this(Integer.getInteger(PROPERTY_PREFIX + ".connectTimeout", DEFAULT_CONNECT_TIMEOUT),
+				Integer.getInteger(PROPERTY_PREFIX + ".readTimeout", DEFAULT_READ_TIMEOUT),
+				Integer.getInteger(PROPERTY_PREFIX + ".maxConnectionsPerInstance", DEFAULT_MAX_CONNECTIONS_PER_INSTANCE));
+	}
+
+	public DevOpsHttpTransport(int connectTimeout, int readTimeout, int maxConnectionsPerInstance) {
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+		this.maxConnectionsPerInstance = Math.max(1, maxConnectionsPerInstance);
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	public int getMaxConnectionsPerInstance() {
+		return maxConnectionsPerInstance;
+	}
+
+	/**
+	 * Executes a single request against the pool of the url's instance.
+	 *
+	 * @param url Fully built request url (query parameters included)
+	 * @param method Rest method
+	 * @param headers Request headers, values may not be null
+	 * @param body Request payload, only written for POST and PUT
+	 * @return the response status and body
+	 * @throws IOException when the instance cannot be reached or the request times out
+	 */
+	public Response execute(URL url, String method, Map<String, String> headers, byte[] body) throws IOException {
+		return executeStreaming(url, method, headers, body != null ? RequestBody.ofBytes(body) : null);
+	}
+
+	/**
+	 * Same as {@link #execute(URL, String, Map, byte[])}, the payload is written straight to the connection.
+	 *
+	 * @param body Request payload, only written for POST and PUT
+	 */
+	public Response executeStreaming(URL url, String method, Map<String, String> headers, RequestBody body)
+			throws IOException {
+		InstancePool pool = getPool(url);
+		pool.acquire();
+		long start = System.nanoTime();
+		HttpURLConnection conn = null;
+		try {
+			conn = _open(url, method, headers);
+
+			if (body != null && (method.equals(DevOpsConstants.REST_POST_METHOD.toString())
+					|| method.equals(DevOpsConstants.REST_PUT_METHOD.toString()))) {
+				conn.setDoOutput(true);
+				conn.setFixedLengthStreamingMode(body.getLength());
+				try (OutputStream os = conn.getOutputStream()) {
+					body.writeTo(os);
+				}
+			}
+
+			int statusCode = conn.getResponseCode();
+			String responseBody = _readFully(conn, statusCode);
+			Response response = new Response(statusCode, responseBody, conn.getHeaderField("Retry-After"));
+			pool.onSuccess(System.nanoTime() - start);
+			return response;
+		} catch (IOException e) {
+			pool.onFailure(System.nanoTime() - start);
+			// a failed exchange may leave the socket in an undefined state, do not return it to the cache
+			if (conn != null)
+				conn.disconnect();
+			throw e;
+		} finally {
+			pool.release();
+		}
+	}
+
+	/**
+	 * Executes a request whose successful response is too large to be read in memory. The response stream is
+	 * handed to the handler as it is received, what the handler leaves unread is drained so the connection can
+	 * still be reused. Error responses are read as usual.
+	 *
+	 * @param url Fully built request url (query parameters included)
+	 * @param method Rest method, the request has no payload
+	 * @param headers Request headers, values may not be null
+	 * @param handler Consumer of the response stream, called only for successful responses
+	 * @return the response status, the body is null when it was handed to the handler
+	 * @throws IOException when the instance cannot be reached, the request times out or the handler fails
+	 */
+	public Response download(URL url, String method, Map<String, String> headers, BodyHandler handler)
+			throws IOException {
+		InstancePool pool = getPool(url);
+		pool.acquire();
+		long start = System.nanoTime();
+		HttpURLConnection conn = null;
+		try {
+			conn = _open(url, method, headers);
+			int statusCode = conn.getResponseCode();
+			String retryAfter = conn.getHeaderField("Retry-After");
+			Response response;
+			if (statusCode > 299) {
+				response = new Response(statusCode, _readFully(conn, statusCode), retryAfter);
+			} else {
+				try (InputStream in = conn.getInputStream()) {
+					handler.handle(in);
+					byte[] skipped = new byte[8192];
+					while (in.read(skipped) != -1) {
+						// drained for the keep-alive cache
+					}
+				}
+				response = new Response(statusCode, null, retryAfter);
+			}
+			pool.onSuccess(System.nanoTime() - start);
+			return response;
+		} catch (IOException e) {
+			pool.onFailure(System.nanoTime() - start);
+			if (conn != null)
+				conn.disconnect();
+			throw e;
+		} finally {
+			pool.release();
+		}
+	}
+
+	private HttpURLConnection _open(URL url, String method, Map<String, String> headers) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) ProxyConfiguration.open(url);
+		conn.setConnectTimeout(connectTimeout);
+		conn.setReadTimeout(readTimeout);
+		conn.setUseCaches(false);
+		conn.setRequestMethod(method);
+		for (Map.Entry<String, String> header : headers.entrySet())
+			conn.setRequestProperty(header.getKey(), header.getValue());
+		return conn;
+	}
+
+	/**
+	 * Reads the whole response (or error) stream and closes it. Reading to the end of the stream is what
+	 * allows the JDK to put the connection back into its keep-alive cache.
+	 */
+	private String _readFully(HttpURLConnection conn, int statusCode) throws IOException {
+		// for some SUCCESS cases, the response code is 201 from app-devops.
+		InputStream in = statusCode > 299 ? conn.getErrorStream() : conn.getInputStream();
+		if (in == null)
+			return null;
+		try {
+			return org.apache.commons.io.IOUtils.toString(in, StandardCharsets.UTF_8);
+		} finally {
+			in.close();
+		}
+	}
+
+	private InstancePool getPool(URL url) {
+		return pools.computeIfAbsent(getPoolKey(url), key -> new InstancePool(key, maxConnectionsPerInstance, connectTimeout));
+	}
+
+	static String getPoolKey(URL url) {
+		int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+		return url.getProtocol().toLowerCase() + "://" + url.getHost().toLowerCase() + ":" + port;
+	}
+
+	/**
+	 * @return one entry per instance pool with its request, failure, in flight and latency counters
+	 */
+	public JSONArray getPoolMetrics() {
+		JSONArray metrics = new JSONArray();
+		for (InstancePool pool : pools.values())
+			metrics.add(pool.toJSON());
+		return metrics;
+	}
+
+	/**
+	 * Request payload written to the connection output stream, so large payloads are not copied into an
+	 * intermediate byte array. Text is always encoded as UTF-8.
+	 */
+	public abstract static class RequestBody {
+
+		/**
+		 * @return size of the payload in bytes
+		 */
+		public abstract long getLength();
+
+		public abstract void writeTo(OutputStream out) throws IOException;
+
+		public static RequestBody ofBytes(byte[] bytes) {
+			return new RequestBody() {
+				@Override
+				public long getLength() {
+					return bytes.length;
+				}
+
+				@Override
+				public void writeTo(OutputStream out) throws IOException {
+					out.write(bytes);
+				}
+
+				@Override
+				public String toString() {
+					return new String(bytes, StandardCharsets.UTF_8);
+				}
+			};
+		}
+
+		public static RequestBody ofString(String data) {
+			return ofStrings(Collections.singletonList(data));
+		}
+
+		/**
+		 * @param parts Pieces of the payload, written one after the other without being concatenated
+		 */
+		public static RequestBody ofStrings(List<String> parts) {
+			return new RequestBody() {
+				@Override
+				public long getLength() {
+					long length = 0;
+					for (String part : parts)
+						length += utf8Length(part);
+					return length;
+				}
+
+				@Override
+				public void writeTo(OutputStream out) throws IOException {
+					Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+					for (String part : parts)
+						writer.write(part);
+					writer.flush();
+				}
+
+				@Override
+				public String toString() {
+					return String.join("", parts);
+				}
+			};
+		}
+
+		/**
+		 * @return the gzip encoding of the payload. Compressed payloads are small, they are kept in memory so
+		 * their length is known and the original payload can still be sent if the instance rejects them.
+		 */
+		public static RequestBody gzip(RequestBody body) throws IOException {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 8192)) {
+				body.writeTo(gzip);
+			}
+			return ofBytes(buffer.toByteArray());
+		}
+
+		// number of bytes of the UTF-8 encoding, unpaired surrogates are encoded as '?' like String.getBytes does
+		static long utf8Length(String s) {
+			long length = 0;
+			for (int i = 0; i < s.length(); i++) {
+				char c = s.charAt(i);
+				if (c < 0x80)
+					length++;
+				else if (c < 0x800)
+					length += 2;
+				else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+					length += 4;
+					i++;
+				} else if (Character.isSurrogate(c))
+					length++;
+				else
+					length += 3;
+			}
+			return length;
+		}
+	}
+
+	/**
+	 * Consumer of a successful response stream, see {@link #download(URL, String, Map, BodyHandler)}.
+	 */
+	@FunctionalInterface
+	public interface BodyHandler {
+		/**
+		 * @param in Response stream, closed by the transport
+		 */
+		void handle(InputStream in) throws IOException;
+	}
+
+	public static final class Response {
+		private final int statusCode;
+		private final String body;
+		private final String retryAfter;
+
+		public Response(int statusCode, String body, String retryAfter) {
+			this.statusCode = statusCode;
+			this.body = body;
+			this.retryAfter = retryAfter;
+		}
+
+		public int getStatusCode() {
+			return statusCode;
+		}
+
+		public String getBody() {
+			return body;
+		}
+
+		public String getRetryAfter() {
+			return retryAfter;
+		}
+	}
+
+	/**
+	 * Thrown when every connection of the instance's pool stayed busy for the whole wait. The request was not sent,
+	 * this says nothing about the health of the instance.
+	 */
+	public static final class PoolSaturatedException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		PoolSaturatedException(String message) {
+			super(message);
+		}
+	}
+
+	private static final class InstancePool {
+		private final String key;
+		private final int maxConnections;
+		private final int acquireTimeout;
+		private final Semaphore permits;
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger waiting = new AtomicInteger();
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong saturated = new AtomicLong();
+		private final AtomicLong totalLatencyNanos = new AtomicLong();
+		private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+		InstancePool(String key, int maxConnections, int acquireTimeout) {
+			this.key = key;
+			this.maxConnections = maxConnections;
+			this.acquireTimeout = acquireTimeout;
+			this.permits = new Semaphore(maxConnections, true);
+		}
+
+		void acquire() throws IOException {
+			waiting.incrementAndGet();
+			try {
+				// waiting for a busy pool counts against the connect timeout, 0 waits forever as for the connection
+				if (acquireTimeout <= 0)
+					permits.acquire();
+				else if (!permits.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+					saturated.incrementAndGet();
+					throw new PoolSaturatedException("Timed out waiting for a connection to " + key + " after " + acquireTimeout + " ms");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for a connection to " + key, e);
+			} finally {
+				waiting.decrementAndGet();
+			}
+			inFlight.incrementAndGet();
+		}
+
+		void release() {
+			inFlight.decrementAndGet();
+			permits.release();
+		}
+
+		void onSuccess(long latencyNanos) {
+			record(latencyNanos);
+		}
+
+		void onFailure(long latencyNanos) {
+			failures.incrementAndGet();
+			record(latencyNanos);
+			GenericUtils.printDebug(DevOpsHttpTransport.class.getName(), "execute",
+					new String[]{"instance", "failures"}, new String[]{key, String.valueOf(failures.get())}, Level.FINE);
+		}
+
+		private void record(long latencyNanos) {
+			requests.incrementAndGet();
+			totalLatencyNanos.addAndGet(latencyNanos);
+			maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+		}
+
+		JSONObject toJSON() {
+			long count = requests.get();
+			JSONObject json = new JSONObject();
+			json.put("instance", key);
+			json.put("maxConnections", maxConnections);
+			json.put("inFlight", inFlight.get());
+			json.put("waiting", waiting.get());
+			json.put("requests", count);
+			json.put("failures", failures.get());
+			json.put("saturated", saturated.get());
+			json.put("avgLatencyMs", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / count));
+			json.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+			return json;
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package io.jenkins.plugins.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Copies one field of a JSON document from a stream to a writer, without building the document in memory, for
+ * ServiceNow answers whose payload is wrapped in an envelope (for instance {@code result.exporter_result}) and can
+ * be hundreds of megabytes.
+ *
+ * The document is read through a fixed size buffer. A string value is written decoded, an object, array or
+ * literal value is written as compact JSON. Other fields are skipped without being kept.
+ */
+public final class DevOpsJsonFieldReader {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Destination of the value, opened only once the field is found.
+	 */
+	@FunctionalInterface
+	public interface Target {
+		Writer open() throws IOException;
+	}
+
+	private final Reader in;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+	private int limit;
+	private long written;
+
+	private DevOpsJsonFieldReader(Reader in) {
+		this.in = in;
+	}
+
+	/**
+	 * @param in JSON document, read up to the end of the field
+	 * @param path Keys of the objects leading to the field, starting from the top level object
+	 * @param escapeQuotes Whether quotes of a value that is not an object are written escaped
+	 * @param target Destination of the value, it is flushed but not closed
+	 * @return the number of characters written, -1 when the document has no such field
+	 * @throws IOException when the document cannot be read, is not valid JSON, or the value cannot be written
+	 */
+	public static long copy(InputStream in, String[] path, boolean escapeQuotes, Target target) throws IOException {
+		DevOpsJsonFieldReader reader = new DevOpsJsonFieldReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		if (reader.peekToken() == -1)
+			return -1;
+		return reader.find(path, 0, escapeQuotes, target);
+	}
+
+	private long find(String[] path, int depth, boolean escapeQuotes, Target target) throws IOException {
+		if (peekToken() != '{')
+			return -1;
+		position++;
+		if (peekToken() == '}')
+			return -1;
+		while (true) {
+			if (peekToken() != '"')
+				throw syntaxError("a key");
+			position++;
+			String key = readKey();
+			expect(':');
+			if (key.equals(path[depth])) {
+				if (depth == path.length - 1)
+					return copyValue(escapeQuotes, target);
+				return find(path, depth + 1, escapeQuotes, target);
+			}
+			skipValue();
+			int c = nextToken();
+			if (c == '}')
+				return -1;
+			if (c != ',')
+				throw syntaxError("',' or '}'");
+		}
+	}
+
+	private long copyValue(boolean escapeQuotes, Target target) throws IOException {
+		int c = peekToken();
+		if (c == -1)
+			throw new EOFException("End of JSON document before the value");
+		Writer out = target.open();
+		if (c == '"') {
+			position++;
+			copyString(out, escapeQuotes);
+		} else {
+			copyCompact(out, escapeQuotes && c != '{');
+		}
+		out.flush();
+		return written;
+	}
+
+	private void copyString(Writer out, boolean escapeQuotes) throws IOException {
+		while (true) {
+			char c = nextChar();
+			if (c == '"')
+				return;
+			if (c == '\\')
+				c = readEscape();
+			if (c == '"' && escapeQuotes)
+				write(out, '\\');
+			write(out, c);
+		}
+	}
+
+	// objects and arrays are written as they are received, without the white space between tokens
+	private void copyCompact(Writer out, boolean escapeQuotes) throws IOException {
+		int depth = 0;
+		boolean inString = false;
+		while (true) {
+			int c = read();
+			if (c == -1) {
+				if (depth == 0 && !inString)
+					return;
+				throw new EOFException("End of JSON document inside the value");
+			}
+			if (inString) {
+				if (c == '\\') {
+					write(out, '\\');
+					c = nextChar();
+				} else if (c == '"') {
+					inString = false;
+				}
+			} else if (c == '"') {
+				inString = true;
+			} else if (c == '{' || c == '[') {
+				depth++;
+			} else if (c == '}' || c == ']' || c == ',') {
+				if (depth == 0) {
+					position--;
+					return;
+				}
+				if (c != ',')
+					depth--;
+			} else if (Character.isWhitespace(c)) {
+				if (depth == 0 && written > 0)
+					return;
+				continue;
+			}
+			if (c == '"' && escapeQuotes)
+				write(out, '\\');
+			write(out, (char) c);
+			if (depth == 0 && !inString && (c == '}' || c == ']'))
+				return;
+		}
+	}
+
+	private void skipValue() throws IOException {
+		int c = peekToken();
+		if (c == '"') {
+			position++;
+			skipString();
+			return;
+		}
+		if (c != '{' && c != '[') {
+			// literal, ends at the next delimiter
+			while ((c = peek()) != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c))
+				position++;
+			return;
+		}
+		int depth = 0;
+		do {
+			c = nextChar();
+			if (c == '"')
+				skipString();
+			else if (c == '{' || c == '[')
+				depth++;
+			else if (c == '}' || c == ']')
+				depth--;
+		} while (depth > 0);
+	}
+
+	private void skipString() throws IOException {
+		char c;
+		while ((c = nextChar()) != '"') {
+			if (c == '\\')
+				nextChar();
+		}
+	}
+
+	private String readKey() throws IOException {
+		StringBuilder key = new StringBuilder();
+		char c;
+		while ((c = nextChar()) != '"')
+			key.append(c == '\\' ? readEscape() : c);
+		return key.toString();
+	}
+
+	private char readEscape() throws IOException {
+		char c = nextChar();
+		switch (c) {
+			case 'b': return '\b';
+			case 'f': return '\f';
+			case 'n': return '\n';
+			case 'r': return '\r';
+			case 't': return '\t';
+			case 'u':
+				int value = 0;
+				for (int i = 0; i < 4; i++) {
+					int digit = Character.digit(nextChar(), 16);
+					if (digit < 0)
+						throw syntaxError("a unicode escape");
+					value = value * 16 + digit;
+				}
+				return (char) value;
+			default:
+				// '"', '\\' and '/'
+				return c;
+		}
+	}
+
+	private void expect(char expected) throws IOException {
+		if (nextToken() != expected)
+			throw syntaxError("'" + expected + "'");
+	}
+
+	private void write(Writer out, char c) throws IOException {
+		out.write(c);
+		written++;
+	}
+
+	// next character that is not white space, not consumed
+	private int peekToken() throws IOException {
+		int c;
+		while ((c = peek()) != -1 && Character.isWhitespace(c))
+			position++;
+		return c;
+	}
+
+	private int nextToken() throws IOException {
+		int c = peekToken();
+		if (c != -1)
+			position++;
+		return c;
+	}
+
+	private char nextChar() throws IOException {
+		int c = read();
+		if (c == -1)
+			throw new EOFException("End of JSON document inside a string or value");
+		return (char) c;
+	}
+
+	private int read() throws IOException {
+		int c = peek();
+		if (c != -1)
+			position++;
+		return c;
+	}
+
+	private int peek() throws IOException {
+		if (position == limit) {
+			limit = in.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position];
+	}
+
+	private IOException syntaxError(String expected) {
+		return new IOException("Invalid JSON document, expected " + expected);
+	}
+}
@@ -0,0 +1,108 @@
+package io.jenkins.plugins.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent read-only ServiceNow queries side by side on a small controller wide pool, so a step that needs
+ * many of them does not pay one round trip after the other, and a burst of steps cannot open an unbounded number of
+ * connections to the instance. Steps that send requests with their own parallelism, like the configuration file
+ * uploads of {@code snDevOpsConfigUpload}, run them on a pool of their own (see {@link #newExecutor(String, int)}). The pool size (4 by default) can be set with the system property
+ * {@code io.jenkins.plugins.utils.DevOpsParallelFetcher.threads}.
+ *
+ * Tasks must not submit work to the fetcher themselves.
+ */
+public final class DevOpsParallelFetcher {
+
+	private static final int DEFAULT_THREADS = 4;
+
+	private static ThreadPoolExecutor executor;
+
+	private DevOpsParallelFetcher() {
+	}
+
+	/**
+	 * Runs the tasks and waits for all of them. A single task runs on the calling thread.
+	 *
+	 * @return the results, in the order of the tasks
+	 * @throws InterruptedException when the calling thread is interrupted, the tasks still running are cancelled
+	 * @throws IOException when a task failed with a checked exception, runtime exceptions are rethrown as is
+	 */
+	public static <T> List<T> fetchAll(List<? extends Callable<T>> tasks) throws InterruptedException, IOException {
+		return fetchAll(getExecutor(), tasks);
+	}
+
+	/**
+	 * Same as {@link #fetchAll(List)}, on the given executor.
+	 */
+	public static <T> List<T> fetchAll(ExecutorService executor, List<? extends Callable<T>> tasks)
+			throws InterruptedException, IOException {
+		if (tasks.isEmpty())
+			return Collections.emptyList();
+		if (tasks.size() == 1)
+			return Collections.singletonList(call(tasks.get(0)));
+
+		List<Future<T>> futures = executor.invokeAll(tasks);
+		List<T> results = new ArrayList<>(futures.size());
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (ExecutionException e) {
+				throw rethrow(e.getCause());
+			}
+		}
+		return results;
+	}
+
+	private static <T> T call(Callable<T> task) throws InterruptedException, IOException {
+		try {
+			return task.call();
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			throw rethrow(e);
+		}
+	}
+
+	private static IOException rethrow(Throwable cause) {
+		if (cause instanceof RuntimeException)
+			throw (RuntimeException) cause;
+		if (cause instanceof Error)
+			throw (Error) cause;
+		if (cause instanceof IOException)
+			return (IOException) cause;
+		return new IOException(cause);
+	}
+
+	private static synchronized ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			int threads = Math.max(1, Integer.getInteger(DevOpsParallelFetcher.class.getName() + ".threads", DEFAULT_THREADS));
+			executor = newExecutor("ServiceNow DevOps fetcher", threads);
+		}
+		return executor;
+	}
+
+	/**
+	 * @return a pool of daemon threads whose idle threads end after a minute, to be shut down by the caller
+	 */
+	public static ThreadPoolExecutor newExecutor(String name, int threads) {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, name + " " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+}
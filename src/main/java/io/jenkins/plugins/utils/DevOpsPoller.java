@@ -0,0 +1,284 @@
+package io.jenkins.plugins.utils;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Polls a long running ServiceNow operation (config upload or export, pipeline registration, snapshot validation)
+ * until it is over.
+ *
+ * The delay between two attempts starts at an initial value and is multiplied every few attempts up to a maximum,
+ * with a random jitter so that parallel builds do not poll in lock step. A Retry-After header on the last response
+ * takes precedence over the computed delay. Polling ends after a number of attempts or at an overall deadline,
+ * whichever comes first, and an interrupt of the polling thread (the step is stopped) ends it with an
+ * {@link InterruptedException}. Outcome, attempts and latency of the polls are kept per operation, see
+ * {@link #getMetrics()}.
+ *
+ * Pollers are immutable and can be shared, each poll has its own {@link Schedule}.
+ */
+public final class DevOpsPoller {
+
+	public enum Outcome {
+		/** the operation reached a final state, successful or not */
+		COMPLETED,
+		/** attempts or deadline exhausted while the operation was still pending */
+		EXHAUSTED,
+		/** the polling thread was interrupted */
+		CANCELLED,
+		/** an attempt failed with an exception */
+		FAILED
+	}
+
+	@FunctionalInterface
+	public interface Attempt<T, E extends Exception> {
+		/**
+		 * @param attempt Number of the attempt, starting at 1
+		 */
+		T call(int attempt) throws E;
+	}
+
+	private static final double DEFAULT_JITTER = 0.2;
+	private static final Map<String, Metrics> METRICS = new ConcurrentHashMap<>();
+
+	private final String operation;
+	private final long initialDelay;
+	private final long maxDelay;
+	private final int maxAttempts;
+	private final long deadline;
+	private final double multiplier;
+	private final int attemptsPerStep;
+	private final long firstDelay;
+	private final double jitter;
+
+	/**
+	 * Exponential backoff doubling the delay after each attempt.
+	 *
+	 * @param operation Name of the operation in the metrics
+	 * @param initialDelay Delay after the first attempt, in milliseconds
+	 * @param maxDelay Upper bound of the delay, in milliseconds
+	 * @param maxAttempts Maximum number of attempts
+	 * @param deadline Time after which no attempt is started, in milliseconds from the start of the poll
+	 */
+	public DevOpsPoller(String operation, long initialDelay, long maxDelay, int maxAttempts, long deadline) {
+		this(operation, initialDelay, maxDelay, maxAttempts, deadline, 2, 1, 0, DEFAULT_JITTER);
+	}
+
+	private DevOpsPoller(String operation, long initialDelay, long maxDelay, int maxAttempts, long deadline,
+			double multiplier, int attemptsPerStep, long firstDelay, double jitter) {
+		this.operation = operation;
+		this.initialDelay = Math.max(0, initialDelay);
+		this.maxDelay = Math.max(this.initialDelay, maxDelay);
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.deadline = deadline;
+		this.multiplier = Math.max(1, multiplier);
+		this.attemptsPerStep = Math.max(1, attemptsPerStep);
+		this.firstDelay = Math.max(0, firstDelay);
+		this.jitter = Math.min(1, Math.max(0, jitter));
+	}
+
+	/**
+	 * @param multiplier Factor applied to the delay
+	 * @param attemptsPerStep Number of attempts between two increases of the delay
+	 */
+	public DevOpsPoller withBackoff(double multiplier, int attemptsPerStep) {
+		return new DevOpsPoller(operation, initialDelay, maxDelay, maxAttempts, deadline, multiplier, attemptsPerStep,
+				firstDelay, jitter);
+	}
+
+	/**
+	 * @param firstDelay Wait before the first attempt, in milliseconds, for operations that are never over right away
+	 */
+	public DevOpsPoller withFirstDelay(long firstDelay) {
+		return new DevOpsPoller(operation, initialDelay, maxDelay, maxAttempts, deadline, multiplier, attemptsPerStep,
+				firstDelay, jitter);
+	}
+
+	/**
+	 * @param jitter Part of each delay that is randomized, between 0 and 1
+	 */
+	public DevOpsPoller withJitter(double jitter) {
+		return new DevOpsPoller(operation, initialDelay, maxDelay, maxAttempts, deadline, multiplier, attemptsPerStep,
+				firstDelay, jitter);
+	}
+
+	/**
+	 * Calls the attempt until its result is no longer pending, or until attempts or deadline are exhausted.
+	 *
+	 * @return the result of the last attempt, which is still pending when the poll is exhausted
+	 * @throws InterruptedException when the thread is interrupted while waiting
+	 */
+	public <T, E extends Exception> T poll(Attempt<T, E> attempt, Predicate<T> pending) throws E, InterruptedException {
+		Schedule schedule = start();
+		Outcome outcome = Outcome.FAILED;
+		try {
+			if (firstDelay > 0)
+				Thread.sleep(Math.min(firstDelay, Math.max(0, deadline)));
+			while (true) {
+				CommUtils.takeLastRetryAfter();
+				T result = attempt.call(schedule.getAttempts() + 1);
+				if (!pending.test(result)) {
+					outcome = Outcome.COMPLETED;
+					return result;
+				}
+				long delay = schedule.next(CommUtils.takeLastRetryAfter());
+				if (delay < 0) {
+					outcome = Outcome.EXHAUSTED;
+					return result;
+				}
+				Thread.sleep(delay);
+			}
+		} catch (InterruptedException e) {
+			outcome = Outcome.CANCELLED;
+			throw e;
+		} finally {
+			schedule.finish(outcome);
+		}
+	}
+
+	/**
+	 * Starts a poll driven by the caller, for callers polling several operations together.
+	 */
+	public Schedule start() {
+		return new Schedule();
+	}
+
+	/**
+	 * State of one poll.
+	 */
+	public final class Schedule {
+		private final long started = System.nanoTime();
+		private long delay = initialDelay;
+		private int attempts;
+		private boolean finished;
+
+		/**
+		 * Records an attempt whose operation is still pending.
+		 *
+		 * @param retryAfter Retry-After header of the response, or null
+		 * @return the delay before the next attempt in milliseconds, or -1 when attempts or deadline are exhausted
+		 */
+		public long next(String retryAfter) {
+			attempts++;
+			long remaining = deadline - getElapsed();
+			if (attempts >= maxAttempts || remaining <= 0)
+				return -1;
+
+			long next = delay;
+			if (jitter > 0 && next > 0)
+				next -= (long) (next * jitter * ThreadLocalRandom.current().nextDouble());
+			if (attempts % attemptsPerStep == 0)
+				delay = Math.min(maxDelay, (long) (delay * multiplier));
+
+			long hinted = parseRetryAfter(retryAfter);
+			if (hinted >= 0)
+				next = hinted;
+			return Math.min(next, remaining);
+		}
+
+		public int getAttempts() {
+			return attempts;
+		}
+
+		/**
+		 * @return milliseconds since the start of the poll
+		 */
+		public long getElapsed() {
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+		}
+
+		/**
+		 * Records the outcome of the poll in the metrics, only the first call counts. A completed or failed outcome
+		 * counts as the last attempt.
+		 */
+		public synchronized void finish(Outcome outcome) {
+			if (finished)
+				return;
+			finished = true;
+			if (outcome == Outcome.COMPLETED || outcome == Outcome.FAILED)
+				attempts++;
+			long elapsed = getElapsed();
+			METRICS.computeIfAbsent(operation, k -> new Metrics()).record(outcome, attempts, elapsed);
+			printDebug("finish", new String[]{"operation", "outcome", "attempts", "elapsed"},
+					new String[]{operation, outcome.name(), String.valueOf(attempts), String.valueOf(elapsed)}, Level.FINE);
+		}
+	}
+
+	/**
+	 * @return the Retry-After header value in milliseconds, or -1 when absent or invalid
+	 */
+	static long parseRetryAfter(String retryAfter) {
+		if (retryAfter == null || retryAfter.trim().isEmpty())
+			return -1;
+		String value = retryAfter.trim();
+		try {
+			return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value)));
+		} catch (NumberFormatException e) {
+			// not delta seconds, may be an HTTP date
+		}
+		try {
+			ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+			return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+		} catch (DateTimeParseException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * @return polls, outcomes, attempts and latency (average and maximum, in milliseconds) per operation
+	 */
+	public static JSONObject getMetrics() {
+		JSONObject metrics = new JSONObject();
+		for (Map.Entry<String, Metrics> entry : new TreeMap<>(METRICS).entrySet())
+			metrics.put(entry.getKey(), entry.getValue().toJSON());
+		return metrics;
+	}
+
+	private static final class Metrics {
+		private final AtomicLong[] outcomes = new AtomicLong[Outcome.values().length];
+		private final AtomicLong polls = new AtomicLong();
+		private final AtomicLong attempts = new AtomicLong();
+		private final AtomicLong totalMillis = new AtomicLong();
+		private final AtomicLong maxMillis = new AtomicLong();
+
+		Metrics() {
+			for (int i = 0; i < outcomes.length; i++)
+				outcomes[i] = new AtomicLong();
+		}
+
+		void record(Outcome outcome, int pollAttempts, long elapsed) {
+			outcomes[outcome.ordinal()].incrementAndGet();
+			polls.incrementAndGet();
+			attempts.addAndGet(pollAttempts);
+			totalMillis.addAndGet(elapsed);
+			maxMillis.accumulateAndGet(elapsed, Math::max);
+		}
+
+		JSONObject toJSON() {
+			JSONObject json = new JSONObject();
+			long count = polls.get();
+			json.put("polls", count);
+			for (Outcome outcome : Outcome.values())
+				json.put(outcome.name().toLowerCase(), outcomes[outcome.ordinal()].get());
+			json.put("attempts", attempts.get());
+			json.put("averageMillis", count == 0 ? 0 : totalMillis.get() / count);
+			json.put("maxMillis", maxMillis.get());
+			return json;
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsPoller.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -0,0 +1,179 @@
+package io.jenkins.plugins.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Token bucket per ServiceNow instance, in front of every call made by {@link CommUtils}, so a burst of events from
+ * large parallel pipelines is smoothed to the rate the instance accepts instead of running into its API rate limits.
+ *
+ * Calls go through one of two lanes. Telemetry (the {@code /devops/tool/...} endpoints: stage notifications, test
+ * results, bulk notifications and security results) only takes a token while no change control call is waiting and
+ * a reserve of tokens is left. Everything else (change control, change info polling, tracking checks, configuration
+ * steps) can use the reserve and is served first. A call waits for its token, a call still waiting after the
+ * maximum wait fails with an {@link IOException} like an unreachable instance, a notification stays in the outbox.
+ *
+ * The rate, burst, reserve and maximum wait can be set with the system properties
+ * {@code io.jenkins.plugins.utils.DevOpsRateLimiter.permitsPerSecond}, {@code .burst}, {@code .controlReserve} and
+ * {@code .maxWaitMillis}, the limiter is turned off with {@code io.jenkins.plugins.utils.DevOpsRateLimiter.enabled}.
+ */
+public final class DevOpsRateLimiter {
+
+	public enum Lane {
+		CONTROL, TELEMETRY
+	}
+
+	private static final String PROPERTY_PREFIX = DevOpsRateLimiter.class.getName();
+	private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + ".enabled", "true"));
+	private static final double PERMITS_PER_SECOND = Math.max(0.1,
+			Double.parseDouble(System.getProperty(PROPERTY_PREFIX + ".permitsPerSecond", "25")));
+	private static final int BURST = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + ".burst", 50));
+	private static final int CONTROL_RESERVE = Math.max(0, Math.min(BURST - 1,
+			Integer.getInteger(PROPERTY_PREFIX + ".controlReserve", 10)));
+	private static final long MAX_WAIT_MILLIS = Math.max(0, Long.getLong(PROPERTY_PREFIX + ".maxWaitMillis", 60000L));
+
+	private static final String TELEMETRY_PATH = "/devops/tool/";
+
+	private static final Map<String, Bucket> BUCKETS = new ConcurrentHashMap<>();
+
+	private DevOpsRateLimiter() {
+	}
+
+	/**
+	 * Waits for a token of the instance the url points to.
+	 *
+	 * @param url Url of the call, its path decides the lane
+	 * @throws IOException when no token was available within the maximum wait, or the wait was interrupted
+	 */
+	static void acquire(URL url) throws IOException {
+		if (!ENABLED)
+			return;
+		String instance = DevOpsHttpTransport.getPoolKey(url);
+		Bucket bucket = BUCKETS.computeIfAbsent(instance, key -> new Bucket(key, PERMITS_PER_SECOND, BURST, CONTROL_RESERVE));
+		bucket.acquire(getLane(url), MAX_WAIT_MILLIS);
+	}
+
+	static Lane getLane(URL url) {
+		return url.getPath().contains(TELEMETRY_PATH) ? Lane.TELEMETRY : Lane.CONTROL;
+	}
+
+	/**
+	 * @return tokens left, calls let through, throttled (had to wait) and rejected, per instance and lane
+	 */
+	public static JSONArray getStatus() {
+		JSONArray status = new JSONArray();
+		for (Bucket bucket : new TreeMap<>(BUCKETS).values())
+			status.add(bucket.toJSON());
+		return status;
+	}
+
+	static final class Bucket {
+		private final String instance;
+		private final double permitsPerNano;
+		private final int burst;
+		private final int reserve;
+		private double tokens;
+		private long refilledAt;
+		private int controlWaiting;
+		private final long[] granted = new long[Lane.values().length];
+		private final long[] throttled = new long[Lane.values().length];
+		private final long[] rejected = new long[Lane.values().length];
+		private final long[] waitNanos = new long[Lane.values().length];
+
+		Bucket(String instance, double permitsPerSecond, int burst, int reserve) {
+			this.instance = instance;
+			this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+			this.burst = burst;
+			this.reserve = reserve;
+			this.tokens = burst;
+			this.refilledAt = System.nanoTime();
+		}
+
+		synchronized void acquire(Lane lane, long maxWaitMillis) throws IOException {
+			long start = System.nanoTime();
+			long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+			boolean control = lane == Lane.CONTROL;
+			// telemetry leaves the reserve to change control
+			double needed = control ? 1 : 1 + reserve;
+			if (control)
+				controlWaiting++;
+			try {
+				while (true) {
+					long now = System.nanoTime();
+					refill(now);
+					if (tokens >= needed && (control || controlWaiting == 0)) {
+						tokens--;
+						granted[lane.ordinal()]++;
+						long waited = now - start;
+						if (waited > TimeUnit.MILLISECONDS.toNanos(1)) {
+							throttled[lane.ordinal()]++;
+							waitNanos[lane.ordinal()] += waited;
+						}
+						return;
+					}
+					long remaining = deadline - now;
+					if (remaining <= 0) {
+						rejected[lane.ordinal()]++;
+						printDebug("acquire", new String[]{"instance", "lane", "message"},
+								new String[]{instance, lane.name(), "No token within " + maxWaitMillis + " ms"}, Level.WARNING);
+						throw new IOException("Rate limit of ServiceNow instance " + instance + " reached, no "
+								+ lane.name().toLowerCase() + " call allowed within " + maxWaitMillis + " ms");
+					}
+					// woken up earlier when a change control call is served
+					long refillNanos = (long) Math.ceil(Math.max(needed - tokens, 0) / permitsPerNano);
+					long timeout = Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.min(refillNanos, remaining));
+					try {
+						TimeUnit.NANOSECONDS.timedWait(this, timeout);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException("Interrupted while waiting for the rate limit of " + instance);
+					}
+				}
+			} finally {
+				if (control) {
+					controlWaiting--;
+					notifyAll();
+				}
+			}
+		}
+
+		private void refill(long now) {
+			tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+			refilledAt = now;
+		}
+
+		synchronized JSONObject toJSON() {
+			refill(System.nanoTime());
+			JSONObject json = new JSONObject();
+			json.put("instance", instance);
+			json.put("tokens", (long) tokens);
+			json.put("burst", burst);
+			json.put("controlReserve", reserve);
+			JSONObject lanes = new JSONObject();
+			for (Lane lane : Lane.values()) {
+				int i = lane.ordinal();
+				JSONObject counters = new JSONObject();
+				counters.put("granted", granted[i]);
+				counters.put("throttled", throttled[i]);
+				counters.put("rejected", rejected[i]);
+				counters.put("averageWaitMillis", throttled[i] > 0 ? TimeUnit.NANOSECONDS.toMillis(waitNanos[i] / throttled[i]) : 0);
+				lanes.put(lane.name().toLowerCase(), counters);
+			}
+			json.put("lanes", lanes);
+			return json;
+		}
+	}
+
+	private static void printDebug(String methodName, String[] variables, String[] values, Level logLevel) {
+		GenericUtils.printDebug(DevOpsRateLimiter.class.getName(), methodName, variables, values, logLevel);
+	}
+}
@@ -0,0 +1,202 @@
+package io.jenkins.plugins.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.tools.ant.types.FileSet;
+
+import hudson.Util;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Finds the test reports of a stage in a workspace and reads them where the workspace is, so a build running on an
+ * agent costs one call over the channel instead of one per report (and the workspace no longer has to be on the
+ * controller's disk).
+ *
+ * Reports matching the Ant pattern and modified after the start of the stage are read one after the other into a
+ * single gzip stream, the controller gets them back as a {@link Bundle}. Several groups of patterns (one per
+ * configuration tracking the pipeline) can be collected together, a report matched by several groups is read once.
+ */
+public final class DevOpsTestReportCollector extends MasterToSlaveFileCallable<DevOpsTestReportCollector.Bundle> {
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> includes;
+	private final long modifiedAfter;
+
+	/**
+	 * @param includes Comma separated Ant patterns, relative to the workspace
+	 * @param modifiedAfter Reports modified at or before this time (milliseconds) are left out
+	 */
+	public DevOpsTestReportCollector(String includes, long modifiedAfter) {
+		this(Collections.singletonList(includes), modifiedAfter);
+	}
+
+	/**
+	 * @param includes Groups of comma separated Ant patterns, relative to the workspace. Empty groups match nothing.
+	 * @param modifiedAfter Reports modified at or before this time (milliseconds) are left out
+	 */
+	public DevOpsTestReportCollector(List<String> includes, long modifiedAfter) {
+		this.includes = new ArrayList<>(includes);
+		this.modifiedAfter = modifiedAfter;
+	}
+
+	@Override
+	public Bundle invoke(File workspace, VirtualChannel channel) throws IOException {
+		int scanned = 0;
+		// reports already read, by path relative to the workspace
+		Map<String, Integer> indexes = new HashMap<>();
+		int[][] groups = new int[includes.size()][];
+		List<String> names = new ArrayList<>();
+		List<Long> lastModified = new ArrayList<>();
+		List<Long> lengths = new ArrayList<>();
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 8192)) {
+			for (int group = 0; group < groups.length; group++) {
+				String patterns = includes.get(group);
+				if (patterns == null || patterns.replace(",", "").trim().isEmpty()) {
+					groups[group] = new int[0];
+					continue;
+				}
+				FileSet fs = Util.createFileSet(workspace, patterns);
+				String[] files = fs.getDirectoryScanner().getIncludedFiles();
+				scanned += files.length;
+				List<Integer> members = new ArrayList<>();
+				for (String relPath : files) {
+					Integer index = indexes.get(relPath);
+					if (index == null) {
+						File report = new File(workspace, relPath);
+						long modified = report.lastModified();
+						if (modified <= modifiedAfter) {
+							indexes.put(relPath, -1);
+							continue;
+						}
+						index = names.size();
+						indexes.put(relPath, index);
+						names.add(report.getName());
+						lastModified.add(modified);
+						// the number of bytes actually copied, the report may still be growing
+						lengths.add(Files.copy(report.toPath(), gzip));
+					}
+					if (index >= 0)
+						members.add(index);
+				}
+				groups[group] = members.stream().mapToInt(Integer::intValue).toArray();
+			}
+		}
+		return new Bundle(scanned, names, lastModified, lengths, groups, buffer.toByteArray());
+	}
+
+	/**
+	 * Reports read from a workspace, their content is only decompressed by {@link #getReports()}.
+	 */
+	public static final class Bundle implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final int scanned;
+		private final String[] names;
+		private final long[] lastModified;
+		private final long[] lengths;
+		private final int[][] groups;
+		private final byte[] content;
+
+		Bundle(int scanned, List<String> names, List<Long> lastModified, List<Long> lengths, int[][] groups,
+				byte[] content) {
+			this.scanned = scanned;
+			this.names = names.toArray(new String[0]);
+			this.lastModified = new long[names.size()];
+			this.lengths = new long[names.size()];
+			for (int i = 0; i < this.names.length; i++) {
+				this.lastModified[i] = lastModified.get(i);
+				this.lengths[i] = lengths.get(i);
+			}
+			this.groups = groups;
+			this.content = content;
+		}
+
+		/**
+		 * @return the number of files matching the patterns, whatever their modification time, once per group
+		 */
+		public int getScanned() {
+			return scanned;
+		}
+
+		public int size() {
+			return names.length;
+		}
+
+		/**
+		 * @param group Index of the group of patterns
+		 * @return the indexes, in {@link #getReports()}, of the reports matched by the group
+		 */
+		public int[] getGroup(int group) {
+			return groups[group].clone();
+		}
+
+		/**
+		 * @return the size of the bundle in bytes, as sent over the channel
+		 */
+		public int getCompressedSize() {
+			return content.length;
+		}
+
+		/**
+		 * @return the reports in the order they were found, their content decoded as UTF-8
+		 */
+		public List<Report> getReports() throws IOException {
+			if (names.length == 0)
+				return Collections.emptyList();
+			List<Report> reports = new ArrayList<>(names.length);
+			try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(content)))) {
+				for (int i = 0; i < names.length; i++) {
+					if (lengths[i] > Integer.MAX_VALUE)
+						throw new IOException("Test report " + names[i] + " is too large: " + lengths[i] + " bytes");
+					byte[] bytes = new byte[(int) lengths[i]];
+					in.readFully(bytes);
+					reports.add(new Report(names[i], lastModified[i], new String(bytes, StandardCharsets.UTF_8)));
+				}
+			}
+			return reports;
+		}
+	}
+
+	public static final class Report {
+		private final String name;
+		private final long lastModified;
+		private final String content;
+
+		Report(String name, long lastModified, String content) {
+			this.name = name;
+			this.lastModified = lastModified;
+			this.content = content;
+		}
+
+		/**
+		 * @return the file name, without its directory
+		 */
+		public String getName() {
+			return name;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		public String getContent() {
+			return content;
+		}
+	}
+}
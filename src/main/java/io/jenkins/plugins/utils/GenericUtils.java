@@ -14,6 +14,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -49,6 +50,8 @@ import static io.jenkins.plugins.utils.DevOpsConstants.COMMON_RESPONSE_VALUE_UNK
 
 public final class GenericUtils {
 	private static final Logger LOGGER = Logger.getLogger(GenericUtils.class.getName());
+	// strong reference, the level set by configureLogger is lost if the logger is collected
+	private static final Logger PLUGIN_LOGGER = Logger.getLogger(DevOpsConstants.LOGGER_NAME.toString());
 
 	private GenericUtils() {
 	}
@@ -178,7 +181,11 @@ public final class GenericUtils {
 	}
 
 	private static Logger getLogger() {
-		return Logger.getLogger(getLoggerName());
+		return PLUGIN_LOGGER;
+	}
+
+	public static boolean isLoggable(Level logLevel) {
+		return PLUGIN_LOGGER.isLoggable(logLevel);
 	}
 
 	private static String getLoggerName() {
@@ -261,6 +268,9 @@ public final class GenericUtils {
 
 	public static void printDebug(String className, String methodName, String[] variables,
 	                              String[] values, Level logLevel) {
+		if (!isLoggable(logLevel)) {
+			return;
+		}
 		if (variables != null && values != null) {
 			if (variables.length == values.length) {
 				for (int i = 0; i < variables.length; i++) {
@@ -277,6 +287,9 @@ public final class GenericUtils {
 	}
 
 	public static void printDebug(String className, String methodName, String logMessage, Level logLevel) {
+		if (!isLoggable(logLevel)) {
+			return;
+		}
 		if (logMessage != null) {
 			String message = className + "." + methodName + "(), " + logMessage;
 			getLogger().log(logLevel, message);
@@ -286,6 +299,27 @@ public final class GenericUtils {
 		}
 	}
 
+	/**
+	 * Same as {@link #printDebug(String, String, String[], String[], Level)}, but the values are only computed when
+	 * the level is enabled. Use it when a value is expensive to build (serialized payloads, responses).
+	 */
+	public static void printDebug(String className, String methodName, String[] variables, Level logLevel,
+	                              Supplier<String[]> values) {
+		if (isLoggable(logLevel)) {
+			printDebug(className, methodName, variables, values.get(), logLevel);
+		}
+	}
+
+	/**
+	 * Same as {@link #printDebug(String, String, String, Level)}, but the message is only built when the level is
+	 * enabled.
+	 */
+	public static void printDebug(String className, String methodName, Level logLevel, Supplier<String> logMessage) {
+		if (isLoggable(logLevel)) {
+			printDebug(className, methodName, logMessage.get(), logLevel);
+		}
+	}
+
 	public static String getStackTraceAsString(Throwable throwable) {
 		if (throwable == null) {
 			return "Throwable is null";
@@ -0,0 +1,35 @@
+package io.jenkins.plugins.config;
+
+import hudson.util.XStream2;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DevOpsConfigurationEntryTest {
+
+	@Test
+	public void testEntrySavedBeforeTheThresholdExistedGetsTheDefault() {
+		// as written to io.jenkins.plugins.config.DevOpsConfiguration.xml by an older version, compression enabled since
+		DevOpsConfigurationEntry entry = (DevOpsConfigurationEntry) new XStream2().fromXML(
+				"<io.jenkins.plugins.config.DevOpsConfigurationEntry>"
+						+ "<instanceUrl>https://instance.service-now.com</instanceUrl>"
+						+ "<name>old</name>"
+						+ "<active>true</active>"
+						+ "<compressRequests>true</compressRequests>"
+						+ "</io.jenkins.plugins.config.DevOpsConfigurationEntry>");
+
+		assertEquals(DevOpsConfigurationEntry.DEFAULT_COMPRESSION_THRESHOLD, entry.getCompressionThreshold());
+		assertEquals(DevOpsConfigurationEntry.DEFAULT_COMPRESSION_THRESHOLD, entry.getRequestCompressionThreshold());
+	}
+
+	@Test
+	public void testThresholdSetToZeroIsKept() {
+		DevOpsConfigurationEntry entry = new DevOpsConfigurationEntry("new", true, false, "https://instance.service-now.com",
+				"tool", null, "v2", null, true, false, null);
+		entry.setCompressRequests(true);
+		entry.setCompressionThreshold(0);
+
+		DevOpsConfigurationEntry reloaded = (DevOpsConfigurationEntry) new XStream2().fromXML(new XStream2().toXML(entry));
+		assertEquals(0, reloaded.getRequestCompressionThreshold());
+	}
+}
@@ -0,0 +1,76 @@
+package io.jenkins.plugins.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class DevOpsCallbackRegistryTest {
+
+	@Test
+	public void testOldestCallbacksAreEvictedPastTheCap() {
+		DevOpsCallbackRegistry.Region<String> callbacks = new DevOpsCallbackRegistry(60000, 2).region("callbackContent");
+		callbacks.put("job-1", "{}");
+		callbacks.put("job-2", "{}");
+		callbacks.put("job-3", "{}");
+
+		assertEquals(2, callbacks.size());
+	}
+
+	@Test
+	public void testExpiredCallbacksAreDropped() {
+		DevOpsCallbackRegistry registry = new DevOpsCallbackRegistry(-1, 10);
+		DevOpsCallbackRegistry.Region<String> callbacks = registry.region("callbackContent");
+		callbacks.put("job-1", "{}");
+		callbacks.put("job-2", "{}");
+
+		assertNull(callbacks.get("job-1"));
+		registry.evictExpired();
+		assertEquals(0, callbacks.size());
+	}
+
+	@Test
+	public void testPendingWaitsOutliveTheTimeToLiveAndTheCap() {
+		DevOpsCallbackRegistry registry = new DevOpsCallbackRegistry(-1, 1);
+		DevOpsCallbackRegistry.Region<String> webhooks = registry.pendingRegion("webhooks");
+		webhooks.put("token-1", "job-1", "job-1");
+		webhooks.put("token-2", "job-2", "job-2");
+		webhooks.put("token-3", "job-3", "job-3");
+
+		registry.evictExpired();
+		assertEquals(3, webhooks.size());
+		assertEquals("job-1", webhooks.get("token-1"));
+	}
+
+	@Test
+	public void testPendingEntriesOfARunThatNeverFinalizedExpireAfterTheBackstop() {
+		DevOpsCallbackRegistry registry = new DevOpsCallbackRegistry(60000, -1, 10);
+		DevOpsCallbackRegistry.Region<String> jobs = registry.pendingRegion("jobs");
+		jobs.put("42/job/freestyle/", "token-1", "42/job/freestyle/");
+
+		assertNull(jobs.get("42/job/freestyle/"));
+		registry.evictExpired();
+		assertEquals(0, jobs.size());
+	}
+
+	@Test
+	public void testEntriesOfAFinishedRunAreReleased() {
+		DevOpsCallbackRegistry registry = new DevOpsCallbackRegistry(60000, 10);
+		DevOpsCallbackRegistry.Region<String> webhooks = registry.pendingRegion("webhooks");
+		DevOpsCallbackRegistry.Region<String> callbacks = registry.region("callbackContent");
+		webhooks.put("token-1", "job-1", "job-1");
+		webhooks.put("token-2", "job-2", "job-2");
+		DevOpsCallbackRegistry.Region<String> jobs = registry.pendingRegion("jobs");
+		jobs.put("job-1", "token-1", "job-1");
+		callbacks.put("job-1", "{}", "job-1");
+
+		registry.evictOwner("job-1");
+
+		assertFalse(webhooks.containsKey("token-1"));
+		assertFalse(jobs.containsKey("job-1"));
+		assertFalse(callbacks.containsKey("job-1"));
+		assertEquals("job-2", webhooks.get("token-2"));
+		assertEquals(1, registry.getStatus().getInt("entries"));
+	}
+}
@@ -0,0 +1,134 @@
+package io.jenkins.plugins.model;
+
+import net.sf.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DevOpsEventOutboxTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private DevOpsEventOutbox newOutbox(File dir, int maxPendingEvents, long segmentSize) throws Exception {
+		return new DevOpsEventOutbox(dir, maxPendingEvents, 1024 * 1024, segmentSize, 50, 50, 60 * 60 * 1000);
+	}
+
+	@Test
+	public void testPendingEventsAreRecoveredAfterRestart() throws Exception {
+		File dir = folder.newFolder("outbox");
+		DevOpsEventOutbox outbox = newOutbox(dir, 100, 1024 * 1024);
+		JSONObject params = new JSONObject();
+		params.put("toolId", "1234");
+		String delivered = outbox.append("https://instance", "1234", "https://instance/notify", params, "{\"phase\":\"STARTED\"}");
+		String lost = outbox.append("https://instance", "1234", "https://instance/notify", params, "{\"phase\":\"COMPLETED\"}\nnull");
+		outbox.ack(delivered);
+		outbox.close();
+
+		DevOpsEventOutbox restarted = newOutbox(dir, 100, 1024 * 1024);
+		assertEquals(1, restarted.getPendingCount());
+
+		List<String> sent = new ArrayList<>();
+		restarted.start((instanceUrl, toolId, url, p, data) -> {
+			sent.add(data);
+			assertEquals("1234", p.getString("toolId"));
+			return true;
+		});
+		for (int i = 0; i < 100 && restarted.getPendingCount() > 0; i++)
+			Thread.sleep(20);
+		restarted.close();
+
+		assertEquals(0, restarted.getPendingCount());
+		assertEquals(1, sent.size());
+		// payload must come back byte for byte, not re-parsed
+		assertEquals("{\"phase\":\"COMPLETED\"}\nnull", sent.get(0));
+		assertNotNull(lost);
+	}
+
+	@Test
+	public void testEventsOfARunAreReplayedInOrder() throws Exception {
+		File dir = folder.newFolder("outbox");
+		DevOpsEventOutbox outbox = newOutbox(dir, 100, 1024 * 1024);
+		String started = outbox.append("run#1", "https://instance", "1234", "https://instance/notify", null, "STARTED");
+		String completed = outbox.append("run#1", "https://instance", "1234", "https://instance/notify", null, "COMPLETED");
+		String other = outbox.append("run#2", "https://instance", "1234", "https://instance/notify", null, "OTHER");
+		// the live deliveries failed, the stage end first
+		outbox.release(completed);
+		outbox.release(started);
+		outbox.release(other);
+
+		List<String> sent = new CopyOnWriteArrayList<>();
+		AtomicBoolean failed = new AtomicBoolean();
+		outbox.start((instanceUrl, toolId, url, p, data) -> {
+			sent.add(data);
+			// the instance is still down for the first attempt at the stage start
+			return !"STARTED".equals(data) || !failed.compareAndSet(false, true);
+		});
+		for (int i = 0; i < 250 && outbox.getPendingCount() > 0; i++)
+			Thread.sleep(20);
+		outbox.close();
+
+		assertEquals(0, outbox.getPendingCount());
+		sent.remove("OTHER");
+		assertEquals(Arrays.asList("STARTED", "STARTED", "COMPLETED"), sent);
+	}
+
+	@Test
+	public void testLaterEventOfARunIsReplayedAfterTheReleasedOne() throws Exception {
+		File dir = folder.newFolder("outbox");
+		DevOpsEventOutbox outbox = newOutbox(dir, 100, 1024 * 1024);
+		String started = outbox.append("run#1", "https://instance", "1234", "https://instance/notify", null, "STARTED");
+		// the live delivery of the stage start failed
+		outbox.release(started);
+
+		String completed = outbox.append("run#1", "https://instance", "1234", "https://instance/notify", null, "COMPLETED");
+		String other = outbox.append("run#2", "https://instance", "1234", "https://instance/notify", null, "OTHER");
+		assertTrue(outbox.isBacklogged(completed));
+		assertFalse(outbox.isBacklogged(other));
+		outbox.defer(completed);
+		outbox.ack(other);
+
+		List<String> sent = new CopyOnWriteArrayList<>();
+		outbox.start((instanceUrl, toolId, url, p, data) -> sent.add(data));
+		for (int i = 0; i < 250 && outbox.getPendingCount() > 0; i++)
+			Thread.sleep(20);
+
+		assertEquals(Arrays.asList("STARTED", "COMPLETED"), sent);
+		// the run is sent directly again once its backlog is drained
+		String next = outbox.append("run#1", "https://instance", "1234", "https://instance/notify", null, "NEXT");
+		assertFalse(outbox.isBacklogged(next));
+		outbox.close();
+	}
+
+	@Test
+	public void testBackpressureAndSegmentCleanup() throws Exception {
+		File dir = folder.newFolder("outbox");
+		// tiny segments so every append rotates
+		DevOpsEventOutbox outbox = newOutbox(dir, 2, 10);
+		String first = outbox.append("https://instance", "1234", "https://instance/notify", null, "{}");
+		String second = outbox.append("https://instance", "1234", "https://instance/notify", null, "{}");
+		assertNull(outbox.append("https://instance", "1234", "https://instance/notify", null, "{}"));
+
+		outbox.ack(second);
+		outbox.ack(first);
+		outbox.close();
+
+		assertEquals(0, outbox.getPendingCount());
+		assertEquals(1, outbox.getStatus().getLong("rejected"));
+		// only the active segment is left
+		assertEquals(1, dir.listFiles().length);
+	}
+}
@@ -0,0 +1,124 @@
+package io.jenkins.plugins.model;
+
+import io.jenkins.plugins.utils.DevOpsConstants;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DevOpsModelTest {
+
+	private static final String FIELD = "snapshot.sys_id";
+
+	private final List<JSONObject> table = new ArrayList<>();
+	private final List<JSONObject> requests = Collections.synchronizedList(new ArrayList<>());
+
+	private void addRows(String snapshot, int count) {
+		for (int i = 0; i < count; i++) {
+			JSONObject row = new JSONObject();
+			row.put(FIELD, snapshot);
+			row.put("policy.name", snapshot + "-" + i);
+			table.add(row);
+		}
+	}
+
+	// serves the "<FIELD>IN<values>" and "<FIELD>=<value>" queries of the table, a page at a time
+	private final Function<JSONObject, JSONObject> tableApi = queryParams -> {
+		requests.add(queryParams);
+		String query = queryParams.getString(DevOpsConstants.TABLE_API_QUERY.toString());
+		query = query.substring(query.indexOf(FIELD), query.indexOf("^ORDERBY"));
+		List<String> values = query.startsWith(FIELD + "IN")
+				? Arrays.asList(query.substring(FIELD.length() + 2).split(","))
+				: Collections.singletonList(query.substring(FIELD.length() + 1).replace("^^", "^"));
+		List<JSONObject> matching = new ArrayList<>();
+		for (JSONObject row : table) {
+			if (values.contains(row.getString(FIELD)))
+				matching.add(row);
+		}
+		int offset = Integer.parseInt(queryParams.getString(DevOpsConstants.TABLE_API_OFFSET.toString()));
+		int limit = Integer.parseInt(queryParams.getString(DevOpsConstants.TABLE_API_LIMIT.toString()));
+		JSONArray result = new JSONArray();
+		result.addAll(matching.subList(Math.min(offset, matching.size()), Math.min(offset + limit, matching.size())));
+		JSONObject response = new JSONObject();
+		response.put("result", result);
+		return response;
+	};
+
+	@Test
+	public void testValuesAreQueriedInBatchesAndRowsGroupedByValue() throws Exception {
+		List<String> snapshots = new ArrayList<>();
+		for (int i = 0; i < 2 * DevOpsModel.QUERY_BATCH_SIZE + 10; i++) {
+			snapshots.add("snap" + i);
+			addRows("snap" + i, i % 3);
+		}
+		snapshots.add("snap0");
+		snapshots.add("a,b");
+
+		Map<String, List<JSONObject>> rows = DevOpsModel.queryIn("is_latest=true", FIELD, snapshots, "policy.name", tableApi);
+
+		// three IN queries and one on its own for the value holding a comma
+		assertEquals(4, requests.size());
+		assertEquals(2 * DevOpsModel.QUERY_BATCH_SIZE + 11, rows.size());
+		assertEquals(0, rows.get("snap0").size());
+		assertEquals(0, rows.get("a,b").size());
+		assertEquals(2, rows.get("snap104").size());
+		assertEquals("snap104-1", rows.get("snap104").get(1).getString("policy.name"));
+		// the grouping field was not asked for
+		assertFalse(rows.get("snap104").get(0).containsKey(FIELD));
+	}
+
+	@Test
+	public void testLargeResultsAreReadPageByPage() throws Exception {
+		addRows("snap1", 2 * DevOpsModel.QUERY_PAGE_SIZE + 5);
+		addRows("snap2", 1);
+
+		Map<String, List<JSONObject>> rows = DevOpsModel.queryIn("", FIELD, Arrays.asList("snap1", "snap2"),
+				"policy.name," + FIELD, tableApi);
+
+		assertEquals(3, requests.size());
+		assertEquals(String.valueOf(2 * DevOpsModel.QUERY_PAGE_SIZE),
+				requests.get(2).getString(DevOpsConstants.TABLE_API_OFFSET.toString()));
+		assertEquals(2 * DevOpsModel.QUERY_PAGE_SIZE + 5, rows.get("snap1").size());
+		assertEquals(1, rows.get("snap2").size());
+		assertTrue(rows.get("snap2").get(0).containsKey(FIELD));
+	}
+
+	@Test
+	public void testQuerySeparatorInAValueIsEscaped() throws Exception {
+		addRows("a^b", 2);
+
+		addRows("a", 1);
+
+		Map<String, List<JSONObject>> rows = DevOpsModel.queryIn("is_latest=true", FIELD, Arrays.asList("a^b"),
+				"policy.name", tableApi);
+
+		assertEquals("is_latest=true^" + FIELD + "=a^^b^ORDERBYsys_id",
+				requests.get(0).getString(DevOpsConstants.TABLE_API_QUERY.toString()));
+		assertEquals(2, rows.get("a^b").size());
+	}
+
+	@Test
+	public void testFailedQueryIsReported() throws Exception {
+		JSONObject failure = new JSONObject();
+		failure.put(DevOpsConstants.COMMON_RESULT_FAILURE.toString(), "IOException: Connection refused");
+
+		try {
+			DevOpsModel.queryIn("", FIELD, Arrays.asList("snap1"), "policy.name", queryParams -> failure);
+			fail("a failed query should not return rows");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().endsWith("failed at offset 0: IOException: Connection refused"));
+		}
+	}
+}
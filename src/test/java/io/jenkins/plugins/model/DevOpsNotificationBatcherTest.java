@@ -0,0 +1,70 @@
+package io.jenkins.plugins.model;
+
+import io.jenkins.plugins.config.DevOpsConfigurationEntry;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DevOpsNotificationBatcherTest {
+
+	// the outbox is disabled: events are not recorded and have no outbox id
+	private static final List<String> NOT_RECORDED = Collections.singletonList(null);
+
+	private static DevOpsConfigurationEntry config(String instanceUrl) {
+		return new DevOpsConfigurationEntry("batcher", true, false, instanceUrl, "tool", null, "v2", null, true, false, null);
+	}
+
+	private static List<DevOpsNotificationBatcher.Event> event(String data) {
+		return Collections.singletonList(new DevOpsNotificationBatcher.Event("https://instance/notify", "orchestration",
+				null, data, null));
+	}
+
+	@Test
+	public void testFullInstanceDoesNotHoldBackTheWindowOfAnother() throws Exception {
+		DevOpsConfigurationEntry slowConfig = config("https://slow.batcher.test");
+		String property = DevOpsNotificationDispatcher.class.getName() + ".laneCapacity";
+		System.setProperty(property, "1");
+		DevOpsNotificationDispatcher slow;
+		try {
+			slow = DevOpsInstanceBulkhead.get(slowConfig.getInstanceUrl()).getDispatcher();
+		} finally {
+			System.clearProperty(property);
+		}
+		// the lane of the slow configuration is busy and its queue is full
+		String slowKey = DevOpsNotificationBatcher.getKey(slowConfig);
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch unblock = new CountDownLatch(1);
+		slow.submit(slowKey, () -> {
+			blocked.countDown();
+			try {
+				unblock.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, 0, NOT_RECORDED);
+		assertTrue(blocked.await(10, TimeUnit.SECONDS));
+		slow.submit(slowKey, () -> { }, 0, NOT_RECORDED);
+
+		DevOpsNotificationBatcher batcher = new DevOpsNotificationBatcher(50, 10);
+		CountDownLatch slowSent = new CountDownLatch(1);
+		CountDownLatch fastSent = new CountDownLatch(1);
+		try {
+			batcher.add(slowConfig, event("SLOW"), (devopsConfig, events) -> slowSent.countDown());
+			batcher.add(config("https://fast.batcher.test"), event("FAST"), (devopsConfig, events) -> fastSent.countDown());
+
+			assertTrue("the window of the other instance is flushed", fastSent.await(10, TimeUnit.SECONDS));
+			assertEquals(1, slowSent.getCount());
+			assertEquals(1, batcher.getMetrics().getInt("waitingBatches"));
+		} finally {
+			unblock.countDown();
+		}
+		// handed over again once the lane has room
+		assertTrue(slowSent.await(10, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,63 @@
+package io.jenkins.plugins.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DevOpsNotificationDispatcherTest {
+
+	// the outbox is disabled: events are not recorded and have no outbox id
+	private static final List<String> NOT_RECORDED = Collections.singletonList(null);
+
+	// one lane holding one queued delivery, kept full while the worker is blocked
+	private static DevOpsNotificationDispatcher fullDispatcher(CountDownLatch blocked, CountDownLatch unblock) throws Exception {
+		DevOpsNotificationDispatcher dispatcher = new DevOpsNotificationDispatcher("test", 1, 1, false);
+		dispatcher.submit("run#1", () -> {
+			blocked.countDown();
+			try {
+				unblock.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, 0, NOT_RECORDED);
+		assertTrue(blocked.await(10, TimeUnit.SECONDS));
+		dispatcher.submit("run#1", () -> { }, 0, NOT_RECORDED);
+		return dispatcher;
+	}
+
+	@Test
+	public void testDeliveryRecordedInTheOutboxIsLeftToItWhenTheLaneStaysFull() throws Exception {
+		CountDownLatch unblock = new CountDownLatch(1);
+		DevOpsNotificationDispatcher dispatcher = fullDispatcher(new CountDownLatch(1), unblock);
+		try {
+			assertFalse(dispatcher.submit("run#1", () -> { }, 10, Arrays.asList("1-1", "1-2")));
+			assertEquals(1, dispatcher.getMetrics().getInt("rejected"));
+		} finally {
+			unblock.countDown();
+		}
+	}
+
+	@Test
+	public void testDeliveryNotInTheOutboxWaitsForRoomWhenTheLaneStaysFull() throws Exception {
+		CountDownLatch unblock = new CountDownLatch(1);
+		DevOpsNotificationDispatcher dispatcher = fullDispatcher(new CountDownLatch(1), unblock);
+		CountDownLatch delivered = new CountDownLatch(1);
+		Thread producer = new Thread(() -> dispatcher.submit("run#1", delivered::countDown, 10, NOT_RECORDED));
+		producer.start();
+		producer.join(200);
+		assertTrue("the producer waits for room past the timeout", producer.isAlive());
+
+		unblock.countDown();
+		producer.join(10000);
+		assertTrue(delivered.await(10, TimeUnit.SECONDS));
+		assertEquals(0, dispatcher.getMetrics().getInt("rejected"));
+	}
+}
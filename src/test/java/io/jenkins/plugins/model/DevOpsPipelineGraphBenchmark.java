@@ -0,0 +1,119 @@
+package io.jenkins.plugins.model;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Builds and queries the graph of large pipelines: top level stages with 50 nested stages each.
+ *
+ * Not run with the tests, run the main method from the test classpath (for instance from the IDE).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DevOpsPipelineGraphBenchmark {
+
+	private static final int CHILDREN = 50;
+	private static final String PIPELINE_URL = "http://localhost:8080/job/benchmark/1/";
+
+	@Param({"2000", "10000"})
+	private int stages;
+
+	private FlowNode[] flowNodes;
+	private String[] parentIds;
+	private String[] shortNames;
+	private String[] names;
+	private DevOpsPipelineGraph graph;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		flowNodes = new FlowNode[stages];
+		parentIds = new String[stages];
+		shortNames = new String[stages];
+		names = new String[stages];
+		String parentId = null;
+		for (int i = 0; i < stages; i++) {
+			String id = String.valueOf(i + 1);
+			FlowNode flowNode = mock(FlowNode.class);
+			doReturn(id).when(flowNode).getId();
+			doReturn(Collections.emptyList()).when(flowNode).getEnclosingBlocks();
+			flowNodes[i] = flowNode;
+			if (i % (CHILDREN + 1) == 0) {
+				parentId = id;
+				shortNames[i] = "Stage " + i;
+				names[i] = shortNames[i];
+			} else {
+				parentIds[i] = parentId;
+				shortNames[i] = "Step " + i;
+				names[i] = names[Integer.parseInt(parentId) - 1] + "/" + shortNames[i];
+			}
+		}
+		graph = build();
+	}
+
+	private DevOpsPipelineGraph build() {
+		DevOpsPipelineGraph pipelineGraph = new DevOpsPipelineGraph();
+		for (int i = 0; i < stages; i++)
+			pipelineGraph.addNode(parentIds[i], shortNames[i], flowNodes[i], PIPELINE_URL, "STARTED");
+		return pipelineGraph;
+	}
+
+	private int nextIndex() {
+		next = (next + 7919) % stages;
+		return next;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public DevOpsPipelineGraph addNodes() {
+		return build();
+	}
+
+	@Benchmark
+	public DevOpsPipelineNode getNodeByName() {
+		return graph.getNodeByName(names[nextIndex()]);
+	}
+
+	@Benchmark
+	public DevOpsPipelineNode getNodeById() {
+		return graph.getNodeById(String.valueOf(nextIndex() + 1));
+	}
+
+	@Benchmark
+	public void getWaitForChildExecutions(Blackhole blackhole) {
+		blackhole.consume(graph.getWaitForChildExecutions("1"));
+	}
+
+	@Benchmark
+	public void getNodes(Blackhole blackhole) {
+		blackhole.consume(graph.getNodes());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DevOpsPipelineGraphBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,69 @@
+package io.jenkins.plugins.model;
+
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class DevOpsPipelineGraphTest {
+
+	private static final String PIPELINE_URL = "http://localhost:8080/job/graph/1/";
+
+	private static FlowNode flowNode(String id) {
+		FlowNode flowNode = mock(FlowNode.class);
+		doReturn(id).when(flowNode).getId();
+		doReturn(Collections.emptyList()).when(flowNode).getEnclosingBlocks();
+		return flowNode;
+	}
+
+	@Test
+	public void testNodesAreIndexedByIdAndNameWithTheirUpstreamSibling() {
+		DevOpsPipelineGraph graph = new DevOpsPipelineGraph();
+		DevOpsPipelineNode build = graph.addNode(null, "Build", flowNode("3"), PIPELINE_URL, "STARTED");
+		graph.addNode("3", "Compile", flowNode("5"), PIPELINE_URL, "STARTED");
+		DevOpsPipelineNode test = graph.addNode("3", "Test", flowNode("9"), PIPELINE_URL, "STARTED");
+		DevOpsPipelineNode deploy = graph.addNode(null, "Deploy", flowNode("12"), PIPELINE_URL, "STARTED");
+
+		assertSame(test, graph.getNodeByName("Build/Test"));
+		assertSame(test, graph.getNodeById("9"));
+		assertNull(graph.getNodeById(null));
+		assertEquals("Build/Compile", test.getUpstreamStageName());
+		assertEquals("Build", test.getParentName());
+		assertEquals("Build", deploy.getUpstreamStageName());
+		assertNull(build.getUpstreamStageName());
+		assertEquals(Arrays.asList(DevOpsPipelineGraph.getStageExecutionUrl(PIPELINE_URL, "9"),
+				DevOpsPipelineGraph.getStageExecutionUrl(PIPELINE_URL, "5")), graph.getWaitForChildExecutions("3"));
+		assertEquals(4, graph.getNodes().size());
+	}
+
+	@Test
+	public void testChildrenOfOlderBuildsAreReorderedOnLoad() throws Exception {
+		DevOpsPipelineGraph graph = new DevOpsPipelineGraph();
+		DevOpsPipelineNode compile = graph.addNode(null, "Compile", flowNode("5"), PIPELINE_URL, "STARTED");
+		DevOpsPipelineNode test = graph.addNode(null, "Test", flowNode("9"), PIPELINE_URL, "STARTED");
+
+		// as loaded from a build.xml written before the children were kept oldest first
+		Map<String, List<DevOpsPipelineNode>> legacy = new HashMap<>();
+		legacy.put("Prefix_null", new LinkedList<>(Arrays.asList(test, compile)));
+		Field field = DevOpsPipelineGraph.class.getDeclaredField("graph");
+		field.setAccessible(true);
+		field.set(graph, legacy);
+		graph.readResolve();
+
+		DevOpsPipelineNode deploy = graph.addNode(null, "Deploy", flowNode("12"), PIPELINE_URL, "STARTED");
+		assertEquals("Test", deploy.getUpstreamStageName());
+		assertSame(compile, graph.getNodeByName("Compile"));
+	}
+}
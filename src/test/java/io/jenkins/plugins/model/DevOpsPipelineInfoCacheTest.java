@@ -0,0 +1,87 @@
+package io.jenkins.plugins.model;
+
+import net.sf.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+public class DevOpsPipelineInfoCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String pipelineInfoFile(String job, String content) throws Exception {
+		File file = new File(folder.newFolder(job), "snPipelineInfo.json");
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file.getAbsolutePath();
+	}
+
+	private static void awaitWrites(DevOpsPipelineInfoCache cache) throws InterruptedException {
+		for (int i = 0; i < 250 && cache.getStatus().getInt("pendingWrites") > 0; i++)
+			Thread.sleep(20);
+		assertEquals(0, cache.getStatus().getInt("pendingWrites"));
+	}
+
+	@Test
+	public void testWriteIsServedRightAwayAndPersistedInTheBackground() throws Exception {
+		DevOpsPipelineInfoCache cache = new DevOpsPipelineInfoCache(10);
+		String path = pipelineInfoFile("job", "{\"track\":false}");
+		JSONObject content = new JSONObject();
+		content.put("track", true);
+
+		cache.write(path, content);
+		assertEquals(true, cache.read(path).getBoolean("track"));
+
+		awaitWrites(cache);
+		assertEquals(1, cache.getStatus().getInt("writes"));
+		assertEquals("{\"track\":true}", new String(Files.readAllBytes(new File(path).toPath()), StandardCharsets.UTF_8));
+		// read from the cache, not from the file
+		assertEquals(0, cache.getStatus().getInt("loads"));
+	}
+
+	@Test
+	public void testUnchangedContentIsNotWrittenAgain() throws Exception {
+		DevOpsPipelineInfoCache cache = new DevOpsPipelineInfoCache(10);
+		String path = pipelineInfoFile("job", "{\"track\":true}");
+		JSONObject content = new JSONObject();
+		content.put("track", true);
+
+		cache.read(path);
+		cache.write(path, content);
+		awaitWrites(cache);
+
+		JSONObject status = cache.getStatus();
+		assertEquals(1, status.getInt("unchangedWrites"));
+		assertEquals(0, status.getInt("writes"));
+	}
+
+	@Test
+	public void testLeastRecentlyReadJobIsDroppedPastTheCap() throws Exception {
+		DevOpsPipelineInfoCache cache = new DevOpsPipelineInfoCache(2);
+		String first = pipelineInfoFile("first", "{\"track\":true}");
+		String second = pipelineInfoFile("second", "{\"track\":false}");
+		String third = pipelineInfoFile("third", "{\"track\":true}");
+
+		cache.read(first);
+		cache.read(second);
+		cache.read(first);
+		cache.read(third);
+
+		JSONObject status = cache.getStatus();
+		assertEquals(2, status.getInt("size"));
+		assertEquals(1, status.getInt("evictions"));
+		assertEquals(3, status.getInt("loads"));
+		// still cached
+		cache.read(first);
+		assertEquals(3, cache.getStatus().getInt("loads"));
+		// dropped, read from its file again
+		assertEquals(false, cache.read(second).getBoolean("track"));
+		assertEquals(4, cache.getStatus().getInt("loads"));
+	}
+}
@@ -0,0 +1,73 @@
+package io.jenkins.plugins.pipeline.steps.executions;
+
+import io.jenkins.plugins.BaseDevOpsTest;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DevOpsConfigUploadStepExecutionTest extends BaseDevOpsTest {
+
+    // upload and status requests in the order the instance received them
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testAutoCommitIsOnlySentWithTheLastFileOnceTheOthersAreCompleted() throws Exception {
+        AtomicInteger uploadIds = new AtomicInteger();
+        mockServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getRequestUrl().encodedPath();
+                if (path.startsWith("/api/sn_cdm/applications/uploads/")) {
+                    int id = uploadIds.incrementAndGet();
+                    events.add("upload " + id + " autoCommit=" + request.getRequestUrl().queryParameter("autoCommit"));
+                    return json("{\"result\": {\"upload_id\": \"" + id + "\"}}");
+                }
+                if (path.startsWith("/api/sn_cdm/applications/upload-status/")) {
+                    events.add("completed " + path.substring(path.lastIndexOf('/') + 1));
+                    return json("{\"result\": {\"state\": \"completed\", \"output\": {\"number\": \"CS0001\"}}}");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+
+        WorkflowJob job = jenkins.createProject(WorkflowJob.class, "TestJob");
+        job.setDefinition(new CpsFlowDefinition(
+                "node {\n" +
+                        "    writeFile file: 'config/a.json', text: '{\"a\": 1}'\n" +
+                        "    writeFile file: 'config/b.json', text: '{\"b\": 2}'\n" +
+                        "    writeFile file: 'config/c.json', text: '{\"c\": 3}'\n" +
+                        "    snDevOpsConfigUpload(applicationName: 'app', target: 'deployable', deployableName: 'Production',\n" +
+                        "        namePath: 'files', configFile: 'config/*.json', autoCommit: true, autoDelete: false,\n" +
+                        "        autoValidate: false, autoPublish: false, changesetNumber: 'Chset-1', parallelUploads: 3)\n" +
+                        "}",
+                true
+        ));
+        WorkflowRun run = jenkins.buildAndAssertSuccess(job);
+        jenkins.assertLogContains("3 files uploaded to changeset: CS0001", run);
+
+        List<String> received = new ArrayList<>(events);
+        assertEquals(6, received.size());
+        // the first two files are uploaded together without committing
+        assertTrue(received.subList(0, 4).containsAll(Arrays.asList(
+                "upload 1 autoCommit=false", "upload 2 autoCommit=false", "completed 1", "completed 2")));
+        assertEquals("upload 3 autoCommit=true", received.get(4));
+        assertEquals("completed 3", received.get(5));
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setBody(body).setHeader("Content-Type", "application/json");
+    }
+}
@@ -0,0 +1,110 @@
+package io.jenkins.plugins.utils;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommUtilsTest {
+
+	private MockWebServer mockServer;
+
+	@Before
+	public void setUp() throws Exception {
+		mockServer = new MockWebServer();
+		mockServer.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		mockServer.shutdown();
+	}
+
+	private JSONObject postCompressed() {
+		return CommUtils.callWithAuthorization("POST", mockServer.url("/api/sn_devops/v2/devops/tool/orchestration").toString(),
+				null, DevOpsHttpTransport.RequestBody.ofString("{\"phase\":\"STARTED\"}"), "Basic dXNlcjpwd2Q=", null, null, 0);
+	}
+
+	@Test
+	public void testValidationErrorIsNotSentAgainUncompressed() throws Exception {
+		mockServer.enqueue(new MockResponse().setResponseCode(400).setBody("{\"error\":{\"message\":\"Invalid stage name\"}}"));
+
+		postCompressed();
+
+		assertEquals(1, mockServer.getRequestCount());
+		assertEquals("gzip", mockServer.takeRequest().getHeader("Content-Encoding"));
+	}
+
+	@Test
+	public void testRejectedEncodingIsSentAgainUncompressed() throws Exception {
+		mockServer.enqueue(new MockResponse().setResponseCode(400).setBody("Unsupported Content-Encoding: gzip"));
+		mockServer.enqueue(new MockResponse().setBody("{\"result\":{}}"));
+
+		postCompressed();
+
+		assertEquals(2, mockServer.getRequestCount());
+		assertEquals("gzip", mockServer.takeRequest().getHeader("Content-Encoding"));
+		assertNull(mockServer.takeRequest().getHeader("Content-Encoding"));
+	}
+
+	@Test
+	public void testSaturatedPoolDoesNotOpenTheCircuit() throws Exception {
+		mockServer.enqueue(new MockResponse().setBody("{}"));
+		DevOpsHttpTransport singleConnection = new DevOpsHttpTransport(100, 2000, 1);
+		CommUtils.setTransport(singleConnection);
+		CountDownLatch downloading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// holds the only connection to the instance
+		Thread holder = new Thread(() -> {
+			try {
+				singleConnection.download(mockServer.url("/").url(), "GET", new HashMap<>(), in -> {
+					downloading.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} catch (IOException e) {
+				downloading.countDown();
+			}
+		});
+		holder.start();
+		try {
+			assertTrue(downloading.await(10, TimeUnit.SECONDS));
+			JSONObject params = new JSONObject();
+			params.put(DevOpsConstants.TOOL_ID_ATTR.toString(), "saturated-tool");
+			for (int i = 0; i < 10; i++) {
+				JSONObject result = CommUtils.callWithAuthorization("GET", mockServer.url("/api/sn_devops/v2/devops/tool").toString(),
+						params, null, "Basic dXNlcjpwd2Q=", null, null);
+				assertTrue(result.getString(DevOpsConstants.COMMON_RESULT_FAILURE.toString()).startsWith("IOException"));
+			}
+		} finally {
+			release.countDown();
+			holder.join(10000);
+			CommUtils.setTransport(null);
+		}
+
+		JSONObject breaker = null;
+		JSONArray breakers = DevOpsCircuitBreakers.getStatus();
+		for (int i = 0; i < breakers.size(); i++) {
+			if ("saturated-tool".equals(breakers.getJSONObject(i).getString("toolId")))
+				breaker = breakers.getJSONObject(i);
+		}
+		assertEquals("CLOSED", breaker.getString("state"));
+		assertEquals(0, breaker.getInt("failures"));
+		assertEquals(10, singleConnection.getPoolMetrics().getJSONObject(0).getLong("saturated"));
+	}
+}
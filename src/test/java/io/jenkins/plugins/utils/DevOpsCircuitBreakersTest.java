@@ -0,0 +1,59 @@
+package io.jenkins.plugins.utils;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DevOpsCircuitBreakersTest {
+
+	@Test
+	public void testCircuitOpensAfterConsecutiveFailuresOfTheSameTool() throws Exception {
+		URL url = new URL("https://breaker.service-now.com/api/sn_devops/v2/devops/tool/orchestration");
+		JSONObject params = new JSONObject();
+		params.put(DevOpsConstants.TOOL_ID_ATTR.toString(), "tool-a");
+		JSONObject otherTool = new JSONObject();
+		otherTool.put(DevOpsConstants.TOOL_ID_ATTR.toString(), "tool-b");
+
+		for (int i = 0; i < 4; i++) {
+			DevOpsCircuitBreakers.acquire(url, params);
+			DevOpsCircuitBreakers.record(url, params, false);
+		}
+		// a success resets the count of consecutive failures
+		DevOpsCircuitBreakers.acquire(url, params);
+		DevOpsCircuitBreakers.record(url, params, true);
+		for (int i = 0; i < 5; i++) {
+			DevOpsCircuitBreakers.acquire(url, params);
+			DevOpsCircuitBreakers.record(url, params, false);
+		}
+
+		try {
+			DevOpsCircuitBreakers.acquire(url, params);
+			fail("The circuit should be open");
+		} catch (IOException e) {
+			// fails fast
+		}
+		DevOpsCircuitBreakers.acquire(url, otherTool);
+		DevOpsCircuitBreakers.record(url, otherTool, true);
+
+		JSONObject status = find(DevOpsCircuitBreakers.getStatus(), "tool-a");
+		assertEquals("OPEN", status.getString("state"));
+		assertEquals(1, status.getInt("rejected"));
+		assertEquals("https://breaker.service-now.com:443", status.getString("instance"));
+		assertEquals("CLOSED", find(DevOpsCircuitBreakers.getStatus(), "tool-b").getString("state"));
+	}
+
+	private static JSONObject find(JSONArray status, String toolId) {
+		for (int i = 0; i < status.size(); i++) {
+			JSONObject breaker = status.getJSONObject(i);
+			if (breaker.getString("toolId").equals(toolId))
+				return breaker;
+		}
+		throw new AssertionError("No circuit breaker for " + toolId);
+	}
+}
@@ -0,0 +1,151 @@
+package io.jenkins.plugins.utils;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DevOpsHttpTransportTest {
+
+	private MockWebServer mockServer;
+	private DevOpsHttpTransport transport;
+
+	@Before
+	public void setUp() throws Exception {
+		mockServer = new MockWebServer();
+		mockServer.start();
+		transport = new DevOpsHttpTransport(2000, 2000, 2);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		mockServer.shutdown();
+	}
+
+	@Test
+	public void testConnectionIsReusedAcrossRequests() throws Exception {
+		mockServer.enqueue(new MockResponse().setBody("{\"result\":\"one\"}"));
+		mockServer.enqueue(new MockResponse().setResponseCode(201).setBody("{\"result\":\"two\"}"));
+
+		URL url = mockServer.url("/api/sn_devops/devops/tool/orchestration").url();
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Content-Type", "application/json");
+
+		DevOpsHttpTransport.Response first = transport.execute(url, "POST", headers, "{}".getBytes(StandardCharsets.UTF_8));
+		DevOpsHttpTransport.Response second = transport.execute(url, "GET", headers, null);
+
+		assertEquals(200, first.getStatusCode());
+		assertEquals("{\"result\":\"one\"}", first.getBody());
+		assertEquals(201, second.getStatusCode());
+
+		RecordedRequest firstRequest = mockServer.takeRequest();
+		RecordedRequest secondRequest = mockServer.takeRequest();
+		assertEquals("{}", firstRequest.getBody().readUtf8());
+		// same socket: the sequence number counts requests served on one connection
+		assertEquals(0, firstRequest.getSequenceNumber());
+		assertEquals(1, secondRequest.getSequenceNumber());
+	}
+
+	@Test
+	public void testErrorBodyAndRetryAfterAreReturned() throws Exception {
+		mockServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "3")
+				.setBody("{\"error\":\"too many requests\"}"));
+
+		DevOpsHttpTransport.Response response = transport.execute(mockServer.url("/").url(), "GET",
+				new HashMap<>(), null);
+
+		assertEquals(429, response.getStatusCode());
+		assertEquals("3", response.getRetryAfter());
+		assertEquals("{\"error\":\"too many requests\"}", response.getBody());
+	}
+
+	@Test
+	public void testStringPartsAreStreamedWithTheirUtf8Length() throws Exception {
+		mockServer.enqueue(new MockResponse().setBody("{}"));
+		// multi byte, supplementary and unpaired surrogate characters
+		String payload = "{\"name\":\"caf\u00e9 \u20ac \ud83d\ude00 \ud83d\"}";
+		DevOpsHttpTransport.RequestBody body = DevOpsHttpTransport.RequestBody.ofStrings(
+				Arrays.asList("{\"events\":[", payload, "]}"));
+
+		transport.executeStreaming(mockServer.url("/").url(), "POST", new HashMap<>(), body);
+
+		byte[] expected = ("{\"events\":[" + payload + "]}").getBytes(StandardCharsets.UTF_8);
+		assertEquals(expected.length, body.getLength());
+		RecordedRequest request = mockServer.takeRequest();
+		assertEquals(String.valueOf(expected.length), request.getHeader("Content-Length"));
+		assertEquals(new String(expected, StandardCharsets.UTF_8), request.getBody().readUtf8());
+	}
+
+	@Test
+	public void testPoolMetrics() throws Exception {
+		mockServer.enqueue(new MockResponse().setBody("{}"));
+
+		DevOpsHttpTransport.Response response = transport.execute(mockServer.url("/").url(), "GET",
+				new HashMap<>(), null);
+		assertEquals("{}", response.getBody());
+
+		JSONArray metrics = transport.getPoolMetrics();
+		assertEquals(1, metrics.size());
+		JSONObject pool = metrics.getJSONObject(0);
+		assertEquals(1, pool.getLong("requests"));
+		assertEquals(0, pool.getLong("failures"));
+		assertEquals(0, pool.getInt("inFlight"));
+		assertEquals(2, pool.getInt("maxConnections"));
+	}
+
+	@Test
+	public void testWaitForABusyPoolIsBoundedByTheConnectTimeout() throws Exception {
+		mockServer.enqueue(new MockResponse().setBody("{}"));
+		DevOpsHttpTransport singleConnection = new DevOpsHttpTransport(200, 2000, 1);
+		URL url = mockServer.url("/").url();
+		CountDownLatch downloading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// holds the only connection of the pool until released
+		Thread holder = new Thread(() -> {
+			try {
+				singleConnection.download(url, "GET", new HashMap<>(), in -> {
+					downloading.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} catch (IOException e) {
+				downloading.countDown();
+			}
+		});
+		holder.start();
+		try {
+			assertTrue(downloading.await(10, TimeUnit.SECONDS));
+			singleConnection.execute(url, "GET", new HashMap<>(), null);
+			fail("the request should not wait past the connect timeout");
+		} catch (DevOpsHttpTransport.PoolSaturatedException e) {
+			assertTrue(e.getMessage().startsWith("Timed out waiting for a connection to "));
+		} finally {
+			release.countDown();
+			holder.join(10000);
+		}
+		assertEquals(1, mockServer.getRequestCount());
+		JSONObject pool = singleConnection.getPoolMetrics().getJSONObject(0);
+		assertEquals(0, pool.getInt("waiting"));
+		assertEquals(1, pool.getLong("saturated"));
+	}
+}
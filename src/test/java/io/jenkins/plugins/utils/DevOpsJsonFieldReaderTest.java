@@ -0,0 +1,50 @@
+package io.jenkins.plugins.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class DevOpsJsonFieldReaderTest {
+
+	private static final String[] PATH = {"result", "exporter_result"};
+
+	@Test
+	public void testStringValueIsWrittenDecoded() throws IOException {
+		String document = "{\"result\": {\"state\": \"completed\", \"exporter_result\": \"a=\\\"b\\\"\\nc\\u00e9\"}}";
+
+		assertEquals("a=\"b\"\nc\u00e9", copy(document, false));
+		assertEquals("a=\\\"b\\\"\nc\u00e9", copy(document, true));
+	}
+
+	@Test
+	public void testObjectValueIsWrittenCompact() throws IOException {
+		String document = "{\"result\": {\"skipped\": [1, {\"a\": \"}\"}],\n \"exporter_result\": { \"k\" : [1, 2, \"x y\"], \"n\": null } }}";
+
+		assertEquals("{\"k\":[1,2,\"x y\"],\"n\":null}", copy(document, true));
+	}
+
+	@Test
+	public void testMissingFieldIsNotWritten() throws IOException {
+		StringWriter out = new StringWriter();
+
+		assertEquals(-1, DevOpsJsonFieldReader.copy(stream("{\"result\": {\"state\": \"failure\"}}"), PATH, false, () -> out));
+		assertEquals(-1, DevOpsJsonFieldReader.copy(stream(""), PATH, false, () -> out));
+		assertEquals("", out.toString());
+	}
+
+	private static String copy(String document, boolean escapeQuotes) throws IOException {
+		StringWriter out = new StringWriter();
+		long written = DevOpsJsonFieldReader.copy(stream(document), PATH, escapeQuotes, () -> out);
+		assertEquals(out.toString().length(), written);
+		return out.toString();
+	}
+
+	private static ByteArrayInputStream stream(String document) {
+		return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,84 @@
+package io.jenkins.plugins.utils;
+
+import net.sf.json.JSONObject;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DevOpsPollerTest {
+
+	@Test
+	public void testPollEndsWhenTheResultIsNoLongerPending() throws Exception {
+		DevOpsPoller poller = new DevOpsPoller("test.completed", 1, 5, 10, 10000);
+		String result = poller.poll(attempt -> attempt < 3 ? "pending" : "done", "pending"::equals);
+
+		assertEquals("done", result);
+		JSONObject metrics = DevOpsPoller.getMetrics().getJSONObject("test.completed");
+		assertEquals(1, metrics.getInt("completed"));
+		assertEquals(3, metrics.getInt("attempts"));
+	}
+
+	@Test
+	public void testPollReturnsTheLastResultWhenAttemptsAreExhausted() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		DevOpsPoller poller = new DevOpsPoller("test.exhausted", 1, 5, 4, 10000);
+		String result = poller.poll(attempt -> "pending-" + calls.incrementAndGet(), r -> r.startsWith("pending"));
+
+		assertEquals("pending-4", result);
+		assertEquals(1, DevOpsPoller.getMetrics().getJSONObject("test.exhausted").getInt("exhausted"));
+	}
+
+	@Test
+	public void testDelayGrowsEveryOtherAttemptUpToTheMaximum() {
+		DevOpsPoller.Schedule schedule = new DevOpsPoller("test.backoff", 100, 400, 100, 60000)
+				.withBackoff(2, 2).withJitter(0).start();
+
+		assertEquals(100, schedule.next(null));
+		assertEquals(100, schedule.next(null));
+		assertEquals(200, schedule.next(null));
+		assertEquals(200, schedule.next(null));
+		assertEquals(400, schedule.next(null));
+		assertEquals(400, schedule.next(null));
+		assertEquals(400, schedule.next(null));
+	}
+
+	@Test
+	public void testRetryAfterTakesPrecedenceOverTheBackoff() {
+		DevOpsPoller.Schedule schedule = new DevOpsPoller("test.retryAfter", 100, 400, 100, 60000).start();
+
+		assertEquals(2000, schedule.next("2"));
+		assertTrue(schedule.next(null) <= 200);
+		assertEquals(-1, DevOpsPoller.parseRetryAfter("soon"));
+	}
+
+	@Test
+	public void testRetryAfterOfTheInstanceIsHonoured() throws Exception {
+		MockWebServer mockServer = new MockWebServer();
+		mockServer.start();
+		try {
+			mockServer.enqueue(new MockResponse().setHeader("Retry-After", "1").setBody("{\"result\":{\"state\":\"pending\"}}"));
+			mockServer.enqueue(new MockResponse().setBody("{\"result\":{\"state\":\"done\"}}"));
+			DevOpsPoller poller = new DevOpsPoller("test.instanceRetryAfter", 5, 10, 5, 60000).withJitter(0);
+			String url = mockServer.url("/api/sn_devops/v2/devops/config/status").toString();
+
+			long start = System.nanoTime();
+			String state = poller.poll(attempt -> CommUtils.callWithAuthorization("GET", url, null, null,
+					"Basic dXNlcjpwd2Q=", null, null).getJSONObject("result").getString("state"), "pending"::equals);
+
+			assertEquals("done", state);
+			assertEquals(2, mockServer.getRequestCount());
+			// one second asked by the instance instead of the 5 ms of the schedule
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+			assertNull(CommUtils.takeLastRetryAfter());
+		} finally {
+			mockServer.shutdown();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package io.jenkins.plugins.utils;
+
+import net.sf.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DevOpsRateLimiterTest {
+
+	@Test
+	public void testTelemetryLeavesTheReserveToChangeControl() throws Exception {
+		DevOpsRateLimiter.Bucket bucket = new DevOpsRateLimiter.Bucket("https://limit.service-now.com:443", 0.1, 3, 1);
+
+		bucket.acquire(DevOpsRateLimiter.Lane.TELEMETRY, 0);
+		try {
+			bucket.acquire(DevOpsRateLimiter.Lane.TELEMETRY, 0);
+			fail("The last token is reserved to change control");
+		} catch (IOException e) {
+			// throttled
+		}
+		bucket.acquire(DevOpsRateLimiter.Lane.CONTROL, 0);
+		bucket.acquire(DevOpsRateLimiter.Lane.CONTROL, 0);
+
+		JSONObject lanes = bucket.toJSON().getJSONObject("lanes");
+		assertEquals(2, lanes.getJSONObject("control").getInt("granted"));
+		assertEquals(1, lanes.getJSONObject("telemetry").getInt("granted"));
+		assertEquals(1, lanes.getJSONObject("telemetry").getInt("rejected"));
+	}
+
+	@Test
+	public void testToolEndpointsAreTelemetry() throws Exception {
+		assertEquals(DevOpsRateLimiter.Lane.TELEMETRY,
+				DevOpsRateLimiter.getLane(new URL("https://limit.service-now.com/api/sn_devops/v2/devops/tool/orchestration")));
+		assertEquals(DevOpsRateLimiter.Lane.CONTROL,
+				DevOpsRateLimiter.getLane(new URL("https://limit.service-now.com/api/sn_devops/v2/devops/orchestration/changeControl")));
+	}
+}
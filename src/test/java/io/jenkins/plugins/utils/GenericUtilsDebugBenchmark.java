@@ -0,0 +1,84 @@
+package io.jenkins.plugins.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Debug call of a request payload, with the values built eagerly and through the level guarded overload. With the
+ * plugin logger at its default level (INFO) the guarded call should cost next to nothing.
+ *
+ * Not run with the tests, run the main method from the test classpath (for instance from the IDE).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenericUtilsDebugBenchmark {
+
+	private static final String CLASS_NAME = GenericUtilsDebugBenchmark.class.getName();
+	private static final String[] VARIABLES = {"method", "urlString", "params", "data"};
+
+	@Param({"INFO", "FINE"})
+	private String loggerLevel;
+
+	private JSONObject params;
+	private JSONObject payload;
+
+	@Setup
+	public void setUp() {
+		Logger logger = Logger.getLogger(DevOpsConstants.LOGGER_NAME.toString());
+		logger.setLevel(Level.parse(loggerLevel));
+		// only the cost of building and dispatching the record is measured, not the console
+		logger.setUseParentHandlers(false);
+
+		params = new JSONObject();
+		params.put("toolId", "a7b5c3d1e9f24d6b8c0a1e3f5b7d9c2e");
+		payload = new JSONObject();
+		JSONArray stages = new JSONArray();
+		for (int i = 0; i < 50; i++) {
+			JSONObject stage = new JSONObject();
+			stage.put("name", "Stage " + i);
+			stage.put("url", "http://localhost:8080/job/benchmark/1/execution/node/" + i + "/");
+			stage.put("phase", "COMPLETED");
+			stage.put("result", "SUCCESS");
+			stages.add(stage);
+		}
+		payload.put("stages", stages);
+	}
+
+	@Benchmark
+	public void unguarded() {
+		GenericUtils.printDebug(CLASS_NAME, "call", VARIABLES,
+				new String[]{"POST", "https://instance/api", params.toString(), payload.toString()}, Level.FINE);
+	}
+
+	@Benchmark
+	public void guarded() {
+		GenericUtils.printDebug(CLASS_NAME, "call", VARIABLES, Level.FINE,
+				() -> new String[]{"POST", "https://instance/api", params.toString(), payload.toString()});
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(GenericUtilsDebugBenchmark.class.getSimpleName()).build()).run();
+	}
+}